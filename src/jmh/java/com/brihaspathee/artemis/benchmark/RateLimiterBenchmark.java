@@ -0,0 +1,61 @@
+package com.brihaspathee.artemis.benchmark;
+
+import com.brihaspathee.artemis.ratelimit.LocalRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the contention of {@link LocalRateLimiter} with 16 threads (override with
+ * {@code -t}, e.g. {@code -t 64} on larger machines). {@code hotKey} has every thread
+ * take tokens from the same bucket, the worst case of one CAS contended by all threads;
+ * {@code spreadKeys} has them draw from {@code userCount} users at random, which mostly
+ * exercises the bucket lookup. The rate is high enough that requests are admitted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"1000", "1000000"})
+    int userCount;
+
+    private LocalRateLimiter rateLimiter;
+
+    private String[] users;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new LocalRateLimiter(1_000_000_000, 1_000_000, 2_000_000);
+        users = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            users[i] = "user-" + i;
+        }
+    }
+
+    @Benchmark
+    public long hotKey() {
+        return rateLimiter.tryAcquire(users[0]);
+    }
+
+    @Benchmark
+    public long spreadKeys() {
+        return rateLimiter.tryAcquire(users[ThreadLocalRandom.current().nextInt(userCount)]);
+    }
+}
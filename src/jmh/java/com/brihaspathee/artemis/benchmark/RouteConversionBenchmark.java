@@ -0,0 +1,67 @@
+package com.brihaspathee.artemis.benchmark;
+
+import com.brihaspathee.artemis.domain.entity.Route;
+import com.brihaspathee.artemis.domain.repository.RouteRepository;
+import com.brihaspathee.artemis.route.ArtemisRouteDefinitionRepository;
+import com.brihaspathee.artemis.route.RouteSnapshotStore;
+import com.brihaspathee.artemis.config.RouteRefreshConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures converting a whole routes table into route definitions, which is what a
+ * full reload does, at growing route table sizes. One operation converts every route.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteConversionBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int routeCount;
+
+    private List<Route> routes;
+
+    private ArtemisRouteDefinitionRepository repository;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.discardAtInfo();
+        routes = RouteFixtures.routes(routeCount);
+        RouteRefreshConfig config = new RouteRefreshConfig();
+        config.getSnapshot().setEnabled(false);
+        repository = new ArtemisRouteDefinitionRepository(mock(RouteRepository.class),
+                new RouteSnapshotStore(config), RouteFixtures.parser());
+    }
+
+    @TearDown
+    public void tearDown() {
+        repository.shutdown();
+    }
+
+    @Benchmark
+    public void convertToRouteDefinition(Blackhole blackhole) {
+        for (Route route : routes) {
+            blackhole.consume(repository.convertToRouteDefinition(route));
+        }
+    }
+}
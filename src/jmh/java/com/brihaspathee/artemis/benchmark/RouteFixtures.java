@@ -0,0 +1,55 @@
+package com.brihaspathee.artemis.benchmark;
+
+import com.brihaspathee.artemis.domain.entity.Route;
+import com.brihaspathee.artemis.domain.entity.RouteSecurityPolicy;
+import com.brihaspathee.artemis.route.RouteDefinitionParser;
+import org.springframework.cloud.gateway.filter.factory.AddRequestHeaderGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.StripPrefixGatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Route tables shared by the benchmarks: one route per service, each with a Path and a
+ * Method predicate and two filters, as stored in the routes table.
+ */
+final class RouteFixtures {
+
+    private RouteFixtures() {
+    }
+
+    static List<RoutePredicateFactory<?>> predicateFactories() {
+        return List.of(new PathRoutePredicateFactory(), new MethodRoutePredicateFactory());
+    }
+
+    static List<GatewayFilterFactory<?>> filterFactories() {
+        return List.of(new StripPrefixGatewayFilterFactory(), new AddRequestHeaderGatewayFilterFactory());
+    }
+
+    static RouteDefinitionParser parser() {
+        return new RouteDefinitionParser(predicateFactories(), filterFactories());
+    }
+
+    static List<Route> routes(int routeCount) {
+        List<Route> routes = new ArrayList<>(routeCount);
+        for (int i = 0; i < routeCount; i++) {
+            routes.add(Route.builder()
+                    .routeId("service-" + i)
+                    .uri("lb://SERVICE-" + i)
+                    .predicates("Path=/api/v1/artemis/service-" + i + "/**\nMethod=GET,POST")
+                    .filters("StripPrefix=3\nAddRequestHeader=X-Route-Id,service-" + i)
+                    .securityPolicy(RouteSecurityPolicy.PUBLIC)
+                    .enabled(true)
+                    .build());
+        }
+        return routes;
+    }
+
+    static String path(int service, int request) {
+        return "/api/v1/artemis/service-" + service + "/accounts/" + request;
+    }
+}
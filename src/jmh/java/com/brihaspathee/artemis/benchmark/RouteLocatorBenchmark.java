@@ -0,0 +1,135 @@
+package com.brihaspathee.artemis.benchmark;
+
+import com.brihaspathee.artemis.config.RouteRefreshConfig;
+import com.brihaspathee.artemis.domain.repository.RouteRepository;
+import com.brihaspathee.artemis.route.ArtemisRouteDefinitionRepository;
+import com.brihaspathee.artemis.route.RouteSnapshotStore;
+import com.brihaspathee.artemis.route.TrieRoutePredicateHandlerMapping;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.route.CachingRouteLocator;
+import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the gateway's route handling end to end, from the routes table to the route
+ * chosen for a request: building all routes through the {@link RouteLocator}, and looking
+ * up the route of a request through the default and the trie based handler mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteLocatorBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int routeCount;
+
+    private ArtemisRouteDefinitionRepository repository;
+
+    private RouteDefinitionRouteLocator routeDefinitionRouteLocator;
+
+    private RoutePredicateHandlerMapping defaultHandlerMapping;
+
+    private TrieRoutePredicateHandlerMapping trieHandlerMapping;
+
+    private ServerWebExchange[] exchanges;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        BenchmarkLogging.discardAtInfo();
+        RouteRepository routeRepository = mock(RouteRepository.class);
+        when(routeRepository.findByEnabledTrue()).thenReturn(RouteFixtures.routes(routeCount));
+        RouteRefreshConfig config = new RouteRefreshConfig();
+        config.getSnapshot().setEnabled(false);
+        repository = new ArtemisRouteDefinitionRepository(routeRepository, new RouteSnapshotStore(config),
+                RouteFixtures.parser());
+        repository.getRouteDefinitions().blockLast();
+
+        DefaultFormattingConversionService conversionService = new DefaultFormattingConversionService();
+        ConfigurationService configurationService = new ConfigurationService(new DefaultListableBeanFactory(),
+                () -> conversionService, () -> null);
+        routeDefinitionRouteLocator = new RouteDefinitionRouteLocator(repository,
+                List.copyOf(RouteFixtures.predicateFactories()), List.copyOf(RouteFixtures.filterFactories()),
+                new GatewayProperties(), configurationService);
+        RouteLocator routeLocator = new CachingRouteLocator(routeDefinitionRouteLocator);
+        routeLocator.getRoutes().blockLast();
+
+        FilteringWebHandler webHandler = new FilteringWebHandler(List.of(), false);
+        StandardEnvironment environment = new StandardEnvironment();
+        defaultHandlerMapping = new RoutePredicateHandlerMapping(webHandler, routeLocator,
+                new GlobalCorsProperties(), environment);
+        trieHandlerMapping = new TrieRoutePredicateHandlerMapping(webHandler, routeLocator, repository,
+                new GlobalCorsProperties(), environment);
+        trieHandlerMapping.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        // Requests spread evenly over the route table
+        Random random = new Random(42);
+        exchanges = new ServerWebExchange[1024];
+        for (int i = 0; i < exchanges.length; i++) {
+            exchanges[i] = MockServerWebExchange.from(MockServerHttpRequest.get(
+                    RouteFixtures.path(random.nextInt(routeCount), i)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        repository.shutdown();
+    }
+
+    /**
+     * Builds every route from its definition, as the gateway does on a full refresh.
+     */
+    @Benchmark
+    public Long buildRoutes() {
+        return routeDefinitionRouteLocator.getRoutes().count().block();
+    }
+
+    @Benchmark
+    public Object defaultLookup() {
+        return defaultHandlerMapping.getHandler(nextExchange()).block();
+    }
+
+    @Benchmark
+    public Object trieLookup() {
+        return trieHandlerMapping.getHandler(nextExchange()).block();
+    }
+
+    private ServerWebExchange nextExchange() {
+        next = (next + 1) & (exchanges.length - 1);
+        return exchanges[next];
+    }
+}
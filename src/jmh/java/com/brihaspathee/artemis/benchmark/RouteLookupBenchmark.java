@@ -0,0 +1,102 @@
+package com.brihaspathee.artemis.benchmark;
+
+import com.brihaspathee.artemis.route.PathRouteTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares looking up the route of a request by evaluating every route's predicates in
+ * order (what the gateway does by default) with looking it up through the
+ * {@link PathRouteTrie}, at growing route table sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteLookupBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int routeCount;
+
+    private List<Route> routes;
+
+    private PathRouteTrie trie;
+
+    private ServerWebExchange[] exchanges;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        PathRoutePredicateFactory pathPredicates = new PathRoutePredicateFactory();
+        routes = new ArrayList<>(routeCount);
+        Map<String, List<String>> patterns = new HashMap<>();
+        for (int i = 0; i < routeCount; i++) {
+            String id = "service-" + i;
+            String pattern = "/api/v1/artemis/" + id + "/**";
+            routes.add(Route.async()
+                    .id(id)
+                    .uri("lb://SERVICE-" + i)
+                    .predicate(pathPredicates.apply(config -> config.setPatterns(List.of(pattern))))
+                    .build());
+            patterns.put(id, List.of(pattern));
+        }
+        trie = PathRouteTrie.build(routes, patterns);
+
+        // Requests spread evenly over the route table
+        Random random = new Random(42);
+        exchanges = new ServerWebExchange[1024];
+        for (int i = 0; i < exchanges.length; i++) {
+            String path = "/api/v1/artemis/service-" + random.nextInt(routeCount) + "/accounts/" + i;
+            exchanges[i] = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        }
+    }
+
+    @Benchmark
+    public Route defaultPredicateChain() {
+        ServerWebExchange exchange = nextExchange();
+        return firstMatch(routes, exchange);
+    }
+
+    @Benchmark
+    public Route pathTrie() {
+        ServerWebExchange exchange = nextExchange();
+        return firstMatch(trie.candidates(exchange.getRequest().getPath().pathWithinApplication()), exchange);
+    }
+
+    private ServerWebExchange nextExchange() {
+        next = (next + 1) & (exchanges.length - 1);
+        return exchanges[next];
+    }
+
+    private static Route firstMatch(List<Route> candidates, ServerWebExchange exchange) {
+        return Flux.fromIterable(candidates)
+                .filterWhen(route -> route.getPredicate().apply(exchange))
+                .next()
+                .block();
+    }
+}
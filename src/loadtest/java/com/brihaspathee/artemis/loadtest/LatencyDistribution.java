@@ -0,0 +1,77 @@
+package com.brihaspathee.artemis.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The response times of a stub service, given as
+ * <ul>
+ *     <li>{@code fixed:5ms} - always the same</li>
+ *     <li>{@code uniform:1ms:10ms} - evenly spread between two bounds</li>
+ *     <li>{@code lognormal:5ms:50ms} - log-normal with the given median and 99th percentile,
+ *     the long tail typical of real services</li>
+ * </ul>
+ * Durations are in the Spring Boot format (e.g. 500us, 5ms, 1s).
+ */
+final class LatencyDistribution {
+
+    /**
+     * The 99th percentile of the standard normal distribution.
+     */
+    private static final double Z_99 = 2.3263;
+
+    private final String spec;
+
+    private final Kind kind;
+
+    private final long a;
+
+    private final long b;
+
+    private LatencyDistribution(String spec, Kind kind, long a, long b) {
+        this.spec = spec;
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    static LatencyDistribution parse(String spec) {
+        String[] parts = spec.split(":");
+        Kind kind = Kind.valueOf(parts[0].toUpperCase());
+        long a = nanos(parts[1]);
+        long b = parts.length > 2 ? nanos(parts[2]) : a;
+        if (kind != Kind.FIXED && (parts.length != 3 || b < a)) {
+            throw new IllegalArgumentException("Invalid latency distribution: " + spec);
+        }
+        return new LatencyDistribution(spec, kind, a, b);
+    }
+
+    /**
+     * @return a random response time in nanoseconds
+     */
+    long nextNanos() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (kind) {
+            case FIXED -> a;
+            case UNIFORM -> a + (long) (random.nextDouble() * (b - a));
+            case LOGNORMAL -> {
+                double sigma = Math.log((double) b / a) / Z_99;
+                yield (long) (a * Math.exp(sigma * random.nextGaussian()));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    private static long nanos(String text) {
+        return DurationStyle.detectAndParse(text).toNanos();
+    }
+
+    private enum Kind {
+        FIXED, UNIFORM, LOGNORMAL
+    }
+}
@@ -0,0 +1,315 @@
+package com.brihaspathee.artemis.loadtest;
+
+import com.brihaspathee.artemis.ApiGatewayApplication;
+import com.brihaspathee.artemis.auth.AuthServiceClient;
+import com.brihaspathee.artemis.scheduler.ArtemisRouteRefresher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Measures the latency and the highest sustainable throughput of the whole gateway,
+ * under identical conditions from one build to the next and without any network access:
+ * <ol>
+ *     <li>the routes are kept in an in-memory H2 database, with the route change feed
+ *     disabled as it relies on Postgres LISTEN/NOTIFY; with {@code database=postgres}
+ *     Postgres is started with Testcontainers (the image must be available locally),
+ *     unless {@code jdbc-url} points to an existing database</li>
+ *     <li>a {@link StubAuthService} and {@code backends} {@link StubBackend}s are started in
+ *     process, the backends registered with the simple discovery client as
+ *     {@code lb://loadtest-backend}</li>
+ *     <li>the gateway is started and two routes are seeded: {@code /loadtest/public/**}
+ *     (public) and {@code /loadtest/secured/**} (authorized by the auth service)</li>
+ *     <li>after a warm-up at the first rate, the gateway is run for {@code duration} at each
+ *     of the {@code rates}, until it can no longer sustain one</li>
+ * </ol>
+ * Options are given as key=value arguments:
+ * <pre>
+ * rates=250,500,1000,2000,4000   arrival rates in requests per second
+ * duration=20s                   how long each rate is run
+ * warmup=10s                     how long the gateway is warmed up
+ * route=secured                  secured or public
+ * route-filters=                 extra filters on both routes, separated by ';'
+ * hedge-percentile=              the hedge percentile of both routes, none by default
+ * backends=3                     the number of stub backends
+ * backend-latency=lognormal:5ms:40ms
+ * auth-latency=fixed:2ms
+ * response-size=1024             the size of the backend response in bytes
+ * users=1000                     the number of distinct users (tokens)
+ * paths=100                      the number of distinct paths per route
+ * connections=1000               the connections from the load generator to the gateway
+ * timeout=5s                     requests taking longer count as errors
+ * max-outstanding=20000          the most requests waiting for a response at once
+ * slo-p99=100ms                  the 99th percentile latency a rate must stay within
+ * max-error-rate=0.01            the share of errors a rate must stay within
+ * database=h2                    h2 or postgres
+ * jdbc-url=                      the Postgres database to use instead of starting one (with jdbc-user and jdbc-password)
+ * postgres-image=postgres:15
+ * </pre>
+ * The results are printed and written to target/loadtest-result.json.
+ */
+public final class LoadTest {
+
+    private static final String BACKEND_SERVICE = "loadtest-backend";
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("rates", "250,500,1000,2000,4000"),
+            Map.entry("duration", "20s"),
+            Map.entry("warmup", "10s"),
+            Map.entry("route", "secured"),
+            Map.entry("route-filters", ""),
+            Map.entry("hedge-percentile", ""),
+            Map.entry("backends", "3"),
+            Map.entry("backend-latency", "lognormal:5ms:40ms"),
+            Map.entry("auth-latency", "fixed:2ms"),
+            Map.entry("response-size", "1024"),
+            Map.entry("users", "1000"),
+            Map.entry("paths", "100"),
+            Map.entry("connections", "1000"),
+            Map.entry("timeout", "5s"),
+            Map.entry("max-outstanding", "20000"),
+            Map.entry("slo-p99", "100ms"),
+            Map.entry("max-error-rate", "0.01"),
+            Map.entry("database", "h2"),
+            Map.entry("jdbc-url", ""),
+            Map.entry("jdbc-user", "artemis_gateway_admin"),
+            Map.entry("jdbc-password", "password"),
+            Map.entry("postgres-image", "postgres:15"));
+
+    /**
+     * An in-memory database kept for the lifetime of the JVM, in the Postgres
+     * compatibility mode so that the seeded routes are inserted as they would be there.
+     */
+    private static final String H2_JDBC_URL = "jdbc:h2:mem:artemis_gatewaydb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = options(args);
+        PostgreSQLContainer<?> postgres = null;
+        List<DisposableServer> stubs = new ArrayList<>();
+        ConfigurableApplicationContext gateway = null;
+        try {
+            boolean h2 = switch (options.get("database")) {
+                case "h2" -> true;
+                case "postgres" -> false;
+                default -> throw new IllegalArgumentException("Unknown database '" + options.get("database")
+                        + "', expected h2 or postgres");
+            };
+            String jdbcUrl = h2 ? H2_JDBC_URL : options.get("jdbc-url");
+            if (jdbcUrl.isEmpty()) {
+                postgres = new PostgreSQLContainer<>(options.get("postgres-image"))
+                        .withDatabaseName("artemis_gatewaydb")
+                        .withUsername(options.get("jdbc-user"))
+                        .withPassword(options.get("jdbc-password"));
+                postgres.start();
+                jdbcUrl = postgres.getJdbcUrl();
+            }
+            DisposableServer authService = StubAuthService.start(LatencyDistribution.parse(options.get("auth-latency")));
+            stubs.add(authService);
+            LatencyDistribution backendLatency = LatencyDistribution.parse(options.get("backend-latency"));
+            int responseSize = Integer.parseInt(options.get("response-size"));
+            for (int i = 0; i < Integer.parseInt(options.get("backends")); i++) {
+                stubs.add(StubBackend.start(backendLatency, responseSize));
+            }
+
+            gateway = startGateway(options, jdbcUrl, authService, stubs.subList(1, stubs.size()));
+            seedRoutes(gateway, options);
+            int port = ((ReactiveWebServerApplicationContext) gateway).getWebServer().getPort();
+            System.out.printf("Gateway on port %d, auth service on %d, %d backend(s) with latency %s%n",
+                    port, authService.port(), stubs.size() - 1, backendLatency);
+
+            Supplier<Mono<Integer>> request = requests(options, port);
+            Duration timeout = duration(options, "timeout");
+            OpenModelLoadGenerator generator = new OpenModelLoadGenerator(
+                    Integer.parseInt(options.get("max-outstanding")), timeout);
+            int[] rates = Arrays.stream(options.get("rates").split(",")).mapToInt(Integer::parseInt).toArray();
+            double p99Objective = duration(options, "slo-p99").toNanos() / 1e6;
+            double maximumErrorRate = Double.parseDouble(options.get("max-error-rate"));
+
+            System.out.printf("Warming up at %d req/s for %s%n", rates[0], options.get("warmup"));
+            generator.run(rates[0], duration(options, "warmup"), request);
+            // The first calls of a cold JVM can be slow enough to open the circuit to the auth service
+            gateway.getBean(ReactiveResilience4JCircuitBreakerFactory.class).getCircuitBreakerRegistry()
+                    .circuitBreaker(AuthServiceClient.NAME).reset();
+
+            System.out.printf("%10s %12s %10s %8s %10s %10s %10s %10s%n",
+                    "rate", "achieved", "requests", "errors", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            List<StepResult> results = new ArrayList<>();
+            int sustainable = 0;
+            for (int rate : rates) {
+                StepResult result = generator.run(rate, duration(options, "duration"), request);
+                results.add(result);
+                System.out.printf("%10d %12.1f %10d %8d %10.2f %10.2f %10.2f %10.2f%n", result.targetRate(),
+                        result.achievedRate(), result.requests(), result.errors(),
+                        result.p50(), result.p99(), result.p999(), result.max());
+                if (!result.isSustainable(p99Objective, maximumErrorRate)) {
+                    break;
+                }
+                sustainable = rate;
+            }
+            System.out.printf("Highest sustainable rate: %d req/s (p99 within %s, errors within %.1f%%)%n",
+                    sustainable, options.get("slo-p99"), maximumErrorRate * 100);
+            writeResults(options, results, sustainable);
+        } finally {
+            if (gateway != null) {
+                gateway.close();
+            }
+            stubs.forEach(DisposableServer::disposeNow);
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startGateway(Map<String, String> options, String jdbcUrl,
+                                                               DisposableServer authService,
+                                                               List<DisposableServer> backends) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", options.get("jdbc-user"));
+        properties.put("spring.datasource.password", options.get("jdbc-password"));
+        if (jdbcUrl.equals(H2_JDBC_URL)) {
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+            properties.put("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+            properties.put("application.routes.change-feed.enabled", false);
+        }
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.cloud.config.enabled", false);
+        properties.put("eureka.client.enabled", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("application.routes.snapshot.enabled", false);
+        properties.put("application.auth-service.host", "localhost");
+        properties.put("application.auth-service.port", authService.port());
+        properties.put("application.auth-service.batching.enabled", false);
+        for (int i = 0; i < backends.size(); i++) {
+            properties.put("spring.cloud.discovery.client.simple.instances." + BACKEND_SERVICE + "[" + i + "].uri",
+                    "http://localhost:" + backends.get(i).port());
+        }
+        // Passed as command line arguments, as default properties would not override the profile
+        return new SpringApplicationBuilder(ApiGatewayApplication.class)
+                .profiles("unit-test")
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+    /**
+     * Inserts the load test routes and waits until the gateway serves them.
+     */
+    private static void seedRoutes(ConfigurableApplicationContext gateway, Map<String, String> options) {
+        // Hibernate creates the routes table in the background
+        gateway.getBean(EntityManagerFactory.class).getMetamodel();
+        JdbcTemplate jdbcTemplate = gateway.getBean(JdbcTemplate.class);
+        String filters = String.join("\n", options.get("route-filters").split(";"));
+        Double hedgePercentile = options.get("hedge-percentile").isEmpty()
+                ? null : Double.valueOf(options.get("hedge-percentile"));
+        jdbcTemplate.update("delete from routes where route_id like 'loadtest-%'");
+        for (String policy : List.of("PUBLIC", "RESOURCE_AUTHORIZED")) {
+            String name = policy.equals("PUBLIC") ? "public" : "secured";
+            jdbcTemplate.update("insert into routes (id, route_id, uri, predicates, filters, enabled, " +
+                            "security_policy, hedge_percentile) values (nextval('routes_seq'), ?, ?, ?, ?, true, ?, ?)",
+                    "loadtest-" + name, "lb://" + BACKEND_SERVICE, "Path=/loadtest/" + name + "/**",
+                    filters, policy, hedgePercentile);
+        }
+        gateway.getBean(ArtemisRouteRefresher.class).refresh();
+        RouteLocator routeLocator = gateway.getBean(RouteLocator.class);
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (routeLocator.getRoutes().filter(route -> route.getId().startsWith("loadtest-")).count().block() < 2) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The load test routes were not loaded");
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * @return sends a request for a random path of the route as a random user
+     */
+    private static Supplier<Mono<Integer>> requests(Map<String, String> options, int port) {
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(Integer.parseInt(options.get("connections")))
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(duration(options, "timeout"))
+                .build();
+        HttpClient client = HttpClient.create(connections).baseUrl("http://localhost:" + port);
+        int users = Integer.parseInt(options.get("users"));
+        HttpClient[] clients = new HttpClient[users];
+        for (int i = 0; i < users; i++) {
+            String token = "Bearer loadtest-user-" + i;
+            clients[i] = client.headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION, token));
+        }
+        int paths = Integer.parseInt(options.get("paths"));
+        String prefix = "/loadtest/" + options.get("route") + "/items/";
+        return () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return clients[random.nextInt(users)].get()
+                    .uri(prefix + random.nextInt(paths))
+                    .response((response, body) -> body.then(Mono.just(response.status().code())))
+                    .next();
+        };
+    }
+
+    private static void writeResults(Map<String, String> options, List<StepResult> results, int sustainable)
+            throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("options", new TreeMap<>(options));
+        report.put("steps", results);
+        report.put("highestSustainableRate", sustainable);
+        File file = new File("target/loadtest-result.json");
+        file.getParentFile().mkdirs();
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("Results written to " + file.getPath());
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String key = equals < 0 ? arg : arg.substring(0, equals);
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown option '" + key + "', expected one of " + DEFAULTS.keySet());
+            }
+            options.put(key, equals < 0 ? "" : arg.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static Duration duration(Map<String, String> options, String key) {
+        return DurationStyle.detectAndParse(options.get(key));
+    }
+}
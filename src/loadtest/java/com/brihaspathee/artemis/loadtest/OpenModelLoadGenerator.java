@@ -0,0 +1,105 @@
+package com.brihaspathee.artemis.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Sends requests at a fixed arrival rate, whether or not earlier requests have been
+ * answered (an open model, like real clients), unlike a closed loop of virtual users
+ * that slows down with the system under test and so under-reports its latency. Each
+ * latency is measured from when the request was due, not from when it was sent.
+ */
+final class OpenModelLoadGenerator {
+
+    /**
+     * Shorter waits than this are spun rather than parked, for timely arrivals.
+     */
+    private static final long SPIN_NANOS = 100_000;
+
+    private final int maximumOutstanding;
+
+    private final Duration timeout;
+
+    /**
+     * @param maximumOutstanding the most requests waiting for a response at once; further
+     *                           requests are counted as errors rather than sent
+     * @param timeout how long a request may take before it is counted as an error
+     */
+    OpenModelLoadGenerator(int maximumOutstanding, Duration timeout) {
+        this.maximumOutstanding = maximumOutstanding;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Runs one step of the load test.
+     *
+     * @param rate the arrival rate in requests per second
+     * @param duration how long requests arrive for
+     * @param request sends one request, emitting the response status
+     * @return the latencies and errors of the step
+     */
+    StepResult run(int rate, Duration duration, Supplier<Mono<Integer>> request) {
+        Recorder recorder = new Recorder(3);
+        AtomicLong outstanding = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong successes = new AtomicLong();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long requests = duration.toNanos() / interval;
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long due = start + i * interval;
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                if (wait > SPIN_NANOS) {
+                    LockSupport.parkNanos(wait - SPIN_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+            if (outstanding.get() >= maximumOutstanding) {
+                errors.incrementAndGet();
+                continue;
+            }
+            outstanding.incrementAndGet();
+            request.get()
+                    .timeout(timeout)
+                    .onErrorReturn(-1)
+                    .defaultIfEmpty(-1)
+                    .subscribe(status -> {
+                        recorder.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - due));
+                        if (status >= 200 && status < 400) {
+                            successes.incrementAndGet();
+                        } else {
+                            errors.incrementAndGet();
+                        }
+                        outstanding.decrementAndGet();
+                    });
+        }
+        long deadline = System.nanoTime() + timeout.toNanos() + TimeUnit.SECONDS.toNanos(1);
+        while (outstanding.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        errors.addAndGet(outstanding.get());
+        double sendSeconds = duration.toNanos() / 1e9;
+        Histogram histogram = recorder.getIntervalHistogram();
+        return new StepResult(rate,
+                successes.get() / sendSeconds,
+                requests,
+                errors.get(),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,194 @@
+package com.brihaspathee.artemis.loadtest;
+
+import com.brihaspathee.artemis.ApiGatewayApplication;
+import com.brihaspathee.artemis.scheduler.ArtemisRouteRefresher;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Measures how long the gateway takes to route its first request after a start, with and
+ * without the local route snapshot, against a Postgres started by Testcontainers (the image
+ * must be available locally) unless {@code jdbc-url} points to an existing database:
+ * <ol>
+ *     <li>the gateway is started once to seed {@code routes} routes to a {@link StubBackend}
+ *     and write the snapshot</li>
+ *     <li>it is then started {@code runs} times in each mode: without the snapshot, with
+ *     the snapshot, and with the snapshot while the database is unreachable</li>
+ * </ol>
+ * For every start, the time until the application context is ready and until the last
+ * seeded route answers are printed, followed by their medians.
+ * <pre>
+ * routes=200                     the number of routes seeded
+ * runs=5                         the number of starts in each mode
+ * jdbc-url=                      use this database instead of starting one (with jdbc-user and jdbc-password)
+ * postgres-image=postgres:15
+ * </pre>
+ */
+public final class StartupTest {
+
+    private static final Map<String, String> DEFAULTS = Map.of(
+            "routes", "200",
+            "runs", "5",
+            "jdbc-url", "",
+            "jdbc-user", "artemis_gateway_admin",
+            "jdbc-password", "password",
+            "postgres-image", "postgres:15");
+
+    /**
+     * A database URL nothing listens on.
+     */
+    private static final String UNREACHABLE_JDBC_URL = "jdbc:postgresql://localhost:1/artemis_gatewaydb?connectTimeout=1";
+
+    private StartupTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (!DEFAULTS.containsKey(option[0])) {
+                throw new IllegalArgumentException("Unknown option '" + option[0] + "', expected one of " + DEFAULTS.keySet());
+            }
+            options.put(option[0], option.length > 1 ? option[1] : "");
+        }
+        int routes = Integer.parseInt(options.get("routes"));
+        int runs = Integer.parseInt(options.get("runs"));
+        PostgreSQLContainer<?> postgres = null;
+        DisposableServer backend = null;
+        try {
+            String jdbcUrl = options.get("jdbc-url");
+            if (jdbcUrl.isEmpty()) {
+                postgres = new PostgreSQLContainer<>(options.get("postgres-image"))
+                        .withDatabaseName("artemis_gatewaydb")
+                        .withUsername(options.get("jdbc-user"))
+                        .withPassword(options.get("jdbc-password"));
+                postgres.start();
+                jdbcUrl = postgres.getJdbcUrl();
+            }
+            backend = StubBackend.start(LatencyDistribution.parse("fixed:0ms"), 64);
+            Path snapshot = Files.createTempDirectory("artemis-startup").resolve("routes.snapshot");
+
+            try (ConfigurableApplicationContext gateway = start(options, jdbcUrl, snapshot, true, freePort())) {
+                seedRoutes(gateway, routes, backend.port());
+            }
+            if (!Files.isRegularFile(snapshot)) {
+                throw new IllegalStateException("No route snapshot was written to " + snapshot);
+            }
+
+            String probePath = "/startup/" + (routes - 1) + "/items";
+            Map<String, List<long[]>> results = new LinkedHashMap<>();
+            for (int run = 0; run < runs; run++) {
+                results.computeIfAbsent("without snapshot", ignored -> new ArrayList<>())
+                        .add(measure(options, jdbcUrl, snapshot, false, probePath));
+                results.computeIfAbsent("with snapshot", ignored -> new ArrayList<>())
+                        .add(measure(options, jdbcUrl, snapshot, true, probePath));
+                results.computeIfAbsent("with snapshot, database down", ignored -> new ArrayList<>())
+                        .add(measure(options, UNREACHABLE_JDBC_URL, snapshot, true, probePath));
+            }
+
+            System.out.printf("%-30s %14s %18s%n", "mode", "ready ms", "first routed ms");
+            results.forEach((mode, times) -> System.out.printf("%-30s %14d %18d%n",
+                    mode, median(times, 0), median(times, 1)));
+        } finally {
+            if (backend != null) {
+                backend.disposeNow();
+            }
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Starts the gateway once and stops it again.
+     *
+     * @return the milliseconds until the context was ready and until the probe path
+     *         answered, or -1 if it never did
+     */
+    private static long[] measure(Map<String, String> options, String jdbcUrl, Path snapshot, boolean snapshotEnabled,
+                                  String probePath) throws IOException {
+        int port = freePort();
+        HttpClient client = HttpClient.create().baseUrl("http://localhost:" + port);
+        long start = System.nanoTime();
+        CompletableFuture<Long> firstRouted = Mono.defer(() -> client.get().uri(probePath)
+                        .response((response, body) -> body.then(Mono.just(response.status().code())))
+                        .next())
+                .onErrorReturn(0)
+                .filter(status -> status == 200)
+                .repeatWhenEmpty(Integer.MAX_VALUE, repeat -> repeat.delayElements(Duration.ofMillis(5)))
+                .map(status -> (System.nanoTime() - start) / 1_000_000)
+                .timeout(Duration.ofSeconds(60), Mono.just(-1L))
+                .toFuture();
+        try (ConfigurableApplicationContext ignored = start(options, jdbcUrl, snapshot, snapshotEnabled, port)) {
+            long ready = (System.nanoTime() - start) / 1_000_000;
+            return new long[]{ready, firstRouted.join()};
+        }
+    }
+
+    private static ConfigurableApplicationContext start(Map<String, String> options, String jdbcUrl, Path snapshot,
+                                                        boolean snapshotEnabled, int port) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", port);
+        properties.put("spring.datasource.url", jdbcUrl);
+        properties.put("spring.datasource.username", options.get("jdbc-user"));
+        properties.put("spring.datasource.password", options.get("jdbc-password"));
+        properties.put("spring.jpa.show-sql", false);
+        properties.put("spring.cloud.config.enabled", false);
+        properties.put("eureka.client.enabled", false);
+        properties.put("logging.level.root", "WARN");
+        properties.put("application.routes.snapshot.enabled", snapshotEnabled);
+        properties.put("application.routes.snapshot.path", snapshot.toString());
+        // Passed as command line arguments, as default properties would not override the profile
+        return new SpringApplicationBuilder(ApiGatewayApplication.class)
+                .profiles("unit-test")
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+
+    /**
+     * Inserts the public startup routes and waits until they have been loaded, and with
+     * them the snapshot written.
+     */
+    private static void seedRoutes(ConfigurableApplicationContext gateway, int routes, int backendPort) {
+        gateway.getBean(EntityManagerFactory.class).getMetamodel();
+        JdbcTemplate jdbcTemplate = gateway.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("delete from routes where route_id like 'startup-%'");
+        for (int i = 0; i < routes; i++) {
+            jdbcTemplate.update("insert into routes (id, route_id, uri, predicates, filters, enabled, security_policy) " +
+                            "values (nextval('routes_seq'), ?, ?, ?, '', true, 'PUBLIC')",
+                    "startup-" + i, "http://localhost:" + backendPort, "Path=/startup/" + i + "/**");
+        }
+        gateway.getBean(ArtemisRouteRefresher.class).refresh();
+    }
+
+    private static long median(List<long[]> times, int index) {
+        long[] values = times.stream().mapToLong(time -> time[index]).sorted().toArray();
+        return values[values.length / 2];
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.brihaspathee.artemis.loadtest;
+
+/**
+ * The outcome of running the gateway at one arrival rate. Latencies are in milliseconds,
+ * measured from when each request was due to be sent, so that a stalled gateway cannot
+ * hide its stall by delaying the requests that would have measured it.
+ *
+ * @param targetRate the arrival rate aimed for, in requests per second
+ * @param achievedRate the successful responses per second of the step's duration, so that
+ *                     waiting for the last responses does not lower it
+ * @param requests the requests due in the step
+ * @param errors the requests that failed, timed out, were answered with a status of 400
+ *               or above, or could not be sent because too many were outstanding
+ * @param p50 the median latency
+ * @param p99 the 99th percentile latency
+ * @param p999 the 99.9th percentile latency
+ * @param max the highest latency
+ */
+record StepResult(int targetRate, double achievedRate, long requests, long errors,
+                  double p50, double p99, double p999, double max) {
+
+    /**
+     * @return the share of requests that failed
+     */
+    double errorRate() {
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    /**
+     * @param p99Objective the highest acceptable 99th percentile latency in milliseconds
+     * @param maximumErrorRate the highest acceptable share of failed requests
+     * @return whether the gateway kept up with the rate: nearly all requests were served,
+     *         within the latency objective
+     */
+    boolean isSustainable(double p99Objective, double maximumErrorRate) {
+        return errorRate() <= maximumErrorRate && achievedRate >= targetRate * 0.95 && p99 <= p99Objective;
+    }
+}
@@ -0,0 +1,44 @@
+package com.brihaspathee.artemis.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Stands in for the auth service's validate endpoint. Every bearer token is valid and
+ * names its user: "Bearer loadtest-user-7" is answered with user "loadtest-user-7",
+ * after a response time drawn from a {@link LatencyDistribution}.
+ */
+final class StubAuthService {
+
+    static final String VALIDATE_PATH = "/api/v1/artemis/auth/secured/resource/validate";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private StubAuthService() {
+    }
+
+    /**
+     * @param latency the response times
+     * @return the started server
+     */
+    static DisposableServer start(LatencyDistribution latency) {
+        return HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes.post(VALIDATE_PATH, (request, response) -> {
+                    String authorization = request.requestHeaders().get(HttpHeaderNames.AUTHORIZATION);
+                    if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+                        return response.status(HttpResponseStatus.UNAUTHORIZED).send();
+                    }
+                    String user = authorization.substring(BEARER_PREFIX.length());
+                    return request.receive().then(StubBackend.delay(latency))
+                            .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                    .sendString(Mono.just("{\"response\":{\"username\":\"" + user + "\"}}"))
+                                    .then());
+                }))
+                .bindNow();
+    }
+}
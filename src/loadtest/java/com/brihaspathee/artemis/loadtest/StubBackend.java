@@ -0,0 +1,59 @@
+package com.brihaspathee.artemis.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * An upstream service that answers every request with the same JSON body after a
+ * response time drawn from a {@link LatencyDistribution}. The delay is a timer, not a
+ * sleep, so a stub holds any number of requests at once.
+ */
+final class StubBackend {
+
+    /**
+     * The event loops of the stubs. Not the global ones of reactor-netty, as the gateway
+     * disposes those when its context is closed.
+     */
+    private static final LoopResources LOOPS = LoopResources.create("stub-backend");
+
+    private StubBackend() {
+    }
+
+    /**
+     * @param latency the response times
+     * @param responseSize the size of the response body in bytes
+     * @return the started server
+     */
+    static DisposableServer start(LatencyDistribution latency, int responseSize) {
+        byte[] body = body(responseSize);
+        return HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .runOn(LOOPS)
+                .handle((request, response) -> request.receive().then(delay(latency))
+                        .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendByteArray(Mono.just(body))
+                                .then()))
+                .bindNow();
+    }
+
+    static Mono<Long> delay(LatencyDistribution latency) {
+        long nanos = latency.nextNanos();
+        return nanos > 0 ? Mono.delay(Duration.ofNanos(nanos)) : Mono.just(0L);
+    }
+
+    private static byte[] body(int size) {
+        String prefix = "{\"data\":\"";
+        String suffix = "\"}";
+        char[] data = new char[Math.max(0, size - prefix.length() - suffix.length())];
+        Arrays.fill(data, 'x');
+        return (prefix + new String(data) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+}
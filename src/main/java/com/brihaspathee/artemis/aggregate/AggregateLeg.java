@@ -0,0 +1,87 @@
+package com.brihaspathee.artemis.aggregate;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 19:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.aggregate
+ * To change this template use File | Settings | File and Code Template
+ *
+ * One upstream call of a composite route.
+ *
+ * @param name the key of the leg's response in the merged response
+ * @param uri the upstream URI called, lb://, http:// or https://
+ * @param timeout how long the leg may take, or null for the default timeout
+ */
+public record AggregateLeg(String name, URI uri, Duration timeout) {
+
+    /**
+     * The key of the merged response listing the legs that failed, which no leg may use.
+     */
+    public static final String ERRORS = "errors";
+
+    /**
+     * Leg names are written into the merged response as they are, so they are limited
+     * to characters that need no escaping.
+     */
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final Set<String> SCHEMES = Set.of("lb", "http", "https");
+
+    /**
+     * Parses the legs column of a composite route, one leg per line as
+     * {@code name=uri[,timeout]}. Blank lines and lines starting with # are ignored.
+     *
+     * @param text the legs
+     * @return the legs, in order
+     * @throws IllegalArgumentException if a line cannot be parsed, or there are no legs
+     */
+    public static List<AggregateLeg> parse(String text) {
+        List<AggregateLeg> legs = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (String line : text.lines().map(String::trim).toList()) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int equals = line.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Unable to parse leg '" + line + "', expected name=uri[,timeout]");
+            }
+            String name = line.substring(0, equals).trim();
+            if (!NAME.matcher(name).matches() || ERRORS.equals(name)) {
+                throw new IllegalArgumentException("Invalid leg name '" + name + "'");
+            }
+            if (!names.add(name)) {
+                throw new IllegalArgumentException("Duplicate leg name '" + name + "'");
+            }
+            String value = line.substring(equals + 1).trim();
+            int comma = value.lastIndexOf(',');
+            Duration timeout = null;
+            if (comma >= 0) {
+                timeout = DurationStyle.detectAndParse(value.substring(comma + 1).trim());
+                value = value.substring(0, comma).trim();
+            }
+            URI uri = URI.create(value);
+            if (uri.getScheme() == null || !SCHEMES.contains(uri.getScheme()) || uri.getHost() == null) {
+                throw new IllegalArgumentException("Leg '" + name + "' needs an lb://, http:// or https:// URI: " + value);
+            }
+            legs.add(new AggregateLeg(name, uri, timeout));
+        }
+        if (legs.isEmpty()) {
+            throw new IllegalArgumentException("A composite route needs at least one leg");
+        }
+        return legs;
+    }
+}
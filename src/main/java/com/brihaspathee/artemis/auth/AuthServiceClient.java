@@ -0,0 +1,304 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import com.brihaspathee.artemis.dto.auth.AuthorizationRequest;
+import com.brihaspathee.artemis.dto.auth.UserDto;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import com.brihaspathee.artemis.web.response.ArtemisAPIResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 20:40
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Client of the auth service. Calls go over a dedicated, bounded connection pool with
+ * connect and response timeouts, and through a circuit breaker, so that a slow or failing
+ * auth service makes requests fail fast instead of piling up in the gateway. Only
+ * server errors, timeouts and connection failures count against the circuit breaker.
+ * The pool publishes the reactor-netty "reactor.netty.connection.provider.*" gauges
+ * (active, idle, pending and total connections) tagged with the pool name "auth-service".
+ */
+@Slf4j
+@Component
+public class AuthServiceClient {
+
+    /**
+     * The name of the connection pool and the id of the circuit breaker.
+     */
+    public static final String NAME = "auth-service";
+
+    /**
+     * The path of the endpoint that authorizes access to a resource.
+     */
+    private static final String VALIDATE_PATH = "/resource/validate";
+
+    /**
+     * The path of the endpoint that authorizes access to several resources in one call.
+     */
+    private static final String VALIDATE_BATCH_PATH = "/resource/validate/batch";
+
+    /**
+     * The call type tags of the auth service call timer.
+     */
+    private static final String CALL_SINGLE = "single";
+    private static final String CALL_BATCH = "batch";
+
+    /**
+     * The response type of the validate endpoint; created once as it is an anonymous class.
+     */
+    private static final ParameterizedTypeReference<ArtemisAPIResponse<UserDto>> VALIDATE_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    /**
+     * The response type of the batch validate endpoint.
+     */
+    private static final ParameterizedTypeReference<ArtemisAPIResponse<List<AuthorizationBatchResult>>> VALIDATE_BATCH_RESPONSE =
+            new ParameterizedTypeReference<>() {};
+
+    /**
+     * The dedicated pool of connections to the auth service.
+     */
+    private final ConnectionProvider connectionProvider;
+
+    /**
+     * The WebClient bound to the auth service and the dedicated pool.
+     */
+    private final WebClient webClient;
+
+    /**
+     * Opens when the auth service keeps failing or responding slowly.
+     */
+    private final ReactiveCircuitBreaker circuitBreaker;
+
+    /**
+     * Times the calls to the auth service.
+     */
+    private final GatewayMetrics gatewayMetrics;
+
+    /**
+     * Constructs the client.
+     *
+     * @param webClientBuilder the shared WebClient builder, cloned before it is customized
+     * @param authServiceConfig the configuration of the auth service
+     * @param circuitBreakerFactory the factory the circuit breaker is taken from
+     * @param gatewayMetrics the timers of the gateway stages
+     */
+    public AuthServiceClient(WebClient.Builder webClientBuilder,
+                             AuthServiceConfig authServiceConfig,
+                             ReactiveCircuitBreakerFactory<?, ?> circuitBreakerFactory,
+                             GatewayMetrics gatewayMetrics) {
+        this.gatewayMetrics = gatewayMetrics;
+        AuthServiceConfig.Client client = authServiceConfig.getClient();
+        this.connectionProvider = ConnectionProvider.builder(NAME)
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .maxIdleTime(client.getMaxIdleTime())
+                .maxLifeTime(client.getMaxLifeTime())
+                .evictInBackground(client.getEvictionInterval())
+                .metrics(client.isMetrics())
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) client.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(client.getResponseTimeout())
+                .metrics(client.isMetrics(), Function.identity());
+        if (client.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        String authServiceUrl = String.format("http://%s:%s/api/v1/artemis/auth/secured",
+                authServiceConfig.getHost(),
+                authServiceConfig.getPort());
+        log.info("Auth Service URL: {}", authServiceUrl);
+        this.webClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .baseUrl(authServiceUrl)
+                .build();
+        if (circuitBreakerFactory instanceof ReactiveResilience4JCircuitBreakerFactory resilience4JFactory) {
+            AuthServiceConfig.CircuitBreaker settings = authServiceConfig.getCircuitBreaker();
+            resilience4JFactory.configure(builder -> builder
+                    .circuitBreakerConfig(CircuitBreakerConfig.custom()
+                            .failureRateThreshold(settings.getFailureRateThreshold())
+                            .slowCallRateThreshold(settings.getSlowCallRateThreshold())
+                            .slowCallDurationThreshold(settings.getSlowCallDurationThreshold())
+                            .slidingWindowSize(settings.getSlidingWindowSize())
+                            .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+                            .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+                            .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+                            .recordException(AuthServiceClient::isAuthServiceFailure)
+                            .build())
+                    .timeLimiterConfig(TimeLimiterConfig.custom()
+                            .timeoutDuration(settings.getTimeout())
+                            .build()), NAME);
+        }
+        this.circuitBreaker = circuitBreakerFactory.create(NAME);
+    }
+
+    /**
+     * Asks the auth service whether the token grants access to the resource.
+     * Rejections by the auth service (401/403) are turned into a cacheable
+     * {@link AuthorizationDecision#unauthorized()} decision, and any other client error
+     * (400, 404, 422, ...) into {@link AuthorizationDecision#forbidden()}, so that they
+     * do not count against the circuit breaker; any other failure, such as a timeout,
+     * an unreadable answer or the circuit being open, is propagated as an
+     * {@link AuthServiceUnavailableException} so that it is never cached.
+     *
+     * @param key the token and resource to validate
+     * @return a {@code Mono} emitting the decision of the auth service
+     */
+    public Mono<AuthorizationDecision> authorize(AuthorizationKey key) {
+        AuthorizationRequest authorizationRequest = AuthorizationRequest.builder()
+                .resourceUri(key.resourceUri())
+                .build();
+        Mono<AuthorizationDecision> call = webClient.post()
+                .uri(VALIDATE_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + key.token())
+                .body(BodyInserters.fromValue(authorizationRequest))
+                .retrieve()
+                .bodyToMono(VALIDATE_RESPONSE)
+                .map(response -> {
+                    UserDto userDto = response.getResponse();
+                    return userDto != null
+                            ? AuthorizationDecision.granted(userDto)
+                            : AuthorizationDecision.forbidden();
+                })
+                .defaultIfEmpty(AuthorizationDecision.forbidden())
+                .onErrorResume(WebClientResponseException.class, e -> {
+                    if (e.getStatusCode() == HttpStatus.UNAUTHORIZED || e.getStatusCode() == HttpStatus.FORBIDDEN) {
+                        log.error("Auth service rejected the token: {}", e.getStatusCode());
+                        return Mono.just(AuthorizationDecision.unauthorized());
+                    }
+                    if (e.getStatusCode().is4xxClientError()) {
+                        log.error("Auth service refused the request: {}", e.getStatusCode());
+                        return Mono.just(AuthorizationDecision.forbidden());
+                    }
+                    return Mono.error(e);
+                });
+        return timed(CALL_SINGLE, circuitBreaker.run(call, e -> Mono.error(new AuthServiceUnavailableException(e))),
+                decision -> switch (decision.outcome()) {
+                    case GRANTED -> "granted";
+                    case FORBIDDEN -> "forbidden";
+                    case UNAUTHORIZED -> "unauthorized";
+                });
+    }
+
+    /**
+     * Asks the auth service about several tokens and resources in one call. The call
+     * fails as a whole, with an {@link AuthServiceUnavailableException}, only if the
+     * auth service cannot be reached or answers with an error.
+     *
+     * @param keys the tokens and resources to validate
+     * @return a {@code Mono} emitting one decision per key, in the order of the keys;
+     *         an element is null if the auth service could not decide for that key
+     */
+    public Mono<List<AuthorizationDecision>> authorizeBatch(List<AuthorizationKey> keys) {
+        Mono<List<AuthorizationDecision>> call = webClient.post()
+                .uri(VALIDATE_BATCH_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(BodyInserters.fromValue(keys))
+                .retrieve()
+                .bodyToMono(VALIDATE_BATCH_RESPONSE)
+                .handle((response, sink) -> {
+                    List<AuthorizationBatchResult> results = response.getResponse();
+                    if (results == null || results.size() != keys.size()) {
+                        sink.error(new IllegalStateException("Expected " + keys.size() + " results from the auth service"));
+                        return;
+                    }
+                    List<AuthorizationDecision> decisions = new ArrayList<>(results.size());
+                    for (AuthorizationBatchResult result : results) {
+                        decisions.add(toDecision(result));
+                    }
+                    sink.next(decisions);
+                });
+        return timed(CALL_BATCH, circuitBreaker.run(call, e -> Mono.error(new AuthServiceUnavailableException(e))),
+                decisions -> "ok");
+    }
+
+    /**
+     * Tells the failures that mean the auth service is down or overloaded from those
+     * that say nothing about its health, such as a client error or an unreadable answer.
+     *
+     * @param e the failure of a call
+     * @return whether the failure counts against the circuit breaker
+     */
+    static boolean isAuthServiceFailure(Throwable e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException || e instanceof IOException;
+    }
+
+    /**
+     * Times a call to the auth service, including the time spent waiting for a pooled
+     * connection and in the circuit breaker. Calls rejected by an open circuit are
+     * recorded with the outcome "error" as well.
+     *
+     * @param type the call type tag
+     * @param call the call
+     * @param outcome maps the result of the call to the outcome tag
+     * @return the timed call
+     */
+    private <T> Mono<T> timed(String type, Mono<T> call, Function<T, String> outcome) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return call
+                    .doOnNext(result -> gatewayMetrics.recordAuthServiceCall(type, outcome.apply(result), System.nanoTime() - start))
+                    .doOnError(e -> gatewayMetrics.recordAuthServiceCall(type, "error", System.nanoTime() - start));
+        });
+    }
+
+    /**
+     * Converts the answer for one key of a batch into a decision, the same way the
+     * answer of a single validate call is converted.
+     */
+    private static AuthorizationDecision toDecision(AuthorizationBatchResult result) {
+        return switch (result.status()) {
+            case 200 -> result.user() != null
+                    ? AuthorizationDecision.granted(result.user())
+                    : AuthorizationDecision.forbidden();
+            case 401, 403 -> AuthorizationDecision.unauthorized();
+            default -> null;
+        };
+    }
+
+    /**
+     * Closes the connections of the dedicated pool when the context is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        connectionProvider.dispose();
+    }
+}
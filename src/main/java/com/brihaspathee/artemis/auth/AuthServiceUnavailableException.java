@@ -0,0 +1,20 @@
+package com.brihaspathee.artemis.auth;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 20:55
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Signals that the auth service could not make a decision: it failed, timed out or its
+ * circuit breaker is open. Requests failing with it are answered with 503, not 401.
+ */
+public class AuthServiceUnavailableException extends RuntimeException {
+
+    public AuthServiceUnavailableException(Throwable cause) {
+        super(cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName(), cause);
+    }
+}
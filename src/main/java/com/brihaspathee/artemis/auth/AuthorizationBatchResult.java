@@ -0,0 +1,22 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.dto.auth.UserDto;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 21:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The answer of the batch validate endpoint of the auth service for one
+ * {@link AuthorizationKey} of a batch. Results are returned in the order of the keys.
+ *
+ * @param status the HTTP status the auth service would have answered the single
+ *               validate call with (200, 401 or 403)
+ * @param user the user the token belongs to, present only if access was granted
+ */
+public record AuthorizationBatchResult(int status, UserDto user) {
+}
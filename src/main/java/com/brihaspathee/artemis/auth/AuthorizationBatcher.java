@@ -0,0 +1,149 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 21:25
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Collects authorization questions for a short window, or until the batch is full, and
+ * asks the auth service all of them in a single call. Each caller receives the answer
+ * to its own question. This adds at most one window of latency in exchange for far
+ * fewer calls to the auth service. At most a configured number of questions wait for
+ * a batch; beyond that callers fail at once rather than queue behind a slow auth
+ * service. Questions whose caller has gone away are left out of the batch.
+ */
+@Slf4j
+@Component
+public class AuthorizationBatcher {
+
+    /**
+     * The client used to send the batches.
+     */
+    private final AuthServiceClient authServiceClient;
+
+    /**
+     * Accepts the questions of concurrent callers; serialized by {@link Flux#create}.
+     * Null while batching is disabled.
+     */
+    private volatile FluxSink<Pending> pending;
+
+    /**
+     * The subscription of the batching pipeline, null while batching is disabled.
+     */
+    private final Disposable pipeline;
+
+    /**
+     * Constructs the batcher and starts its pipeline if batching is enabled.
+     *
+     * @param authServiceClient the client used to send the batches
+     * @param authServiceConfig the configuration holding the batch window and size
+     */
+    public AuthorizationBatcher(AuthServiceClient authServiceClient, AuthServiceConfig authServiceConfig) {
+        this.authServiceClient = authServiceClient;
+        AuthServiceConfig.Batching batching = authServiceConfig.getBatching();
+        if (!batching.isEnabled()) {
+            this.pipeline = null;
+            return;
+        }
+        // Fair backpressure makes bufferTimeout request only what the batches in flight
+        // leave room for, so the questions queue up in the bounded buffer above it
+        this.pipeline = Flux.<Pending>create(sink -> this.pending = sink)
+                .onBackpressureBuffer(batching.getMaxPending(), AuthorizationBatcher::reject,
+                        BufferOverflowStrategy.DROP_LATEST)
+                .bufferTimeout(batching.getMaxSize(), batching.getWindow(), true)
+                .flatMap(this::send, batching.getMaxConcurrentBatches())
+                .subscribe();
+    }
+
+    /**
+     * Asks the auth service whether the token grants access to the resource, as part of
+     * the next batch.
+     *
+     * @param key the token and resource to validate
+     * @return a {@code Mono} emitting the decision of the auth service, or failing with
+     *         {@link AuthServiceUnavailableException} if the auth service could not decide
+     *         or too many questions are waiting
+     * @throws IllegalStateException if batching is disabled
+     */
+    public Mono<AuthorizationDecision> authorize(AuthorizationKey key) {
+        FluxSink<Pending> sink = pending;
+        if (sink == null) {
+            throw new IllegalStateException("Authorization batching is disabled");
+        }
+        return Mono.defer(() -> {
+            Pending request = new Pending(key, Sinks.one(), new AtomicBoolean());
+            sink.next(request);
+            return request.decision().asMono()
+                    .doOnCancel(() -> request.cancelled().set(true));
+        });
+    }
+
+    /**
+     * Sends one batch and hands every decision to the caller waiting for it.
+     */
+    private Mono<Void> send(List<Pending> collected) {
+        List<Pending> batch = collected.stream().filter(request -> !request.cancelled().get()).toList();
+        if (batch.isEmpty()) {
+            return Mono.empty();
+        }
+        List<AuthorizationKey> keys = batch.stream().map(Pending::key).toList();
+        return authServiceClient.authorizeBatch(keys)
+                .doOnNext(decisions -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        AuthorizationDecision decision = decisions.get(i);
+                        if (decision != null) {
+                            batch.get(i).decision().tryEmitValue(decision);
+                        } else {
+                            batch.get(i).decision().tryEmitError(new AuthServiceUnavailableException(
+                                    new IllegalStateException("The auth service could not decide")));
+                        }
+                    }
+                })
+                .doOnError(e -> batch.forEach(request -> request.decision().tryEmitError(e)))
+                .onErrorResume(e -> Mono.empty())
+                .then();
+    }
+
+    /**
+     * Fails a question that found the buffer full.
+     */
+    private static void reject(Pending request) {
+        request.decision().tryEmitError(new AuthServiceUnavailableException(
+                new IllegalStateException("Too many authorization questions waiting for a batch")));
+    }
+
+    /**
+     * Stops the batching pipeline when the context is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (pipeline != null) {
+            pipeline.dispose();
+        }
+    }
+
+    /**
+     * A question waiting to be sent, with the sink its answer is delivered to and
+     * whether its caller has gone away.
+     */
+    private record Pending(AuthorizationKey key, Sinks.One<AuthorizationDecision> decision, AtomicBoolean cancelled) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.dto.auth.UserDto;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 10:08
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The outcome of validating a token against a resource. Decisions are immutable
+ * so the same instance can be cached and handed to any number of exchanges.
+ *
+ * @param outcome whether the request was granted or rejected
+ * @param user the authenticated user, present only when the outcome is {@link Outcome#GRANTED}
+ */
+public record AuthorizationDecision(Outcome outcome, UserDto user) {
+
+    private static final AuthorizationDecision UNAUTHORIZED = new AuthorizationDecision(Outcome.UNAUTHORIZED, null);
+
+    private static final AuthorizationDecision FORBIDDEN = new AuthorizationDecision(Outcome.FORBIDDEN, null);
+
+    /**
+     * The possible results of an authorization check.
+     */
+    public enum Outcome {
+        GRANTED,
+        UNAUTHORIZED,
+        FORBIDDEN
+    }
+
+    /**
+     * Creates a decision granting access to the given user.
+     *
+     * @param user the user returned by the auth service
+     * @return a granted decision
+     */
+    public static AuthorizationDecision granted(UserDto user) {
+        return new AuthorizationDecision(Outcome.GRANTED, user);
+    }
+
+    /**
+     * @return the shared decision used when the token was rejected
+     */
+    public static AuthorizationDecision unauthorized() {
+        return UNAUTHORIZED;
+    }
+
+    /**
+     * @return the shared decision used when the token is valid but the resource is not permitted
+     */
+    public static AuthorizationDecision forbidden() {
+        return FORBIDDEN;
+    }
+
+    /**
+     * @return true if the request may be forwarded
+     */
+    public boolean isGranted() {
+        return outcome == Outcome.GRANTED;
+    }
+}
@@ -0,0 +1,130 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 10:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+public class AuthorizationDecisionCache {
+
+    /**
+     * Name under which the cache statistics are published to the meter registry.
+     */
+    private static final String CACHE_NAME = "auth.decisions";
+
+    /**
+     * Size bounded (W-TinyLFU) cache of decisions keyed on token and resource. Null
+     * when caching has been disabled through configuration.
+     */
+    private final Cache<AuthorizationKey, AuthorizationDecision> cache;
+
+    /**
+     * Constructs the decision cache from the auth service configuration and registers
+     * its hit, miss and eviction statistics with the meter registry.
+     *
+     * @param authServiceConfig the auth service configuration holding the cache settings
+     * @param meterRegistry the registry the cache statistics are published to
+     */
+    @Autowired
+    public AuthorizationDecisionCache(AuthServiceConfig authServiceConfig,
+                                      MeterRegistry meterRegistry) {
+        this(authServiceConfig, meterRegistry, Ticker.systemTicker(), Clock.systemUTC());
+    }
+
+    /**
+     * @param ticker the time source of the cache entries
+     * @param clock the time the expiry of the tokens is compared with
+     */
+    AuthorizationDecisionCache(AuthServiceConfig authServiceConfig, MeterRegistry meterRegistry,
+                               Ticker ticker, Clock clock) {
+        AuthServiceConfig.DecisionCache settings = authServiceConfig.getDecisionCache();
+        if (!settings.isEnabled()) {
+            log.info("Authorization decision cache is disabled");
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfter(new DecisionExpiry(settings.getTtl(), settings.getNegativeTtl(), clock))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached decision for the given key.
+     *
+     * @param key the token and resource being authorized
+     * @return the cached decision, or null if there is none or caching is disabled
+     */
+    public AuthorizationDecision get(AuthorizationKey key) {
+        return cache == null ? null : cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches a decision returned by the auth service.
+     *
+     * @param key the token and resource that were authorized
+     * @param decision the decision to cache
+     */
+    public void put(AuthorizationKey key, AuthorizationDecision decision) {
+        if (cache != null) {
+            cache.put(key, decision);
+        }
+    }
+
+    /**
+     * Computes a per-entry lifetime. Granted decisions live for the configured ttl but
+     * never beyond the expiry of the token they were issued for; rejections are kept
+     * only for the (much shorter) negative ttl.
+     */
+    private record DecisionExpiry(Duration ttl, Duration negativeTtl, Clock clock)
+            implements Expiry<AuthorizationKey, AuthorizationDecision> {
+
+        @Override
+        public long expireAfterCreate(AuthorizationKey key, AuthorizationDecision decision, long currentTime) {
+            if (!decision.isGranted()) {
+                return negativeTtl.toNanos();
+            }
+            long ttlNanos = ttl.toNanos();
+            return TokenExpiry.of(key.token())
+                    .map(expiry -> Duration.between(Instant.now(clock), expiry).toNanos())
+                    .map(remaining -> Math.max(0L, Math.min(ttlNanos, remaining)))
+                    .orElse(ttlNanos);
+        }
+
+        @Override
+        public long expireAfterUpdate(AuthorizationKey key, AuthorizationDecision decision,
+                                      long currentTime, long currentDuration) {
+            return expireAfterCreate(key, decision, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(AuthorizationKey key, AuthorizationDecision decision,
+                                    long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
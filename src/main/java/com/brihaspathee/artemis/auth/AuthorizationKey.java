@@ -0,0 +1,19 @@
+package com.brihaspathee.artemis.auth;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 10:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Identifies a single authorization question asked of the auth service:
+ * may the holder of {@code token} access {@code resourceUri}.
+ *
+ * @param token the bearer token presented by the client, without the "Bearer " prefix
+ * @param resourceUri the request path that is being authorized
+ */
+public record AuthorizationKey(String token, String resourceUri) {
+}
@@ -0,0 +1,193 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 13:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Holds the public keys used to verify bearer tokens locally. The JWKS document is
+ * read from "application.auth-service.local-verification.jwks-location" or taken
+ * inline from "...jwks", parsed once into {@link PublicKey}s and re-read periodically
+ * so that rotated keys are picked up without a restart.
+ */
+@Slf4j
+@Component
+public class JwksKeyStore {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The local verification settings.
+     */
+    private final AuthServiceConfig.LocalVerification settings;
+
+    /**
+     * Used to resolve the JWKS location (file:, classpath:, ...).
+     */
+    private final ResourceLoader resourceLoader;
+
+    /**
+     * The parsed keys keyed on their key id. Replaced wholesale on every reload.
+     */
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    /**
+     * The periodic reload task, null when there is nothing to reload.
+     */
+    private Disposable reloadTask;
+
+    /**
+     * Constructs the key store.
+     *
+     * @param authServiceConfig the auth service configuration holding the local verification settings
+     * @param resourceLoader the loader used to read the JWKS document
+     */
+    public JwksKeyStore(AuthServiceConfig authServiceConfig, ResourceLoader resourceLoader) {
+        this.settings = authServiceConfig.getLocalVerification();
+        this.resourceLoader = resourceLoader;
+    }
+
+    /**
+     * Loads the keys and, when they come from a location, schedules their periodic reload.
+     */
+    @PostConstruct
+    public void start() {
+        reload();
+        if (settings.getJwksLocation() != null) {
+            reloadTask = Flux.interval(settings.getRefreshInterval(), Schedulers.boundedElastic())
+                    .subscribe(tick -> reload());
+        }
+    }
+
+    /**
+     * Stops the periodic reload.
+     */
+    @PreDestroy
+    public void stop() {
+        if (reloadTask != null) {
+            reloadTask.dispose();
+        }
+    }
+
+    /**
+     * Returns the key with the given id. When the token carries no key id and exactly
+     * one key is configured, that key is returned.
+     *
+     * @param keyId the "kid" header of the token, may be null
+     * @return the public key, or null if no matching key is known
+     */
+    public PublicKey getKey(String keyId) {
+        Map<String, PublicKey> current = keys;
+        if (keyId == null) {
+            return current.size() == 1 ? current.values().iterator().next() : null;
+        }
+        return current.get(keyId);
+    }
+
+    /**
+     * Re-reads the JWKS document. A failed reload keeps the previously loaded keys.
+     */
+    public void reload() {
+        try {
+            JsonNode jwks = readJwks();
+            if (jwks == null) {
+                return;
+            }
+            Map<String, PublicKey> parsed = new HashMap<>();
+            for (JsonNode jwk : jwks.path("keys")) {
+                String use = jwk.path("use").asText("sig");
+                if (!"sig".equals(use)) {
+                    continue;
+                }
+                PublicKey key = toPublicKey(jwk);
+                if (key != null) {
+                    parsed.put(jwk.path("kid").asText(String.valueOf(parsed.size())), key);
+                }
+            }
+            keys = Map.copyOf(parsed);
+            log.info("Loaded {} token verification key(s)", parsed.size());
+        } catch (Exception e) {
+            log.error("Unable to load the JWKS document, keeping {} previously loaded key(s): {}",
+                    keys.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the JWKS document from the configured location, or from the inline value.
+     */
+    private JsonNode readJwks() throws Exception {
+        if (settings.getJwksLocation() != null) {
+            Resource resource = resourceLoader.getResource(settings.getJwksLocation());
+            try (InputStream inputStream = resource.getInputStream()) {
+                return objectMapper.readTree(inputStream);
+            }
+        }
+        if (settings.getJwks() != null) {
+            return objectMapper.readTree(settings.getJwks());
+        }
+        return null;
+    }
+
+    /**
+     * Converts a single JWK into a public key. Only RSA and EC signing keys are supported.
+     */
+    private static PublicKey toPublicKey(JsonNode jwk) throws Exception {
+        return switch (jwk.path("kty").asText()) {
+            case "RSA" -> KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                    unsigned(jwk.path("n").asText()),
+                    unsigned(jwk.path("e").asText())));
+            case "EC" -> {
+                AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec(curveName(jwk.path("crv").asText())));
+                ECPoint point = new ECPoint(unsigned(jwk.path("x").asText()), unsigned(jwk.path("y").asText()));
+                yield KeyFactory.getInstance("EC").generatePublic(
+                        new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+            }
+            default -> null;
+        };
+    }
+
+    private static String curveName(String crv) {
+        return switch (crv) {
+            case "P-256" -> "secp256r1";
+            case "P-384" -> "secp384r1";
+            case "P-521" -> "secp521r1";
+            default -> throw new IllegalArgumentException("Unsupported curve " + crv);
+        };
+    }
+
+    private static BigInteger unsigned(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
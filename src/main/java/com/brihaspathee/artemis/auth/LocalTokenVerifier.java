@@ -0,0 +1,118 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 13:45
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Verifies the signature, expiry and not-before time of a JWT against the keys held
+ * by the {@link JwksKeyStore}, without calling the auth service.
+ */
+@Slf4j
+@Component
+public class LocalTokenVerifier {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The keys the token signatures are verified with.
+     */
+    private final JwksKeyStore keyStore;
+
+    /**
+     * The local verification settings.
+     */
+    private final AuthServiceConfig.LocalVerification settings;
+
+    /**
+     * Constructs the verifier.
+     *
+     * @param keyStore the store of verification keys
+     * @param authServiceConfig the auth service configuration holding the local verification settings
+     */
+    public LocalTokenVerifier(JwksKeyStore keyStore, AuthServiceConfig authServiceConfig) {
+        this.keyStore = keyStore;
+        this.settings = authServiceConfig.getLocalVerification();
+    }
+
+    /**
+     * Verifies the given token.
+     *
+     * @param token the compact serialized JWT
+     * @return {@link TokenVerification.Status#VERIFIED} with the username when the token is valid,
+     *         {@link TokenVerification.Status#REJECTED} when it is signed by a known key but invalid, and
+     *         {@link TokenVerification.Status#UNDECIDED} when it cannot be judged locally
+     */
+    public TokenVerification verify(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0 || token.indexOf('.', second + 1) >= 0) {
+            return TokenVerification.undecided();
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            JsonNode header = objectMapper.readTree(decoder.decode(token.substring(0, first)));
+            String alg = header.path("alg").asText();
+            String algorithm = signatureAlgorithm(alg);
+            PublicKey key = keyStore.getKey(header.hasNonNull("kid") ? header.get("kid").asText() : null);
+            if (algorithm == null || key == null
+                    || !key.getAlgorithm().equals(alg.startsWith("RS") ? "RSA" : "EC")) {
+                return TokenVerification.undecided();
+            }
+            Signature signature = Signature.getInstance(algorithm);
+            signature.initVerify(key);
+            signature.update(token.substring(0, second).getBytes(StandardCharsets.US_ASCII));
+            if (!signature.verify(decoder.decode(token.substring(second + 1)))) {
+                log.warn("Token signature verification failed");
+                return TokenVerification.rejected();
+            }
+            JsonNode claims = objectMapper.readTree(decoder.decode(token.substring(first + 1, second)));
+            long now = Instant.now().getEpochSecond();
+            long skew = settings.getClockSkew().toSeconds();
+            if (!claims.path("exp").canConvertToLong() || claims.get("exp").asLong() + skew < now) {
+                return TokenVerification.rejected();
+            }
+            if (claims.path("nbf").canConvertToLong() && claims.get("nbf").asLong() - skew > now) {
+                return TokenVerification.rejected();
+            }
+            String username = claims.path(settings.getUsernameClaim()).asText(null);
+            return username == null ? TokenVerification.rejected() : TokenVerification.verified(username);
+        } catch (Exception e) {
+            log.warn("Unable to verify token locally: {}", e.getMessage());
+            return TokenVerification.rejected();
+        }
+    }
+
+    /**
+     * Maps a JWS algorithm name onto the corresponding JCA signature algorithm.
+     *
+     * @return the JCA algorithm, or null for algorithms that are not verified locally
+     */
+    private static String signatureAlgorithm(String alg) {
+        return switch (alg) {
+            case "RS256" -> "SHA256withRSA";
+            case "RS384" -> "SHA384withRSA";
+            case "RS512" -> "SHA512withRSA";
+            case "ES256" -> "SHA256withECDSAinP1363Format";
+            case "ES384" -> "SHA384withECDSAinP1363Format";
+            case "ES512" -> "SHA512withECDSAinP1363Format";
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.brihaspathee.artemis.auth;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 11:30
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Coalesces concurrent calls for the same key into a single upstream subscription.
+ * Every caller that arrives while a call is in flight receives the same result or
+ * error; the upstream call is cancelled only once all of its callers have cancelled.
+ *
+ * @param <K> the type of the key identifying identical calls
+ * @param <V> the type of the value produced by the call
+ */
+public class SingleFlight<K, V> {
+
+    /**
+     * The calls currently in flight, keyed on the call identity.
+     */
+    private final ConcurrentMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Executes the call for the given key, or joins the call already in flight for it.
+     * The returned {@code Mono} is lazy: nothing happens until it is subscribed.
+     *
+     * @param key the identity of the call
+     * @param call supplies the upstream call; invoked at most once per flight
+     * @return a {@code Mono} emitting the shared result of the call
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, call)));
+    }
+
+    /**
+     * @return the number of calls currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Wraps the upstream call so that it is multicast to all subscribers and removes
+     * itself from the in-flight table as soon as it terminates or is cancelled. The
+     * entry is removed before the result is propagated, so a caller arriving after
+     * the result has been delivered starts a new flight rather than joining a
+     * finished one.
+     */
+    private Mono<V> share(K key, Supplier<Mono<V>> call) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Runnable release = () -> inFlight.remove(key, self.get());
+        Mono<V> shared = Mono.defer(call)
+                .doOnSuccess(value -> release.run())
+                .doOnError(e -> release.run())
+                .doOnCancel(release)
+                .flux()
+                .publish()
+                .refCount(1)
+                .singleOrEmpty();
+        self.set(shared);
+        return shared;
+    }
+}
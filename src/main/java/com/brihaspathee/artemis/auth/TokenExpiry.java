@@ -0,0 +1,53 @@
+package com.brihaspathee.artemis.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 10:12
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Reads the {@code exp} claim of a JWT without verifying it. The value is only used
+ * to make sure nothing derived from the token outlives the token itself, so an
+ * unverified read is sufficient here.
+ */
+public final class TokenExpiry {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private TokenExpiry() {
+    }
+
+    /**
+     * Extracts the expiry of the given token.
+     *
+     * @param token the compact serialized JWT
+     * @return the expiry instant, or empty if the token is not a JWT or carries no {@code exp} claim
+     */
+    public static Optional<Instant> of(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+            JsonNode exp = OBJECT_MAPPER.readTree(payload).get("exp");
+            if (exp == null || !exp.canConvertToLong()) {
+                return Optional.empty();
+            }
+            return Optional.of(Instant.ofEpochSecond(exp.asLong()));
+        } catch (Exception e) {
+            return Optional.empty();
+        }
+    }
+}
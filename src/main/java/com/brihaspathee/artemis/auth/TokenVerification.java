@@ -0,0 +1,63 @@
+package com.brihaspathee.artemis.auth;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 13:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The result of verifying a bearer token locally against the configured JWKS.
+ *
+ * @param status whether the token was verified, rejected or could not be judged locally
+ * @param username the username taken from the verified claims, null unless verified
+ */
+public record TokenVerification(Status status, String username) {
+
+    private static final TokenVerification REJECTED = new TokenVerification(Status.REJECTED, null);
+
+    private static final TokenVerification UNDECIDED = new TokenVerification(Status.UNDECIDED, null);
+
+    /**
+     * The possible results of a local verification.
+     */
+    public enum Status {
+        /**
+         * Signature, expiry and not-before checks all passed.
+         */
+        VERIFIED,
+        /**
+         * The token is a JWT signed by a known key but is forged, expired or otherwise invalid.
+         */
+        REJECTED,
+        /**
+         * The token cannot be judged locally (opaque token, unknown key id, unsupported
+         * algorithm); the auth service has to decide.
+         */
+        UNDECIDED
+    }
+
+    /**
+     * @param username the username taken from the verified claims
+     * @return a verified result
+     */
+    public static TokenVerification verified(String username) {
+        return new TokenVerification(Status.VERIFIED, username);
+    }
+
+    /**
+     * @return the shared rejected result
+     */
+    public static TokenVerification rejected() {
+        return REJECTED;
+    }
+
+    /**
+     * @return the shared undecided result
+     */
+    public static TokenVerification undecided() {
+        return UNDECIDED;
+    }
+}
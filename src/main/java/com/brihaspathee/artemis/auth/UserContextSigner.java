@@ -0,0 +1,175 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.UserContextConfig;
+import com.brihaspathee.artemis.dto.auth.UserDto;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.util.Base64;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 17:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.auth
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Signs the context of an authenticated user into a compact header value that
+ * downstream services can verify locally with the shared key, instead of asking the
+ * auth service who the caller is. The value is
+ * <pre>
+ * base64url({"user":{...the UserDto...},"exp":epoch-seconds}) "." base64url(HMAC-SHA256)
+ * </pre>
+ * with the HMAC computed over the first part as sent. {@link #verify} is the reference
+ * implementation of the check downstream services make.
+ */
+@Slf4j
+@Component
+public class UserContextSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    /**
+     * The shortest key accepted: the output size of SHA-256.
+     */
+    private static final int MINIMUM_KEY_LENGTH = 32;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final UserContextConfig config;
+
+    private final Clock clock;
+
+    /**
+     * A MAC per thread, since a {@link Mac} cannot be shared; null when signing is disabled.
+     */
+    private final ThreadLocal<Mac> macs;
+
+    @Autowired
+    public UserContextSigner(UserContextConfig config) {
+        this(config, Clock.systemUTC());
+    }
+
+    UserContextSigner(UserContextConfig config, Clock clock) {
+        this.config = config;
+        this.clock = clock;
+        if (!config.isEnabled()) {
+            this.macs = null;
+            return;
+        }
+        byte[] secret = config.getSecret() == null ? new byte[0] : Base64.getDecoder().decode(config.getSecret());
+        if (secret.length < MINIMUM_KEY_LENGTH) {
+            throw new IllegalStateException("application.user-context.secret must be a base64 encoded key of at least "
+                    + MINIMUM_KEY_LENGTH + " bytes");
+        }
+        SecretKeySpec key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Unable to initialize " + ALGORITHM, e);
+            }
+        });
+    }
+
+    /**
+     * @return whether authenticated requests carry the signed user context
+     */
+    public boolean isEnabled() {
+        return macs != null;
+    }
+
+    /**
+     * @return the name of the header carrying the user context
+     */
+    public String getHeaderName() {
+        return config.getHeaderName();
+    }
+
+    /**
+     * Signs the context of a user.
+     *
+     * @param user the authenticated user
+     * @return the header value
+     * @throws IllegalStateException if signing is disabled
+     */
+    public String sign(UserDto user) {
+        requireEnabled();
+        long expiresAt = clock.instant().plus(config.getTimeToLive()).getEpochSecond();
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(new UserContext(user, expiresAt));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to serialize the user context", e);
+        }
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = encoder.encodeToString(json);
+        return payload + "." + encoder.encodeToString(mac(payload));
+    }
+
+    /**
+     * Verifies a header value produced by {@link #sign}.
+     *
+     * @param value the header value
+     * @return the user, or null if the value is malformed, not signed with the key or expired
+     * @throws IllegalStateException if signing is disabled
+     */
+    public UserDto verify(String value) {
+        requireEnabled();
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        String payload = value.substring(0, dot);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(value.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, mac(payload))) {
+                return null;
+            }
+            UserContext context = objectMapper.readValue(Base64.getUrlDecoder().decode(payload), UserContext.class);
+            if (context.exp() < clock.instant().getEpochSecond()) {
+                return null;
+            }
+            return context.user();
+        } catch (IllegalArgumentException | IOException e) {
+            log.debug("Malformed user context: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void requireEnabled() {
+        if (!isEnabled()) {
+            throw new IllegalStateException("The user context is not signed, set application.user-context.enabled");
+        }
+    }
+
+    private byte[] mac(String payload) {
+        return macs.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * The signed payload.
+     *
+     * @param user the authenticated user
+     * @param exp when the context expires, in epoch seconds
+     */
+    private record UserContext(UserDto user, long exp) {
+    }
+}
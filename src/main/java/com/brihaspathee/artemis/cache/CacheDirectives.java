@@ -0,0 +1,75 @@
+package com.brihaspathee.artemis.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 11:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.cache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The Cache-Control directives of a request or response that matter to the response
+ * cache. Unknown directives are ignored.
+ *
+ * @param noStore whether no-store was given
+ * @param noCache whether no-cache was given
+ * @param isPrivate whether private was given
+ * @param maxAge the max-age in seconds, or -1
+ * @param sharedMaxAge the s-maxage in seconds, or -1
+ */
+public record CacheDirectives(boolean noStore, boolean noCache, boolean isPrivate, long maxAge, long sharedMaxAge) {
+
+    private static final CacheDirectives NONE = new CacheDirectives(false, false, false, -1, -1);
+
+    /**
+     * Parses the Cache-Control header(s) of a request or response.
+     *
+     * @param headers the headers of the request or response
+     * @return the directives, all unset if there is no Cache-Control header
+     */
+    public static CacheDirectives of(HttpHeaders headers) {
+        List<String> values = headers.get(HttpHeaders.CACHE_CONTROL);
+        if (values == null || values.isEmpty()) {
+            return NONE;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean isPrivate = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String name = directive.trim().toLowerCase(Locale.ROOT);
+                int equals = name.indexOf('=');
+                String argument = equals < 0 ? null : name.substring(equals + 1).replace("\"", "");
+                switch (equals < 0 ? name : name.substring(0, equals)) {
+                    case "no-store" -> noStore = true;
+                    case "no-cache" -> noCache = true;
+                    case "private" -> isPrivate = true;
+                    case "max-age" -> maxAge = seconds(argument);
+                    case "s-maxage" -> sharedMaxAge = seconds(argument);
+                    default -> {
+                    }
+                }
+            }
+        }
+        return new CacheDirectives(noStore, noCache, isPrivate, maxAge, sharedMaxAge);
+    }
+
+    /**
+     * A malformed age is treated as already stale.
+     */
+    private static long seconds(String argument) {
+        try {
+            return argument == null ? 0 : Math.max(0, Long.parseLong(argument));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.brihaspathee.artemis.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 11:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.cache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A response held in the response cache. The body is a read-only heap buffer that is
+ * served by wrapping a duplicate of it, never by copying it.
+ *
+ * @param status the status of the response
+ * @param headers the headers of the response, read only
+ * @param body the body of the response
+ * @param etag the entity tag of the response, or null
+ * @param storedAt when the response was received or last revalidated, in System.nanoTime() terms
+ * @param expiresAt when the response becomes stale, in System.nanoTime() terms
+ */
+public record CachedResponse(HttpStatusCode status,
+                             HttpHeaders headers,
+                             ByteBuffer body,
+                             String etag,
+                             long storedAt,
+                             long expiresAt) {
+
+    /**
+     * The bytes an entry is assumed to take besides the body, used to weigh entries.
+     */
+    private static final int OVERHEAD = 512;
+
+    /**
+     * @param now the current time in System.nanoTime() terms
+     * @return whether the response may be served without revalidation
+     */
+    public boolean isFresh(long now) {
+        return now - expiresAt < 0;
+    }
+
+    /**
+     * @param now the current time in System.nanoTime() terms
+     * @return the value of the Age header of the response
+     */
+    public long ageSeconds(long now) {
+        return Math.max(0, (now - storedAt) / 1_000_000_000L);
+    }
+
+    /**
+     * @return the approximate number of bytes the entry takes
+     */
+    public int weight() {
+        return body.capacity() + OVERHEAD;
+    }
+
+    /**
+     * @param now the time of the revalidation
+     * @param expiresAt when the revalidated response becomes stale
+     * @return this response, revalidated by the upstream service
+     */
+    public CachedResponse revalidated(long now, long expiresAt) {
+        return new CachedResponse(status, headers, body, etag, now, expiresAt);
+    }
+}
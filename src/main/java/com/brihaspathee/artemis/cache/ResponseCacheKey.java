@@ -0,0 +1,19 @@
+package com.brihaspathee.artemis.cache;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 11:00
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.cache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The key of a cached response.
+ *
+ * @param routeId the id of the route the response was served by
+ * @param uri the path and query of the request
+ * @param user the authenticated user on per-user routes, otherwise null
+ */
+public record ResponseCacheKey(String routeId, String uri, String user) {
+}
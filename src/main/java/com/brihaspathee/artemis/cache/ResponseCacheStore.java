@@ -0,0 +1,94 @@
+package com.brihaspathee.artemis.cache;
+
+import com.brihaspathee.artemis.config.ResponseCacheConfig;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 11:15
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.cache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The responses cached by the gateway, bounded by the total size of the bodies. Bodies
+ * are held on the heap, so an evicted body is garbage collected once the last response
+ * streaming it has been written. Stale responses with an entity tag are kept for the
+ * revalidation window so that they can be revalidated with a conditional request.
+ */
+@Component
+public class ResponseCacheStore {
+
+    /**
+     * Name under which the cache statistics are published to the meter registry.
+     */
+    private static final String CACHE_NAME = "gateway.responses";
+
+    private final Cache<ResponseCacheKey, CachedResponse> cache;
+
+    /**
+     * Constructs the store and registers its statistics with the meter registry.
+     *
+     * @param responseCacheConfig the settings of the response cache
+     * @param meterRegistry the registry the cache statistics are published to
+     */
+    public ResponseCacheStore(ResponseCacheConfig responseCacheConfig, MeterRegistry meterRegistry) {
+        long revalidationWindow = responseCacheConfig.getRevalidationWindow().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(responseCacheConfig.getMaximumSize().toBytes())
+                .weigher((ResponseCacheKey key, CachedResponse response) -> response.weight())
+                .expireAfter(new Expiry<ResponseCacheKey, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(ResponseCacheKey key, CachedResponse response, long currentTime) {
+                        return Math.max(0, response.expiresAt() - System.nanoTime())
+                                + (response.etag() != null ? revalidationWindow : 0);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ResponseCacheKey key, CachedResponse response,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, response, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ResponseCacheKey key, CachedResponse response,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param key the key of the response
+     * @return the cached response, fresh or stale, or null
+     */
+    public CachedResponse get(ResponseCacheKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches a response, replacing any response cached under the key.
+     *
+     * @param key the key of the response
+     * @param response the response
+     */
+    public void put(ResponseCacheKey key, CachedResponse response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * @return the approximate number of cached responses
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
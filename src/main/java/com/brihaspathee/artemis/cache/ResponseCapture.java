@@ -0,0 +1,26 @@
+package com.brihaspathee.artemis.cache;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 11:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.cache
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Asks for the upstream response of a request to be cached, or for the stale response
+ * to be served if the upstream service finds it still valid.
+ *
+ * @param key the key to cache the response under
+ * @param timeToLive how long the response is fresh if it has no max-age, in nanoseconds
+ * @param perUser whether the response is cached for the user only, so private responses may be cached
+ * @param stale the stale cached response being revalidated, or null
+ * @param clientIfNoneMatch the If-None-Match header sent by the client, or null
+ */
+public record ResponseCapture(ResponseCacheKey key,
+                              long timeToLive,
+                              boolean perUser,
+                              CachedResponse stale,
+                              String clientIfNoneMatch) {
+}
@@ -0,0 +1,68 @@
+package com.brihaspathee.artemis.compression;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 20:35
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.compression
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Keeps idle compressors for reuse, up to a fixed number per encoding. A compressor
+ * is created when none is idle, and ended when it is returned to a full pool, so the
+ * pool never limits how many responses are compressed at once.
+ */
+public class CompressorPool {
+
+    private final int level;
+
+    private final int scratchSize;
+
+    private final Map<ContentEncoding, BlockingQueue<StreamingCompressor>> idle = new EnumMap<>(ContentEncoding.class);
+
+    /**
+     * Constructs the pool.
+     *
+     * @param level the deflate compression level, 1 (fastest) to 9 (smallest)
+     * @param scratchSize the size of the buffer each compressor writes into
+     * @param capacity the most idle compressors kept per encoding
+     */
+    public CompressorPool(int level, int scratchSize, int capacity) {
+        this.level = level;
+        this.scratchSize = scratchSize;
+        for (ContentEncoding encoding : ContentEncoding.values()) {
+            idle.put(encoding, new ArrayBlockingQueue<>(capacity));
+        }
+    }
+
+    /**
+     * @return a compressor ready to compress a response
+     */
+    public StreamingCompressor acquire(ContentEncoding encoding) {
+        StreamingCompressor compressor = idle.get(encoding).poll();
+        return compressor != null ? compressor : new StreamingCompressor(encoding, level, scratchSize);
+    }
+
+    /**
+     * Returns a compressor once its response is done with it, finished or not.
+     */
+    public void release(StreamingCompressor compressor) {
+        compressor.reset();
+        if (!idle.get(compressor.getEncoding()).offer(compressor)) {
+            compressor.end();
+        }
+    }
+
+    /**
+     * @return the idle compressors of the encoding
+     */
+    public int idle(ContentEncoding encoding) {
+        return idle.get(encoding).size();
+    }
+}
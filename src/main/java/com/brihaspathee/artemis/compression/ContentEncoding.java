@@ -0,0 +1,105 @@
+package com.brihaspathee.artemis.compression;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 20:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.compression
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The content encodings the gateway compresses responses with.
+ */
+public enum ContentEncoding {
+
+    GZIP("gzip"),
+
+    /**
+     * Deflate in the zlib format, as HTTP defines it.
+     */
+    DEFLATE("deflate");
+
+    private final String token;
+
+    ContentEncoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * @return the value of the Content-Encoding header
+     */
+    public String token() {
+        return token;
+    }
+
+    /**
+     * Picks the encoding to compress a response with from the Accept-Encoding header of
+     * the request: the one with the highest quality value, or the first of the preferred
+     * encodings among equals. Encodings with a quality of 0 are never picked, and
+     * {@code *} stands for every encoding not listed.
+     *
+     * @param requestHeaders the headers of the request
+     * @param preferred the encodings the gateway may use, most preferred first
+     * @return the encoding to use, or null if the client accepts none of them
+     */
+    public static ContentEncoding negotiate(HttpHeaders requestHeaders, List<ContentEncoding> preferred) {
+        List<String> values = requestHeaders.get(HttpHeaders.ACCEPT_ENCODING);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        float[] quality = new float[values().length];
+        boolean[] listed = new boolean[values().length];
+        float wildcard = 0;
+        for (String value : values) {
+            for (String element : value.split(",")) {
+                int semicolon = element.indexOf(';');
+                String coding = (semicolon < 0 ? element : element.substring(0, semicolon)).trim();
+                float q = semicolon < 0 ? 1 : quality(element.substring(semicolon + 1));
+                if (coding.equals("*")) {
+                    wildcard = q;
+                    continue;
+                }
+                for (ContentEncoding encoding : values()) {
+                    if (encoding.token.equalsIgnoreCase(coding)
+                            || (encoding == GZIP && coding.equalsIgnoreCase("x-gzip"))) {
+                        quality[encoding.ordinal()] = Math.max(quality[encoding.ordinal()], q);
+                        listed[encoding.ordinal()] = true;
+                    }
+                }
+            }
+        }
+        ContentEncoding best = null;
+        float bestQuality = 0;
+        for (ContentEncoding encoding : preferred) {
+            float q = listed[encoding.ordinal()] ? quality[encoding.ordinal()] : wildcard;
+            if (q > bestQuality) {
+                best = encoding;
+                bestQuality = q;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the quality value of the parameters of an Accept-Encoding element, 1 if absent
+     * and 0 if malformed
+     */
+    private static float quality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String trimmed = parameter.trim();
+            if (trimmed.length() > 2 && (trimmed.charAt(0) == 'q' || trimmed.charAt(0) == 'Q') && trimmed.charAt(1) == '=') {
+                try {
+                    return Float.parseFloat(trimmed.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
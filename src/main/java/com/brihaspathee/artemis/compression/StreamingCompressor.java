@@ -0,0 +1,183 @@
+package com.brihaspathee.artemis.compression;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 20:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.compression
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Compresses one response at a time, buffer by buffer, so that the body is never held
+ * in memory as a whole. Holds native deflater state and a scratch buffer, both expensive
+ * to create, so instances are reused through a {@link CompressorPool}. Not thread safe;
+ * the buffers of a response are compressed one after the other.
+ */
+public final class StreamingCompressor {
+
+    /**
+     * The gzip member header: no file name, no modification time, unknown OS.
+     */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final byte[] NO_INPUT = new byte[0];
+
+    private final ContentEncoding encoding;
+
+    private final Deflater deflater;
+
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * The buffer the deflater writes into before the output is copied to a data buffer.
+     */
+    private final byte[] scratch;
+
+    private boolean started;
+
+    private long inputBytes;
+
+    private long outputBytes;
+
+    private long compressionNanos;
+
+    StreamingCompressor(ContentEncoding encoding, int level, int scratchSize) {
+        this.encoding = encoding;
+        // gzip writes its own header and trailer around raw deflate data
+        this.deflater = new Deflater(level, encoding == ContentEncoding.GZIP);
+        this.scratch = new byte[scratchSize];
+    }
+
+    public ContentEncoding getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * Compresses a buffer of the body. The buffer is read but neither consumed nor released.
+     *
+     * @param input the next buffer of the body
+     * @param bufferFactory allocates the output
+     * @param flush whether everything compressed so far has to be written out now, as for
+     *              streamed responses, at some cost in compression
+     * @return the compressed output so far, which may be empty
+     */
+    public DataBuffer compress(DataBuffer input, DataBufferFactory bufferFactory, boolean flush) {
+        long start = System.nanoTime();
+        DataBuffer output = bufferFactory.allocateBuffer(Math.max(64, input.readableByteCount() / 2));
+        start(output);
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                ByteBuffer bytes = buffers.next();
+                inputBytes += bytes.remaining();
+                if (encoding == ContentEncoding.GZIP) {
+                    crc.update(bytes.duplicate());
+                }
+                deflater.setInput(bytes);
+                while (!deflater.needsInput()) {
+                    drain(output, Deflater.NO_FLUSH);
+                }
+            }
+        }
+        // Not to hold on to the input buffer, which is about to be released
+        deflater.setInput(NO_INPUT);
+        if (flush) {
+            while (drain(output, Deflater.SYNC_FLUSH) == scratch.length) {
+                // the scratch buffer was filled, there may be more
+            }
+        }
+        outputBytes += output.readableByteCount();
+        compressionNanos += System.nanoTime() - start;
+        return output;
+    }
+
+    /**
+     * Ends the compressed body.
+     *
+     * @param bufferFactory allocates the output
+     * @return the rest of the compressed body
+     */
+    public DataBuffer finish(DataBufferFactory bufferFactory) {
+        long start = System.nanoTime();
+        DataBuffer output = bufferFactory.allocateBuffer(64);
+        start(output);
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(output, Deflater.NO_FLUSH);
+        }
+        if (encoding == ContentEncoding.GZIP) {
+            writeIntLittleEndian(output, (int) crc.getValue());
+            writeIntLittleEndian(output, (int) inputBytes);
+        }
+        outputBytes += output.readableByteCount();
+        compressionNanos += System.nanoTime() - start;
+        return output;
+    }
+
+    /**
+     * @return the bytes compressed so far
+     */
+    public long getInputBytes() {
+        return inputBytes;
+    }
+
+    /**
+     * @return the compressed bytes written so far, headers included
+     */
+    public long getOutputBytes() {
+        return outputBytes;
+    }
+
+    /**
+     * @return the wall-clock time spent compressing so far, in nanoseconds. It includes
+     * any time the thread was descheduled, so it is an upper bound of the CPU time.
+     */
+    public long getCompressionNanos() {
+        return compressionNanos;
+    }
+
+    /**
+     * Prepares the compressor for another response.
+     */
+    void reset() {
+        deflater.reset();
+        crc.reset();
+        started = false;
+        inputBytes = 0;
+        outputBytes = 0;
+        compressionNanos = 0;
+    }
+
+    /**
+     * Frees the native state of the compressor, which cannot be used afterwards.
+     */
+    void end() {
+        deflater.end();
+    }
+
+    private void start(DataBuffer output) {
+        if (!started) {
+            started = true;
+            if (encoding == ContentEncoding.GZIP) {
+                output.write(GZIP_HEADER);
+            }
+        }
+    }
+
+    private int drain(DataBuffer output, int flush) {
+        int length = deflater.deflate(scratch, 0, scratch.length, flush);
+        output.write(scratch, 0, length);
+        return length;
+    }
+
+    private static void writeIntLittleEndian(DataBuffer output, int value) {
+        output.write(new byte[] {(byte) value, (byte) (value >> 8), (byte) (value >> 16), (byte) (value >> 24)});
+    }
+}
@@ -0,0 +1,209 @@
+package com.brihaspathee.artemis.concurrency;
+
+import com.brihaspathee.artemis.config.ConcurrencyLimitConfig;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 09:15
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.concurrency
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Limits the number of requests in flight to one upstream service, adapting the limit
+ * to the round trip times measured. RTTs are averaged over windows of as many requests
+ * as the limit (about one round trip at full use), and at the end of each window the
+ * limit follows a gradient: the ratio of the long-term average RTT to the RTT of the
+ * window. While the RTT of the window is no worse than the long-term average (with some
+ * tolerance) the limit grows by about the square root of itself; as it gets worse the
+ * limit shrinks in proportion, by at most half. Failed requests
+ * shrink the limit multiplicatively. Requests beyond the limit are rejected right away
+ * rather than queued, and low priority requests are rejected while the upstream service
+ * still has room for high priority ones.
+ * <p>
+ * Admission is a CAS on the in-flight count; samples are added to the window under a
+ * short lock on completion of each request.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * How much worse than the long-term average an RTT may be before the limit shrinks.
+     */
+    private static final double RTT_TOLERANCE = 1.5;
+
+    /**
+     * The minimum number of samples of a window.
+     */
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final ConcurrencyLimitConfig config;
+
+    /**
+     * The smoothing factor of the long-term RTT average.
+     */
+    private final double longRttFactor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * The current limit, as used for admission.
+     */
+    private volatile int limit;
+
+    /**
+     * The exact current limit. Guarded by {@code this}.
+     */
+    private double estimatedLimit;
+
+    /**
+     * The long-term average RTT in nanoseconds, zero until the first window. Guarded by {@code this}.
+     */
+    private double longRtt;
+
+    /*
+        The samples of the current window. Guarded by this.
+     */
+    private double windowRttSum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    /**
+     * Constructs a limiter starting at the initial limit of the configuration.
+     *
+     * @param config the settings of the concurrency limits
+     */
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitConfig config) {
+        this.config = config;
+        this.longRttFactor = 2.0 / (config.getLongWindow() + 1);
+        this.estimatedLimit = config.getInitialLimit();
+        this.limit = config.getInitialLimit();
+    }
+
+    /**
+     * Admits a request if the upstream service has capacity for it at its priority.
+     *
+     * @param priority the priority of the request
+     * @return the permit of the admitted request, to be completed exactly once, or null
+     *         if the request must be shed
+     */
+    public Permit tryAcquire(Priority priority) {
+        int threshold = priority == Priority.HIGH
+                ? limit
+                : Math.max(1, (int) (limit * config.getLowPriorityShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= threshold) {
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1);
+            }
+        }
+    }
+
+    /**
+     * @return the current concurrency limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtStart) {
+        windowRttSum += rttNanos;
+        windowSamples++;
+        windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+        if (windowSamples < Math.max(MIN_WINDOW_SAMPLES, estimatedLimit)) {
+            return;
+        }
+        double shortRtt = windowRttSum / windowSamples;
+        boolean used = windowMaxInFlight >= estimatedLimit / 2;
+        windowRttSum = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) * longRttFactor;
+        }
+        // Let the long-term average recover quickly after a period of high latency
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        // Do not grow the limit while it is not being used
+        double newLimit = estimatedLimit * gradient + (used ? Math.sqrt(estimatedLimit) : 0);
+        update(estimatedLimit * (1 - config.getSmoothing()) + newLimit * config.getSmoothing());
+    }
+
+    private synchronized void onDropped() {
+        update(estimatedLimit * config.getBackoffRatio());
+    }
+
+    private void update(double newLimit) {
+        estimatedLimit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), newLimit));
+        limit = (int) estimatedLimit;
+    }
+
+    /**
+     * An admitted request. Completing it releases its place and feeds its outcome into
+     * the limit; only the first completion counts.
+     */
+    public class Permit {
+
+        private final int inFlightAtStart;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * The request completed normally.
+         *
+         * @param rttNanos the round trip time of the request
+         */
+        public void onSuccess(long rttNanos) {
+            if (release()) {
+                onSample(rttNanos, inFlightAtStart);
+            }
+        }
+
+        /**
+         * The request failed or timed out, a sign of overload.
+         */
+        public void onDropped() {
+            if (release()) {
+                AdaptiveConcurrencyLimiter.this.onDropped();
+            }
+        }
+
+        /**
+         * The request ended without telling anything about the upstream service, e.g.
+         * because the client went away.
+         */
+        public void onIgnore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
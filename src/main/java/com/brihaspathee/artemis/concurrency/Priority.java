@@ -0,0 +1,26 @@
+package com.brihaspathee.artemis.concurrency;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 09:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.concurrency
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The priority of a request when an upstream service is overloaded. Low priority
+ * requests are shed first.
+ */
+public enum Priority {
+
+    /**
+     * Admitted only while the upstream service has spare capacity.
+     */
+    LOW,
+
+    /**
+     * Admitted up to the full concurrency limit of the upstream service.
+     */
+    HIGH
+}
@@ -0,0 +1,49 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 19:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings of composite routes, whose legs are called in parallel and merged.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.aggregation")
+public class AggregationConfig {
+
+    /**
+     * How long a leg without a timeout of its own may take before it is left out of
+     * the merged response.
+     */
+    private Duration defaultTimeout = Duration.ofSeconds(2);
+
+    /**
+     * The largest leg response that is merged. Larger responses fail the leg.
+     */
+    private DataSize maximumLegSize = DataSize.ofMegabytes(1);
+
+    /**
+     * The request headers passed on to the legs. Any other header, such as Cookie or
+     * Authorization, stays at the gateway; the legs learn the user from the user context
+     * headers the gateway adds after authenticating the request.
+     */
+    private List<String> forwardedHeaders = new ArrayList<>(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_LANGUAGE,
+            "X-USER-NAME", "X-USER-CONTEXT", "X-ACCOUNT-TYPE", "X-Request-Id", "traceparent", "tracestate"));
+}
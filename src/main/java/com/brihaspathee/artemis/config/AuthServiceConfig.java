@@ -5,6 +5,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * Created in Intellij IDEA
  * User: Balaji Varadharajan
@@ -22,4 +24,247 @@ public class AuthServiceConfig {
 
     private String host;
     private String port;
+
+    /**
+     * One in this many authorized requests is traced when the authentication filter
+     * logs at DEBUG.
+     */
+    private int debugSampleRate = 100;
+
+    /**
+     * Settings of the HTTP client used to call the auth service.
+     */
+    private Client client = new Client();
+
+    /**
+     * Settings of the circuit breaker guarding the calls to the auth service.
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * Settings of the batching of calls to the auth service.
+     */
+    private Batching batching = new Batching();
+
+    /**
+     * Settings of the in-process cache of authorization decisions.
+     */
+    private DecisionCache decisionCache = new DecisionCache();
+
+    /**
+     * Settings used when tokens are verified locally instead of by the auth service.
+     */
+    private LocalVerification localVerification = new LocalVerification();
+
+    /**
+     * Configuration of the auth service HTTP client and its dedicated connection pool,
+     * bound from "application.auth-service.client".
+     */
+    @Getter
+    @Setter
+    public static class Client {
+
+        /**
+         * Maximum number of connections open to the auth service.
+         */
+        private int maxConnections = 200;
+
+        /**
+         * Maximum number of requests waiting for a connection once all connections are in
+         * use. Further requests fail immediately.
+         */
+        private int pendingAcquireMaxCount = 1000;
+
+        /**
+         * How long a request waits for a connection from the pool.
+         */
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * How long a connection may stay idle in the pool before it is closed.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        /**
+         * How long a connection is used before it is closed, so that connections are
+         * spread over new auth service instances.
+         */
+        private Duration maxLifeTime = Duration.ofMinutes(5);
+
+        /**
+         * How often idle and expired connections are evicted in the background.
+         */
+        private Duration evictionInterval = Duration.ofSeconds(30);
+
+        /**
+         * How long establishing a connection may take.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(1);
+
+        /**
+         * How long the auth service may take to respond once the request has been sent.
+         */
+        private Duration responseTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Whether to talk HTTP/2 (cleartext, with HTTP/1.1 as fallback) to the auth service.
+         */
+        private boolean http2 = false;
+
+        /**
+         * Whether connection pool and client metrics are published.
+         */
+        private boolean metrics = true;
+    }
+
+    /**
+     * Configuration of the auth service circuit breaker, bound from
+     * "application.auth-service.circuit-breaker".
+     */
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+
+        /**
+         * Percentage of failed calls at which the circuit opens.
+         */
+        private float failureRateThreshold = 50;
+
+        /**
+         * Percentage of slow calls at which the circuit opens.
+         */
+        private float slowCallRateThreshold = 80;
+
+        /**
+         * Calls taking longer than this are counted as slow.
+         */
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(1);
+
+        /**
+         * Number of most recent calls the failure and slow call rates are computed over.
+         */
+        private int slidingWindowSize = 100;
+
+        /**
+         * Minimum number of calls in the window before the rates are evaluated.
+         */
+        private int minimumNumberOfCalls = 20;
+
+        /**
+         * How long the circuit stays open before trial calls are let through.
+         */
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+
+        /**
+         * Number of trial calls let through while the circuit is half open.
+         */
+        private int permittedCallsInHalfOpenState = 10;
+
+        /**
+         * Overall deadline of a call, including the wait for a connection.
+         */
+        private Duration timeout = Duration.ofSeconds(3);
+    }
+
+    /**
+     * Configuration of the batching of authorization calls, bound from
+     * "application.auth-service.batching". Requires the batch validate endpoint
+     * of the auth service.
+     */
+    @Getter
+    @Setter
+    public static class Batching {
+
+        /**
+         * Whether authorization questions are sent to the auth service in batches.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long a batch collects questions before it is sent. This is the most
+         * latency batching adds to a request.
+         */
+        private Duration window = Duration.ofNanos(500_000);
+
+        /**
+         * Maximum number of questions in a batch; a full batch is sent at once.
+         */
+        private int maxSize = 64;
+
+        /**
+         * Maximum number of batches waiting for the auth service at the same time.
+         */
+        private int maxConcurrentBatches = 32;
+
+        /**
+         * Maximum number of questions waiting for a batch. Once that many are waiting,
+         * for instance because the auth service is slow, further questions fail at once
+         * as if the auth service were unavailable.
+         */
+        private int maxPending = 4096;
+    }
+
+    /**
+     * Configuration of the authorization decision cache, bound from
+     * "application.auth-service.decision-cache".
+     */
+    @Getter
+    @Setter
+    public static class DecisionCache {
+
+        /**
+         * Whether decisions returned by the auth service are cached at all.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of (token, resource) decisions held in memory.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * How long a granted decision is reused. Capped at the expiry of the token.
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+
+        /**
+         * How long a rejected (401/403) decision is reused.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Configuration of local token verification, bound from
+     * "application.auth-service.local-verification". Local verification itself is
+     * switched on per route through {@code AuthenticationFilter.Config}.
+     */
+    @Getter
+    @Setter
+    public static class LocalVerification {
+
+        /**
+         * Location of the JWKS document, e.g. "file:/etc/artemis/jwks.json".
+         */
+        private String jwksLocation;
+
+        /**
+         * Inline JWKS document, used when no location is configured.
+         */
+        private String jwks;
+
+        /**
+         * How often the JWKS document is re-read from its location.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+
+        /**
+         * Tolerated clock difference when checking "exp" and "nbf".
+         */
+        private Duration clockSkew = Duration.ofSeconds(30);
+
+        /**
+         * The claim holding the username forwarded to downstream services.
+         */
+        private String usernameClaim = "sub";
+    }
 }
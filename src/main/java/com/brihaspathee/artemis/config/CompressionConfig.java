@@ -0,0 +1,65 @@
+package com.brihaspathee.artemis.config;
+
+import com.brihaspathee.artemis.compression.ContentEncoding;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 20:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings of response compression, done on routes that have a compression threshold.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.compression")
+public class CompressionConfig {
+
+    /**
+     * The encodings responses may be compressed with, most preferred first.
+     */
+    private List<ContentEncoding> encodings = new ArrayList<>(List.of(ContentEncoding.GZIP, ContentEncoding.DEFLATE));
+
+    /**
+     * The deflate compression level, from 1 (fastest) to 9 (smallest).
+     */
+    private int level = 6;
+
+    /**
+     * The most idle compressors kept for reuse per encoding.
+     */
+    private int poolSize = 256;
+
+    /**
+     * The size of the buffer a compressor writes into.
+     */
+    private DataSize scratchSize = DataSize.ofKilobytes(8);
+
+    /**
+     * Content types that are already compressed and never compressed again.
+     * Wildcards are allowed (e.g. video/*).
+     */
+    private List<String> excludedContentTypes = new ArrayList<>(List.of("image/png", "image/jpeg", "image/gif",
+            "image/webp", "image/avif", "video/*", "audio/*", "font/woff", "font/woff2", "application/zip",
+            "application/gzip", "application/x-gzip", "application/zstd", "application/x-7z-compressed",
+            "application/x-bzip2", "application/pdf", "application/octet-stream"));
+
+    /**
+     * Content types that are streamed to the client as they arrive. Every buffer of
+     * them is flushed out of the compressor instead of being held for a better ratio.
+     */
+    private List<String> streamingContentTypes = new ArrayList<>(List.of("text/event-stream",
+            "application/x-ndjson", "application/stream+json"));
+}
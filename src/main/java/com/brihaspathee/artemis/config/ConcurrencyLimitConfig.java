@@ -0,0 +1,68 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 09:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings of the adaptive concurrency limits of the upstream services. Limiting is
+ * enabled per route, by adding the ConcurrencyLimitFilter to the filters of the route.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.concurrency-limit")
+public class ConcurrencyLimitConfig {
+
+    /**
+     * The limit of requests in flight an upstream service starts with.
+     */
+    private int initialLimit = 20;
+
+    /**
+     * The limit never goes below this.
+     */
+    private int minLimit = 5;
+
+    /**
+     * The limit never goes above this.
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * How much of the newly calculated limit is taken over at the end of each window (0-1).
+     */
+    private double smoothing = 0.5;
+
+    /**
+     * The factor the limit is multiplied with when a request fails.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * The number of windows the long-term RTT average is taken over.
+     */
+    private int longWindow = 20;
+
+    /**
+     * The share of the limit low priority requests may use, so that they are shed
+     * before high priority ones.
+     */
+    private double lowPriorityShare = 0.8;
+
+    /**
+     * The Retry-After of shed requests.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
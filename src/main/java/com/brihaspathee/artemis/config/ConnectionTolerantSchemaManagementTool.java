@@ -0,0 +1,40 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.JDBCConnectionException;
+import org.hibernate.tool.schema.internal.HibernateSchemaManagementTool;
+import org.hibernate.tool.schema.spi.SchemaMigrator;
+
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 10:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Hibernate's schema management tool, except that the schema update is skipped when the
+ * database cannot be reached. The context of the gateway waits for Hibernate before it
+ * is ready, so a failing update would fail the start, including a start that could serve
+ * its routes from the local snapshot. Configured through the
+ * hibernate.schema_management_tool property.
+ */
+@Slf4j
+public class ConnectionTolerantSchemaManagementTool extends HibernateSchemaManagementTool {
+
+    @Override
+    public SchemaMigrator getSchemaMigrator(Map<String, Object> options) {
+        SchemaMigrator migrator = super.getSchemaMigrator(options);
+        return (metadata, executionOptions, contributableMatcher, targetDescriptor) -> {
+            try {
+                migrator.doMigration(metadata, executionOptions, contributableMatcher, targetDescriptor);
+            } catch (JDBCConnectionException e) {
+                log.warn("Unable to reach the database, the schema update is skipped until the next start: {}",
+                        e.getMessage());
+            }
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 22:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.metrics")
+public class GatewayMetricsConfig {
+
+    /**
+     * The percentiles computed in the gateway (over a sliding window) and published with
+     * every gateway timer.
+     */
+    private List<Double> percentiles = List.of(0.5, 0.95, 0.99, 0.999);
+
+    /**
+     * Whether the gateway timers also publish histogram buckets, so that percentiles can
+     * be aggregated across gateway instances in Prometheus.
+     */
+    private boolean percentileHistogram = true;
+
+    /**
+     * The largest duration the histograms need to resolve.
+     */
+    private Duration maximumExpectedValue = Duration.ofSeconds(30);
+
+    /**
+     * Whether responses carry a Server-Timing header with the time spent on
+     * authentication and waiting for the upstream service.
+     */
+    private boolean serverTiming = false;
+}
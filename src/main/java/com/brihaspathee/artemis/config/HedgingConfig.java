@@ -0,0 +1,57 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 15:30
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings of hedged requests, sent on routes that have a hedge percentile.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.hedging")
+public class HedgingConfig {
+
+    /**
+     * The hedged requests allowed per request on hedged routes, across all routes
+     * (0.05 allows at most 5% extra load).
+     */
+    private double budgetRatio = 0.05;
+
+    /**
+     * The hedged requests that can be sent in a burst once the budget has built up.
+     */
+    private int maximumBudget = 10;
+
+    /**
+     * The shortest time to wait before hedging, however fast the route usually is.
+     */
+    private Duration minimumDelay = Duration.ofMillis(5);
+
+    /**
+     * The longest time to wait before hedging, however slow the route usually is.
+     */
+    private Duration maximumDelay = Duration.ofSeconds(2);
+
+    /**
+     * The number of most recent response times of a route the hedge delay is computed from.
+     */
+    private int windowSize = 1000;
+
+    /**
+     * The number of response times a route needs before its requests are hedged.
+     */
+    private int minimumSamples = 100;
+}
@@ -0,0 +1,79 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 14:00
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings of the latency aware load balancer used for lb:// route URIs.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.load-balancer")
+public class LoadBalancerConfig {
+
+    /**
+     * Whether lb:// URIs are balanced by latency; when false the default round robin
+     * balancer is used.
+     */
+    private boolean latencyAware = true;
+
+    /**
+     * The weight of the latest response time in the moving average of an instance (0-1).
+     */
+    private double latencyWeight = 0.2;
+
+    /**
+     * Settings for taking slow or failing instances out of rotation.
+     */
+    private Ejection ejection = new Ejection();
+
+    @Getter
+    @Setter
+    public static class Ejection {
+
+        /**
+         * An instance is ejected when its average response time is this many times the
+         * median of the other instances.
+         */
+        private double latencyFactor = 3.0;
+
+        /**
+         * The number of responses an instance must have had before it can be ejected as slow.
+         */
+        private int minimumSamples = 20;
+
+        /**
+         * An instance is ejected after this many failures in a row.
+         */
+        private int consecutiveFailures = 5;
+
+        /**
+         * How long an instance is ejected the first time; doubled every time it is
+         * ejected again right after being probed.
+         */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        /**
+         * The longest an instance is ejected.
+         */
+        private Duration maximumEjectionTime = Duration.ofMinutes(5);
+
+        /**
+         * The most instances of a service that are ejected at a time, in percent.
+         */
+        private int maximumEjectedPercent = 50;
+    }
+}
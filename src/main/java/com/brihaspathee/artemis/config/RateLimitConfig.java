@@ -0,0 +1,46 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 23:00
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings shared by the rate limits of all routes. The limits themselves are set per
+ * route, as arguments of the RateLimitFilter in the filters of the route.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * The maximum number of users (buckets) tracked per route. Buckets of users that
+     * have been idle long enough to be full again are dropped well before this is reached.
+     */
+    private long maximumKeys = 1_000_000;
+
+    /**
+     * Whether requests without an authenticated user (on public routes) are limited per
+     * client address. When false they are not limited.
+     */
+    private boolean limitAnonymous = true;
+
+    /**
+     * The number of proxies in front of the gateway that append the address they received
+     * a request from to X-Forwarded-For. The client address is the entry this many places
+     * from the end of the header, as the entries before it can be set by the client. When
+     * 0 the header is ignored and the address of the connection is used, which behind a
+     * proxy is the address of the proxy.
+     */
+    private int trustedProxies = 0;
+}
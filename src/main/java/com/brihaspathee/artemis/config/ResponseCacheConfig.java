@@ -0,0 +1,48 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 10:55
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings of the response cache. Caching is enabled per route, by adding the
+ * ResponseCacheFilter to the filters of the route.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * The total size of the cached bodies.
+     */
+    private DataSize maximumSize = DataSize.ofMegabytes(256);
+
+    /**
+     * Bodies larger than this are not cached.
+     */
+    private DataSize maximumEntrySize = DataSize.ofMegabytes(1);
+
+    /**
+     * How long responses without a max-age are fresh, unless the route sets its own.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * How long stale responses with an entity tag are kept to be revalidated.
+     */
+    private Duration revalidationWindow = Duration.ofHours(1);
+}
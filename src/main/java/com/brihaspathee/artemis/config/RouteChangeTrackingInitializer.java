@@ -0,0 +1,68 @@
+package com.brihaspathee.artemis.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 15:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Installs the route change tracking triggers once the gateway is ready, so that a
+ * start from the route snapshot serves requests without waiting for the database.
+ * If the database cannot be reached, the gateway keeps running on the snapshot, but
+ * route changes may go unnoticed until a later start has installed the triggers.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RouteChangeTrackingInitializer {
+
+    /**
+     * The script installing the triggers that maintain the version and updated_at
+     * columns of the routes table and publish its changes on the routes_changed channel.
+     */
+    private static final String CHANGE_TRACKING_SCRIPT = "db/route-change-tracking.sql";
+
+    /**
+     * The data source of the gateway database.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Used to wait until Hibernate, bootstrapped in the background, has created the
+     * routes table before the trigger is installed on it.
+     */
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Installs (or replaces) the change tracking triggers on the routes table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void installChangeTracking() {
+        try {
+            entityManagerFactory.getMetamodel();
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(CHANGE_TRACKING_SCRIPT));
+            // The script contains a plpgsql function body, so it is sent as a single statement
+            populator.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+            populator.execute(dataSource);
+            log.info("Route change tracking installed");
+        } catch (RuntimeException e) {
+            log.warn("Unable to install route change tracking, route changes may go unnoticed until the next start: {}",
+                    e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 16:40
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.routes")
+public class RouteRefreshConfig {
+
+    /**
+     * How often the routes table is polled for changes. With the change feed enabled
+     * this is only a fallback for missed notifications, so it can be long.
+     */
+    private Duration pollInterval = Duration.ofMinutes(5);
+
+    /**
+     * Whether incoming requests are matched against a path trie of all routes instead of
+     * evaluating every route's predicates in turn.
+     */
+    private boolean trieMatching = true;
+
+    /**
+     * Settings of the LISTEN/NOTIFY based change feed.
+     */
+    private ChangeFeed changeFeed = new ChangeFeed();
+
+    /**
+     * Settings of the local route snapshot.
+     */
+    private Snapshot snapshot = new Snapshot();
+
+    /**
+     * Configuration of the route change feed, bound from "application.routes.change-feed".
+     */
+    @Getter
+    @Setter
+    public static class ChangeFeed {
+
+        /**
+         * Whether the gateway listens for route changes published by the database.
+         */
+        private boolean enabled = true;
+
+        /**
+         * How long the listener waits for notifications before checking again whether
+         * it has been stopped.
+         */
+        private Duration pollTimeout = Duration.ofSeconds(5);
+
+        /**
+         * How long the listener waits before reconnecting after losing its connection.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+    }
+
+    /**
+     * Configuration of the local route snapshot, bound from "application.routes.snapshot".
+     * The snapshot lets the gateway serve routes right after a start, before (or without)
+     * the database being reachable.
+     */
+    @Getter
+    @Setter
+    public static class Snapshot {
+
+        /**
+         * Whether the last good route set is persisted and used at startup.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The file the snapshot is written to. Its directory should only be writable by
+         * the gateway's user; a snapshot not owned by that user, or writable by others,
+         * is ignored.
+         */
+        private String path = Path.of(System.getProperty("user.home"), ".artemis", "routes.snapshot").toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.brihaspathee.artemis.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 17:00
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.config
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Settings of the signed user context header forwarded with authenticated requests.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "application.user-context")
+public class UserContextConfig {
+
+    /**
+     * Whether authenticated requests are forwarded with the signed user context header.
+     * Copies of the header sent by clients are removed either way.
+     */
+    private boolean enabled = false;
+
+    /**
+     * The name of the header carrying the user context.
+     */
+    private String headerName = "X-USER-CONTEXT";
+
+    /**
+     * The base64 encoded HMAC-SHA256 key the header is signed with, shared with the
+     * downstream services; at least 32 bytes.
+     */
+    private String secret;
+
+    /**
+     * How long a signed user context is valid for.
+     */
+    private Duration timeToLive = Duration.ofSeconds(60);
+}
@@ -3,6 +3,8 @@ package com.brihaspathee.artemis.domain.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
+
 /**
  * Created in Intellij IDEA
  * User: Balaji Varadharajan
@@ -48,7 +50,9 @@ public class Route {
     /**
      * Represents the conditions or criteria that must be met for a specific route.
      * This field is stored as a text value in the database and is required
-     * for determining the valid predicates for routing.
+     * for determining the valid predicates for routing. It holds one predicate
+     * per line in shortcut notation (e.g. "Path=/api/**" and "Method=GET");
+     * a plain path is read as a Path predicate.
      */
     @Column(name = "predicates", nullable = false, columnDefinition = "TEXT")
     private String predicates;
@@ -56,7 +60,8 @@ public class Route {
     /**
      * Represents the filters applied to a specific route.
      * Stored as a text field in the database, this attribute contains
-     * the filtering criteria or transformations associated with the route.
+     * the filtering criteria or transformations associated with the route,
+     * one filter per line in shortcut notation, in the order they are applied.
      */
     @Column(name = "filters", nullable = false, columnDefinition = "TEXT")
     private String filters;
@@ -68,6 +73,65 @@ public class Route {
     @Column(name = "enabled", nullable = false)
     private boolean enabled;
 
-//    @Column(name = "is_secured")
-//    private Boolean isSecured;
+    /**
+     * The order of the route relative to the other routes. Routes with a lower order
+     * are matched first.
+     */
+    @Builder.Default
+    @Column(name = "route_order", nullable = false, columnDefinition = "INTEGER NOT NULL DEFAULT 0")
+    private int routeOrder = 0;
+
+    /**
+     * Incremented every time the row changes, whether through JPA (optimistic locking)
+     * or through plain SQL (by the routes_track_change trigger). Used to detect which
+     * routes have to be rebuilt on a refresh.
+     */
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long version;
+
+    /**
+     * The time the row was last inserted or updated. Maintained by the database.
+     */
+    @Column(name = "updated_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()")
+    private Instant updatedAt;
+
+    /**
+     * How requests served by the route are secured. When null (rows created before the
+     * column existed), routes whose filters include the authentication filter are
+     * treated as {@link RouteSecurityPolicy#RESOURCE_AUTHORIZED} and all others as
+     * {@link RouteSecurityPolicy#PUBLIC}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "security_policy", length = 32)
+    private RouteSecurityPolicy securityPolicy;
+
+    /**
+     * The percentile of the route's upstream response times after which a GET or HEAD
+     * request that has not been answered yet is sent again to another instance (e.g. 0.95).
+     * The first response is used and the other request cancelled. When null, requests on
+     * the route are never hedged.
+     */
+    @Column(name = "hedge_percentile")
+    private Double hedgePercentile;
+
+    /**
+     * The legs of a composite route, one per line as {@code name=uri} with an optional
+     * timeout (e.g. {@code orders=lb://ORDER-SERVICE/api/v1/orders/recent,800ms}). When set,
+     * the route does not proxy to its URI: every leg is called in parallel once the request
+     * has passed the route's filters, and their responses are merged into one JSON object.
+     * When null, the route is an ordinary route.
+     */
+    @Column(name = "aggregate_legs", columnDefinition = "TEXT")
+    private String aggregateLegs;
+
+    /**
+     * The size in bytes from which responses of the route are compressed for clients
+     * that accept gzip or deflate (e.g. 1024). Smaller responses, and responses of
+     * already compressed content types, are sent as they are. When null, responses of
+     * the route are never compressed by the gateway.
+     */
+    @Column(name = "compression_threshold")
+    private Integer compressionThreshold;
 }
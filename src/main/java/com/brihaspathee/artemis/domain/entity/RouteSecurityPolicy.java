@@ -0,0 +1,33 @@
+package com.brihaspathee.artemis.domain.entity;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 20:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.domain.entity
+ * To change this template use File | Settings | File and Code Template
+ *
+ * How the requests served by a route are secured.
+ */
+public enum RouteSecurityPolicy {
+
+    /**
+     * No authentication; the authentication filter is never part of the route.
+     */
+    PUBLIC,
+
+    /**
+     * A valid token is required, but access to the specific resource is not checked.
+     * Tokens are verified locally where possible, so the auth service is only called
+     * for tokens that cannot be verified locally.
+     */
+    AUTHENTICATED,
+
+    /**
+     * A valid token is required and the auth service must authorize access to the
+     * requested resource.
+     */
+    RESOURCE_AUTHORIZED
+}
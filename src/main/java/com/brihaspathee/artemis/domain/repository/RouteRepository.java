@@ -2,8 +2,10 @@ package com.brihaspathee.artemis.domain.repository;
 
 import com.brihaspathee.artemis.domain.entity.Route;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,4 +26,32 @@ public interface RouteRepository extends JpaRepository<Route, Integer> {
      * @return a list of enabled Route entities
      */
     List<Route> findByEnabledTrue();
+
+    /**
+     * Retrieves the enabled Route entities with the given route ids.
+     *
+     * @param routeIds the route ids to look up
+     * @return the enabled Route entities among the given route ids
+     */
+    List<Route> findByRouteIdInAndEnabledTrue(Collection<String> routeIds);
+
+    /**
+     * Retrieves the route id and version of every enabled route, without loading the
+     * predicates and filters.
+     *
+     * @return the id and version of all enabled routes
+     */
+    @Query("select new com.brihaspathee.artemis.domain.repository.RouteVersion(r.routeId, r.version) " +
+            "from Route r where r.enabled = true")
+    List<RouteVersion> findEnabledRouteVersions();
+
+    /**
+     * Computes a cheap fingerprint of the routes table. The fingerprint changes whenever
+     * a row is inserted, updated or deleted.
+     *
+     * @return the current state of the routes table
+     */
+    @Query("select new com.brihaspathee.artemis.domain.repository.RouteTableState(" +
+            "count(r), coalesce(sum(r.version), 0L), max(r.updatedAt)) from Route r")
+    RouteTableState findTableState();
 }
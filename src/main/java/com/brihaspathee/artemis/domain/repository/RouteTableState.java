@@ -0,0 +1,23 @@
+package com.brihaspathee.artemis.domain.repository;
+
+import java.time.Instant;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 15:08
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.domain.repository
+ * To change this template use File | Settings | File and Code Template
+ *
+ * A fingerprint of the routes table. Any insert, update or delete changes at least
+ * one of its components, so comparing two states tells whether anything changed
+ * without loading a single route.
+ *
+ * @param routeCount the number of rows in the table
+ * @param versionSum the sum of the versions of all rows
+ * @param lastUpdated the most recent update time of any row
+ */
+public record RouteTableState(Long routeCount, Long versionSum, Instant lastUpdated) {
+}
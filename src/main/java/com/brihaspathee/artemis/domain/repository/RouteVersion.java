@@ -0,0 +1,18 @@
+package com.brihaspathee.artemis.domain.repository;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 15:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.domain.repository
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The id and version of a route, used to find out which routes changed.
+ *
+ * @param routeId the unique identifier of the route
+ * @param version the current version of the route row
+ */
+public record RouteVersion(String routeId, Long version) {
+}
@@ -0,0 +1,348 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.aggregate.AggregateLeg;
+import com.brihaspathee.artemis.config.AggregationConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 19:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Serves composite routes, which have legs instead of an upstream service of their own.
+ * Once a GET request has passed the route's filters, and so has been authenticated once
+ * for all legs, every leg is called in parallel with the request's query and the
+ * headers in {@link AggregationConfig#getForwardedHeaders()}.
+ * The responses are merged into one JSON object keyed on leg name and written as each
+ * leg completes, so the response takes as long as the slowest leg rather than the sum
+ * of them:
+ * <pre>
+ * {"profile":{...},"banner":"text","errors":{"orders":"timeout"}}
+ * </pre>
+ * JSON responses are checked to hold a single JSON value and copied in as they are; any
+ * other response becomes a JSON string. A leg that fails, answers with an error status
+ * or invalid JSON, or exceeds its timeout is left out and listed under {@code errors}. Only when every leg fails is the response a 502.
+ * <p>
+ * Legs call the upstream services directly, lb:// legs through the load balancer, so
+ * none of the gateway's route filters apply to them.
+ */
+@Slf4j
+@Component
+public class AggregationFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The route metadata key holding the legs of a composite route, as in the routes table.
+     */
+    public static final String AGGREGATE_LEGS_METADATA = "artemis-aggregate-legs";
+
+    /*
+        Reasons a leg is listed under errors
+     */
+    private static final String TIMEOUT = "timeout";
+    private static final String TOO_LARGE = "too large";
+    private static final String UNAVAILABLE = "unavailable";
+    private static final String INVALID_JSON = "invalid json";
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.UTF_8);
+
+    private final AggregationConfig config;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    /**
+     * Calls http:// and https:// legs.
+     */
+    private final WebClient webClient;
+
+    /**
+     * Calls lb:// legs, or null when there is no load balancer.
+     */
+    private final WebClient loadBalancedWebClient;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The parsed legs of every composite route, keyed on route id.
+     */
+    private final ConcurrentMap<String, Legs> legs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AggregationFilter(WebClient.Builder webClientBuilder,
+                             ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancer,
+                             AggregationConfig config,
+                             GatewayMetrics gatewayMetrics) {
+        this(webClientBuilder, loadBalancer.getIfAvailable(), config, gatewayMetrics);
+    }
+
+    AggregationFilter(WebClient.Builder webClientBuilder,
+                      ExchangeFilterFunction loadBalancer,
+                      AggregationConfig config,
+                      GatewayMetrics gatewayMetrics) {
+        this.config = config;
+        this.gatewayMetrics = gatewayMetrics;
+        this.webClient = webClientBuilder.clone().build();
+        this.loadBalancedWebClient = loadBalancer != null ? webClientBuilder.clone().filter(loadBalancer).build() : null;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !(route.getMetadata().get(AGGREGATE_LEGS_METADATA) instanceof String text)) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        if (request.getMethod() != HttpMethod.GET) {
+            response.setStatusCode(HttpStatus.METHOD_NOT_ALLOWED);
+            response.getHeaders().setAllow(Set.of(HttpMethod.GET));
+            return response.setComplete();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        for (String name : config.getForwardedHeaders()) {
+            List<String> values = request.getHeaders().get(name);
+            if (values != null) {
+                headers.addAll(name, values);
+            }
+        }
+        String query = request.getURI().getRawQuery();
+        Flux<LegResult> results = Flux.merge(legs(route.getId(), text).legs().stream()
+                .map(leg -> call(exchange, leg, headers, query))
+                .toList());
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(merge(response, results));
+    }
+
+    /**
+     * Runs in place of the routing filters, after all route filters.
+     */
+    @Override
+    public int getOrder() {
+        return RouteToRequestUrlFilter.ROUTE_TO_URL_FILTER_ORDER - 1;
+    }
+
+    /**
+     * @return the parsed legs of the route, parsed again only when the route changes
+     */
+    private Legs legs(String routeId, String text) {
+        Legs parsed = legs.get(routeId);
+        if (parsed == null || !parsed.text().equals(text)) {
+            parsed = new Legs(text, AggregateLeg.parse(text));
+            legs.put(routeId, parsed);
+        }
+        return parsed;
+    }
+
+    /**
+     * Calls a leg. Never fails: a failed leg results in a {@link LegResult} with the reason.
+     */
+    private Mono<LegResult> call(ServerWebExchange exchange, AggregateLeg leg, HttpHeaders headers, String query) {
+        long start = System.nanoTime();
+        boolean loadBalanced = "lb".equals(leg.uri().getScheme());
+        WebClient client = loadBalanced ? loadBalancedWebClient : webClient;
+        if (client == null) {
+            log.warn("Leg {} needs a load balancer, but there is none", leg.name());
+            return Mono.just(LegResult.failed(leg, UNAVAILABLE));
+        }
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUri(leg.uri());
+        if (loadBalanced) {
+            uri.scheme("http");
+        }
+        if (query != null) {
+            uri.query(query);
+        }
+        DataBufferFactory bufferFactory = exchange.getResponse().bufferFactory();
+        Duration timeout = leg.timeout() != null ? leg.timeout() : config.getDefaultTimeout();
+        return client.get()
+                .uri(uri.build(true).toUri())
+                .headers(legHeaders -> legHeaders.addAll(headers))
+                .exchangeToMono(response -> {
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.releaseBody()
+                                .thenReturn(LegResult.failed(leg, "status " + response.statusCode().value()));
+                    }
+                    MediaType contentType = response.headers().contentType().orElse(null);
+                    return DataBufferUtils.join(response.bodyToFlux(DataBuffer.class),
+                                    (int) config.getMaximumLegSize().toBytes())
+                            .map(body -> {
+                                if (!isJson(contentType)) {
+                                    return LegResult.succeeded(leg, jsonString(body, contentType, bufferFactory));
+                                }
+                                if (!isSingleJsonValue(body)) {
+                                    DataBufferUtils.release(body);
+                                    return LegResult.failed(leg, INVALID_JSON);
+                                }
+                                return LegResult.succeeded(leg, body);
+                            })
+                            .defaultIfEmpty(LegResult.succeeded(leg, null));
+                })
+                .timeout(timeout, Mono.fromSupplier(() -> LegResult.failed(leg, TIMEOUT)))
+                .onErrorResume(e -> {
+                    log.debug("Leg {} failed: {}", leg.name(), e.getMessage());
+                    return Mono.just(LegResult.failed(leg, e instanceof DataBufferLimitException ? TOO_LARGE : UNAVAILABLE));
+                })
+                .doOnNext(result -> gatewayMetrics.recordAggregateLeg(exchange, leg.name(), result.outcome(),
+                        System.nanoTime() - start));
+    }
+
+    /**
+     * Writes the leg responses as they complete, then the failed legs. Nothing is written
+     * until the first leg succeeds or all have failed, so the status can still be changed
+     * to 502 when none succeeded.
+     */
+    private static Flux<DataBuffer> merge(ServerHttpResponse response, Flux<LegResult> results) {
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        AtomicBoolean started = new AtomicBoolean();
+        // Flux.merge signals one result at a time, so errors needs no locking
+        Map<String, String> errors = new LinkedHashMap<>();
+        Flux<DataBuffer> legs = results.concatMapIterable(result -> {
+            if (result.error() != null) {
+                errors.put(result.leg().name(), result.error());
+                return List.of();
+            }
+            String key = (started.getAndSet(true) ? "," : "{") + "\"" + result.leg().name() + "\":";
+            return List.of(bufferFactory.wrap(key.getBytes(StandardCharsets.UTF_8)),
+                    result.body() != null ? result.body() : bufferFactory.wrap(NULL));
+        });
+        Mono<DataBuffer> trailer = Mono.fromSupplier(() -> {
+            StringBuilder json = new StringBuilder();
+            json.append(started.get() ? "" : "{");
+            if (!errors.isEmpty()) {
+                json.append(started.get() ? ",\"" : "\"").append(AggregateLeg.ERRORS).append("\":{");
+                errors.forEach((name, error) -> json.append('"').append(name).append("\":\"").append(error).append("\","));
+                json.setCharAt(json.length() - 1, '}');
+            }
+            if (!started.get()) {
+                response.setStatusCode(HttpStatus.BAD_GATEWAY);
+            }
+            return bufferFactory.wrap(json.append('}').toString().getBytes(StandardCharsets.UTF_8));
+        });
+        return legs.concatWith(trailer)
+                .doOnDiscard(LegResult.class, LegResult::release)
+                .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType != null && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || contentType.getSubtype().endsWith("+json"));
+    }
+
+    /**
+     * Checks that the body of a JSON leg holds exactly one well-formed JSON value, so that
+     * splicing it in cannot break, or add keys to, the merged response. The body is read
+     * in place and left unchanged.
+     */
+    private boolean isSingleJsonValue(DataBuffer body) {
+        int readPosition = body.readPosition();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body.asInputStream())) {
+            if (parser.nextToken() == null) {
+                return false;
+            }
+            parser.skipChildren();
+            return parser.nextToken() == null;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            body.readPosition(readPosition);
+        }
+    }
+
+    /**
+     * @return the body as a JSON string; the body is released
+     */
+    private DataBuffer jsonString(DataBuffer body, MediaType contentType, DataBufferFactory bufferFactory) {
+        Charset charset = contentType != null && contentType.getCharset() != null
+                ? contentType.getCharset() : StandardCharsets.UTF_8;
+        try {
+            return bufferFactory.wrap(objectMapper.writeValueAsBytes(body.toString(charset)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataBufferUtils.release(body);
+        }
+    }
+
+    /**
+     * The legs of a route and the text they were parsed from.
+     */
+    private record Legs(String text, List<AggregateLeg> legs) {
+    }
+
+    /**
+     * The response of a leg, or why there is none.
+     *
+     * @param leg the leg
+     * @param body the JSON body of the leg, or null if the leg failed or answered without a body
+     * @param error why the leg failed, or null if it succeeded
+     */
+    private record LegResult(AggregateLeg leg, DataBuffer body, String error) {
+
+        static LegResult succeeded(AggregateLeg leg, DataBuffer body) {
+            return new LegResult(leg, body, null);
+        }
+
+        static LegResult failed(AggregateLeg leg, String error) {
+            return new LegResult(leg, null, error);
+        }
+
+        String outcome() {
+            if (error == null) {
+                return GatewayMetrics.LEG_SUCCEEDED;
+            }
+            return TIMEOUT.equals(error) ? GatewayMetrics.LEG_TIMED_OUT : GatewayMetrics.LEG_FAILED;
+        }
+
+        void release() {
+            if (body != null) {
+                DataBufferUtils.release(body);
+            }
+        }
+    }
+}
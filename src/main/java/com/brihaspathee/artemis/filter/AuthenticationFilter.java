@@ -1,27 +1,37 @@
 package com.brihaspathee.artemis.filter;
 
+import com.brihaspathee.artemis.auth.AuthServiceClient;
+import com.brihaspathee.artemis.auth.AuthServiceUnavailableException;
+import com.brihaspathee.artemis.auth.AuthorizationDecision;
+import com.brihaspathee.artemis.auth.AuthorizationBatcher;
+import com.brihaspathee.artemis.auth.AuthorizationDecisionCache;
+import com.brihaspathee.artemis.auth.AuthorizationKey;
+import com.brihaspathee.artemis.auth.LocalTokenVerifier;
+import com.brihaspathee.artemis.auth.SingleFlight;
+import com.brihaspathee.artemis.auth.TokenVerification;
+import com.brihaspathee.artemis.auth.UserContextSigner;
 import com.brihaspathee.artemis.config.AuthServiceConfig;
-import com.brihaspathee.artemis.dto.auth.AuthorizationRequest;
 import com.brihaspathee.artemis.dto.auth.UserDto;
-import com.brihaspathee.artemis.web.response.ArtemisAPIResponse;
-import lombok.RequiredArgsConstructor;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import lombok.Getter;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
-import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.BodyInserters;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
 /**
  * Created in Intellij IDEA
  * User: Balaji Varadharajan
@@ -37,11 +47,80 @@ import reactor.core.publisher.Mono;
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config>{
 
     /**
-     * A WebClient instance used to perform HTTP requests and handle responses.
-     * It provides asynchronous and non-blocking communication with external services.
-     * Utilized within the AuthenticationFilter class for request processing.
+     * Exchange attribute holding the name of the authenticated user. Unlike the
+     * X-USER-NAME header it cannot be set by the client.
+     */
+    public static final String AUTHENTICATED_USER_ATTR = AuthenticationFilter.class.getName() + ".user";
+
+    /**
+     * The header carrying the name of the authenticated user to the upstream service.
+     */
+    public static final String USER_NAME_HEADER = "X-USER-NAME";
+
+    /**
+     * The prefix of a bearer token in the Authorization header.
+     */
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /*
+        Tag values of the authentication timer
+     */
+    private static final String GRANTED = "granted";
+    private static final String FORBIDDEN = "forbidden";
+    private static final String UNAUTHORIZED = "unauthorized";
+    private static final String UNAVAILABLE = "unavailable";
+    private static final String SOURCE_NONE = "none";
+    private static final String SOURCE_LOCAL = "local";
+    private static final String SOURCE_CACHE = "cache";
+    private static final String SOURCE_AUTH_SERVICE = "auth-service";
+
+    /**
+     * The name of the {@link Config#localVerification} argument.
      */
-    private final WebClient webClient;
+    public static final String LOCAL_VERIFICATION = "localVerification";
+
+    /**
+     * The name of the {@link Config#resourceCheck} argument.
+     */
+    public static final String RESOURCE_CHECK = "resourceCheck";
+
+    /**
+     * Asks the auth service for a decision, either with a call of its own or as part
+     * of a batch, depending on the batching configuration.
+     */
+    private final Function<AuthorizationKey, Mono<AuthorizationDecision>> authorizer;
+
+    /**
+     * Cache of decisions previously returned by the auth service, keyed on the
+     * token and the resource requested. A hit skips the call to the auth service.
+     */
+    private final AuthorizationDecisionCache decisionCache;
+
+    /**
+     * Table of validations currently in flight. Concurrent requests for the same
+     * token and resource share a single call to the auth service.
+     */
+    private final SingleFlight<AuthorizationKey, AuthorizationDecision> inFlightValidations = new SingleFlight<>();
+
+    /**
+     * Records the time spent authenticating each request.
+     */
+    private final GatewayMetrics gatewayMetrics;
+
+    /**
+     * One in this many authorized requests is traced at DEBUG.
+     */
+    private final int debugSampleRate;
+
+    /**
+     * Verifies tokens locally for routes that have local verification switched on.
+     */
+    private final LocalTokenVerifier localTokenVerifier;
+
+    /**
+     * Signs the user context forwarded to downstream services.
+     */
+    private final UserContextSigner userContextSigner;
 
     /**
      * Represents the header key used to retrieve the username information
@@ -97,24 +176,32 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
 //    private final String authServicePort;
 
     /**
-     * Constructs an instance of AuthenticationFilter with the provided WebClient.
+     * Constructs an instance of AuthenticationFilter.
      *
-     * @param webClientBuilder the WebClient instance used for executing asynchronous
-     *                  and non-blocking HTTP requests to external services.
+     * @param authServiceClient the client used to call the auth service
+     * @param authorizationBatcher the batcher used when batching is enabled
+     * @param authServiceConfig the configuration of the auth service
+     * @param decisionCache the cache of previously made authorization decisions
+     * @param localTokenVerifier the verifier used when a route opts into local verification
+     * @param gatewayMetrics the timers of the gateway stages
+     * @param userContextSigner signs the user context forwarded with authenticated requests
      */
-    public AuthenticationFilter(WebClient.Builder webClientBuilder,
-                                AuthServiceConfig authServiceConfig) {
+    public AuthenticationFilter(AuthServiceClient authServiceClient,
+                                AuthorizationBatcher authorizationBatcher,
+                                AuthServiceConfig authServiceConfig,
+                                AuthorizationDecisionCache decisionCache,
+                                LocalTokenVerifier localTokenVerifier,
+                                GatewayMetrics gatewayMetrics,
+                                UserContextSigner userContextSigner) {
         super(Config.class);
-        log.info("Auth Service Host: {}", authServiceConfig.getHost());
-        log.info("Auth Service Port: {}", authServiceConfig.getPort());
-        log.info("Username Header: {}", usernameHeader);
-        String authServiceUrl = String.format("http://%s:%s/api/v1/artemis/auth/secured",
-                authServiceConfig.getHost(),
-                authServiceConfig.getPort());
-        log.info("Auth Service URL: {}", authServiceUrl);
-        this.webClient = webClientBuilder
-                .baseUrl(authServiceUrl)
-                .build();
+        this.gatewayMetrics = gatewayMetrics;
+        this.authorizer = authServiceConfig.getBatching().isEnabled()
+                ? authorizationBatcher::authorize
+                : authServiceClient::authorize;
+        this.debugSampleRate = Math.max(1, authServiceConfig.getDebugSampleRate());
+        this.decisionCache = decisionCache;
+        this.localTokenVerifier = localTokenVerifier;
+        this.userContextSigner = userContextSigner;
     }
 
     /**
@@ -126,7 +213,18 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
     @Override
     public GatewayFilter apply(Config config) {
         log.info("AuthenticationFilter applied");
-        return (this::authenticate);
+        return (exchange, chain) -> authenticate(exchange, chain, config);
+    }
+
+    /**
+     * Allows the configuration to be given in shortcut form on a route, e.g.
+     * {@code AuthenticationFilter=true,false} for local verification without a resource check.
+     *
+     * @return the order of the configuration fields in shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of(LOCAL_VERIFICATION, RESOURCE_CHECK);
     }
 
     /**
@@ -136,77 +234,135 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
      *
      * @param exchange Represents the current server-side HTTP request and response being processed within the web filter pipeline.
      * @param chain The filter chain to allow further processing of the current web exchange.
+     * @param config The configuration of the filter for the route being served.
      * @return A {@code Mono<Void>} that completes when the request has either been successfully authenticated and forwarded to the next filter in the chain,
      *         or denied with an error response.
      */
     private Mono<Void> authenticate(ServerWebExchange exchange,
-                                    GatewayFilterChain chain) {
-        log.info("Authenticating request...");
+                                    GatewayFilterChain chain,
+                                    Config config) {
+        long start = System.nanoTime();
         ServerHttpRequest request = exchange.getRequest();
-        /*
-            This will give the full url that the user tried to access
-            i.e. http://localhost:6092/api/v1/artemis/account
-         */
-        String url = request.getURI().toString();
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            log.debug("Invalid or missing Authorization header");
+            gatewayMetrics.recordAuth(exchange, UNAUTHORIZED, SOURCE_NONE, System.nanoTime() - start);
+            return unauthorizedResponse(exchange);
+        }
+        String token = authHeader.substring(BEARER_PREFIX.length());
+        if (config.isLocalVerification()) {
+            TokenVerification verification = localTokenVerifier.verify(token);
+            switch (verification.status()) {
+                case REJECTED -> {
+                    log.debug("Token rejected by local verification");
+                    gatewayMetrics.recordAuth(exchange, UNAUTHORIZED, SOURCE_LOCAL, System.nanoTime() - start);
+                    return unauthorizedResponse(exchange);
+                }
+                case VERIFIED -> {
+                    if (!config.isResourceCheck()) {
+                        trace(request, "verified locally");
+                        gatewayMetrics.recordAuth(exchange, GRANTED, SOURCE_LOCAL, System.nanoTime() - start);
+                        return forward(exchange, chain, UserDto.builder().username(verification.username()).build());
+                    }
+                }
+                case UNDECIDED -> log.debug("Token cannot be verified locally, deferring to the auth service");
+            }
+        }
         /*
             if the user accessed the URL - http://localhost:6092/api/v1/artemis/account
             path will be - /api/v1/artemis/account
          */
-        String path = request.getPath().toString();
+        AuthorizationKey key = new AuthorizationKey(token, request.getPath().value());
+        AuthorizationDecision cached = decisionCache.get(key);
+        if (cached != null) {
+            // Answered without any reactive assembly beyond the rest of the chain
+            trace(request, "served from cache");
+            gatewayMetrics.recordAuth(exchange, outcome(cached), SOURCE_CACHE, System.nanoTime() - start);
+            return respond(exchange, chain, cached);
+        }
+        return inFlightValidations.execute(key, () -> authorizer.apply(key)
+                        .doOnNext(result -> decisionCache.put(key, result)))
+                .flatMap(result -> {
+                    trace(request, "decided by the auth service");
+                    gatewayMetrics.recordAuth(exchange, outcome(result), SOURCE_AUTH_SERVICE, System.nanoTime() - start);
+                    return respond(exchange, chain, result);
+                })
+                .onErrorResume(AuthServiceUnavailableException.class, e -> {
+                    log.error("Auth service unavailable: {}", e.getMessage());
+                    gatewayMetrics.recordAuth(exchange, UNAVAILABLE, SOURCE_AUTH_SERVICE, System.nanoTime() - start);
+                    return serviceUnavailableResponse(exchange);
+                });
+    }
+
+    /**
+     * Acts on the authorization decision made for a request.
+     *
+     * @param exchange the current server exchange
+     * @param chain the filter chain
+     * @param decision the decision made for the request
+     * @return a {@code Mono<Void>} that completes when the request has been forwarded or denied
+     */
+    private Mono<Void> respond(ServerWebExchange exchange, GatewayFilterChain chain, AuthorizationDecision decision) {
+        return switch (decision.outcome()) {
+            case GRANTED -> forward(exchange, chain, decision.user());
+            case FORBIDDEN -> {
+                log.debug("Access to the resource was denied");
+                yield forbiddenResponse(exchange);
+            }
+            case UNAUTHORIZED -> unauthorizedResponse(exchange);
+        };
+    }
+
+    /**
+     * @return the outcome tag of the decision
+     */
+    private static String outcome(AuthorizationDecision decision) {
+        return switch (decision.outcome()) {
+            case GRANTED -> GRANTED;
+            case FORBIDDEN -> FORBIDDEN;
+            case UNAUTHORIZED -> UNAUTHORIZED;
+        };
+    }
+
+    /**
+     * Logs how a request was authorized at DEBUG, for one in {@code debugSampleRate}
+     * requests, so that tracing can be left on under load. The message is only built
+     * for the sampled requests.
+     *
+     * @param request the authorized request
+     * @param how how the decision was made
+     */
+    private void trace(ServerHttpRequest request, String how) {
+        if (log.isDebugEnabled() && ThreadLocalRandom.current().nextInt(debugSampleRate) == 0) {
+            log.debug("Authorized {} {}, {}", request.getMethod(), request.getPath().value(), how);
+        }
+    }
+
+    /**
+     * Forwards an authenticated request to the next filter in the chain.
+     *
+     * @param exchange the current server exchange
+     * @param chain the filter chain
+     * @param user the authenticated user, injected as request headers
+     * @return a {@code Mono<Void>} that completes when the rest of the chain completes
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, UserDto user) {
         /*
-            This gives any query parameters
-            if the user accessed the URL - http://localhost:7092/api/v1/artemis/account?id=123&type=premium&status=active
-            query will be - id=123&type=premium&status=active
+            - **Enrichment**: Injects additional information (e.g., `userId`, `username`, etc.) into
+            the request headers based on some external data source (e.g., `userDto` object).
+            - **Immutability Handling**: Both `ServerHttpRequest` and `ServerWebExchange` are
+            immutable, so the `mutate()` methods are used to create modified versions.
+            - **Reactive Processing**: Ensures the modifications stay compatible with the non-blocking,
+            reactive nature of the web framework.
          */
-        String query = request.getQueryParams().toString();
-        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-        String accountType = request.getHeaders().getFirst(accountTypeHeader);
-        log.info("Account Type: {}", accountType);
-        if(authHeader == null || !authHeader.startsWith("Bearer ")) {
-            log.error("Invalid or missing Authorization header");
-            return unauthorizedResponse(exchange);
+        exchange.getAttributes().put(AUTHENTICATED_USER_ATTR, user.getUsername());
+        ServerHttpRequest.Builder updatedRequest = exchange.getRequest().mutate()
+                .header(USER_NAME_HEADER, user.getUsername());
+        if (userContextSigner.isEnabled()) {
+            // The whole user context, so downstream services need not ask the auth service
+            updatedRequest.header(userContextSigner.getHeaderName(), userContextSigner.sign(user));
         }
-        String token = authHeader.substring(7);
-        log.info("Token: {}", token);
-        log.info("URL: {}", url);
-        log.info("Path: {}", path);
-        log.info("Query: {}", query);
-        log.info("Auth Header: {}", authHeader);
-        log.info("Authenticating request...");
-        AuthorizationRequest authorizationRequest = AuthorizationRequest.builder()
-                .resourceUri(path)
-                .build();
-        return webClient.post()
-                .uri("/resource/validate")
-                .contentType(MediaType.APPLICATION_JSON)
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
-                .body(BodyInserters.fromValue(authorizationRequest))
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<ArtemisAPIResponse<UserDto>>() {})
-                .flatMap(response -> {
-                    UserDto userDto = response.getResponse();
-                    if(userDto != null) {
-                        log.info("User authenticated successfully");
-                        /*
-                            - **Enrichment**: Injects additional information (e.g., `userId`, `username`, etc.) into
-                            the request headers based on some external data source (e.g., `userDto` object).
-                            - **Immutability Handling**: Both `ServerHttpRequest` and `ServerWebExchange` are
-                            immutable, so the `mutate()` methods are used to create modified versions.
-                            - **Reactive Processing**: Ensures the modifications stay compatible with the non-blocking,
-                            reactive nature of the web framework.
-                         */
-                        ServerHttpRequest updatedRequest = exchange.getRequest().mutate()
-                                .header("X-USER-NAME", userDto.getUsername())
-                                .build();
-                        return chain.filter(exchange.mutate().request(updatedRequest).build());
-                    } else {
-                        log.error("User authentication failed");
-                        return forbiddenResponse(exchange);
-                    }
-                }).onErrorResume( e -> {
-                    log.error("Error while authenticating request: {}", e.getMessage());
-                    return unauthorizedResponse(exchange);
-                });
+        return chain.filter(exchange.mutate().request(updatedRequest.build()).build());
     }
 
     /**
@@ -232,14 +388,43 @@ public class AuthenticationFilter extends AbstractGatewayFilterFactory<Authentic
         return exchange.getResponse().setComplete();
     }
 
+    /**
+     * Sends a service unavailable response with HTTP status code 503, used when the auth
+     * service cannot be reached or its circuit breaker is open. The client may retry,
+     * unlike after a 401.
+     *
+     * @param exchange the server web exchange containing the request and response objects
+     * @return a {@code Mono<Void>} indicating that the response has been completed
+     */
+    private Mono<Void> serviceUnavailableResponse(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        return exchange.getResponse().setComplete();
+    }
+
     /**
      * The Config class serves as a configuration holder for the {@code AuthenticationFilter}.
      * It is used to encapsulate configuration-specific details related to the filter's behavior.
      * This class can be extended with custom configuration fields as needed
      * to enhance the functionality of the authentication filter.
      */
+    @Getter
+    @Setter
     public static class Config {
+
+        /**
+         * When true, the token's signature and expiry are verified locally against the
+         * configured JWKS, and invalid tokens are rejected without calling the auth service.
+         */
+        private boolean localVerification = false;
+
+        /**
+         * Whether the auth service must still authorize access to the specific resource
+         * once the token has been verified. When false, a locally verified token is
+         * sufficient and the auth service is not called at all. Only used together
+         * with {@link #localVerification}.
+         */
+        private boolean resourceCheck = true;
+
         public Config() {}
-        // You can add custom config fields here if needed
     }
 }
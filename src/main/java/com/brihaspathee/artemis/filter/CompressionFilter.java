@@ -0,0 +1,342 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.compression.CompressorPool;
+import com.brihaspathee.artemis.compression.ContentEncoding;
+import com.brihaspathee.artemis.compression.StreamingCompressor;
+import com.brihaspathee.artemis.config.CompressionConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 20:45
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Compresses responses on routes with a compression threshold, with the encoding the
+ * client prefers among those in {@link CompressionConfig#getEncodings()}. The body is
+ * compressed buffer by buffer as it streams through. When its length is not known up
+ * front, the first buffers are held back only until the threshold is reached; a body
+ * that ends below it is sent as it is. Responses that are already encoded, of a content
+ * type that is already compressed, or marked no-transform are never compressed.
+ * <p>
+ * It decorates the response before the response cache does, so cached bodies stay
+ * uncompressed and cache hits are compressed for each client as it asks.
+ */
+@Component
+public class CompressionFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The route metadata key holding the compression threshold of the route, in bytes.
+     */
+    public static final String COMPRESSION_THRESHOLD_METADATA = "artemis-compression-threshold";
+
+    private final CompressionConfig config;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    private final CompressorPool compressorPool;
+
+    private final List<MediaType> excludedContentTypes;
+
+    private final List<MediaType> streamingContentTypes;
+
+    public CompressionFilter(CompressionConfig config, GatewayMetrics gatewayMetrics) {
+        this.config = config;
+        this.gatewayMetrics = gatewayMetrics;
+        this.compressorPool = new CompressorPool(config.getLevel(), (int) config.getScratchSize().toBytes(),
+                config.getPoolSize());
+        this.excludedContentTypes = MediaType.parseMediaTypes(config.getExcludedContentTypes());
+        this.streamingContentTypes = MediaType.parseMediaTypes(config.getStreamingContentTypes());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !(route.getMetadata().get(COMPRESSION_THRESHOLD_METADATA) instanceof Number threshold)
+                || exchange.getRequest().getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        ContentEncoding encoding = ContentEncoding.negotiate(exchange.getRequest().getHeaders(), config.getEncodings());
+        return chain.filter(exchange.mutate()
+                .response(new CompressingResponse(exchange, threshold.intValue(), encoding))
+                .build());
+    }
+
+    /**
+     * Runs before the response cache write filter, so that its decoration sees the body
+     * before this one compresses it.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    /**
+     * The response on a route with compression.
+     */
+    private class CompressingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        private final int threshold;
+
+        /**
+         * The encoding negotiated with the client, or null if it accepts none.
+         */
+        private final ContentEncoding encoding;
+
+        CompressingResponse(ServerWebExchange exchange, int threshold, ContentEncoding encoding) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.threshold = threshold;
+            this.encoding = encoding;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            MediaType contentType = getHeaders().getContentType();
+            if (!isCompressible(contentType)) {
+                return super.writeWith(body);
+            }
+            addVary();
+            long contentLength = getHeaders().getContentLength();
+            if (encoding == null || (contentLength >= 0 && contentLength < threshold)) {
+                return super.writeWith(body);
+            }
+            Compression compression = new Compression(isStreaming(contentType));
+            if (contentLength >= 0) {
+                // Known to reach the threshold, so nothing needs holding back
+                compression.encode();
+            }
+            return super.writeWith(compression.apply(Flux.from(body)));
+        }
+
+        /**
+         * Streamed responses are compressed whatever their size, and every part written
+         * out as it is flushed.
+         */
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            if (!isCompressible(getHeaders().getContentType())) {
+                return super.writeAndFlushWith(body);
+            }
+            addVary();
+            if (encoding == null) {
+                return super.writeAndFlushWith(body);
+            }
+            Compression compression = new Compression(true);
+            compression.encode();
+            return super.writeAndFlushWith(Flux.from(body)
+                    .map(part -> compression.apply(Flux.from(part), false))
+                    .concatWith(Mono.fromSupplier(() -> Flux.fromIterable(compression.complete())))
+                    .doOnError(e -> compression.release())
+                    .doOnCancel(compression::release));
+        }
+
+        private boolean isCompressible(MediaType contentType) {
+            HttpHeaders headers = getHeaders();
+            HttpStatusCode status = getStatusCode();
+            if (contentType == null || headers.containsKey(HttpHeaders.CONTENT_ENCODING)
+                    || (status != null && (status.is1xxInformational() || status.value() == 204
+                    || status.value() == 206 || status.value() == 304))) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && cacheControl.toLowerCase().contains("no-transform")) {
+                return false;
+            }
+            for (MediaType excluded : excludedContentTypes) {
+                if (excluded.includes(contentType)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean isStreaming(MediaType contentType) {
+            for (MediaType streaming : streamingContentTypes) {
+                if (streaming.isCompatibleWith(contentType)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Marks the response as depending on the Accept-Encoding of the request, whether
+         * or not this one is compressed.
+         */
+        private void addVary() {
+            for (String vary : getHeaders().getVary()) {
+                if (vary.equals("*") || vary.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) {
+                    return;
+                }
+            }
+            getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        /**
+         * The compression of one body. Buffers are signalled one at a time, so it needs
+         * no locking. A compressor is only taken from the pool once there is something to
+         * compress, so responses that are never written, or are cancelled before their
+         * first buffer, hold none.
+         */
+        private class Compression {
+
+            private final boolean flush;
+
+            /**
+             * The buffers held back until the threshold is reached.
+             */
+            private final List<DataBuffer> pending = new ArrayList<>();
+
+            private final AtomicBoolean released = new AtomicBoolean();
+
+            private long pendingBytes;
+
+            /**
+             * Whether it is decided that the body is compressed, and the headers say so.
+             */
+            private boolean encoded;
+
+            /**
+             * The compressor, once the first buffer of an encoded body is compressed.
+             */
+            private StreamingCompressor compressor;
+
+            Compression(boolean flush) {
+                this.flush = flush;
+            }
+
+            Flux<DataBuffer> apply(Flux<DataBuffer> body) {
+                return apply(body, true)
+                        .doOnError(e -> release())
+                        .doOnCancel(this::release);
+            }
+
+            Flux<DataBuffer> apply(Flux<DataBuffer> body, boolean last) {
+                Flux<DataBuffer> compressed = body.concatMapIterable(this::accept);
+                if (last) {
+                    compressed = compressed.concatWith(Flux.defer(() -> Flux.fromIterable(complete())));
+                }
+                return compressed.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            }
+
+            /**
+             * Compresses the body from now on. Must be called before anything is written,
+             * while the headers can still change.
+             */
+            void encode() {
+                encoded = true;
+                HttpHeaders headers = getHeaders();
+                headers.set(HttpHeaders.CONTENT_ENCODING, encoding.token());
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                String etag = headers.getETag();
+                if (etag != null && !etag.startsWith("W/")) {
+                    // The compressed body is no longer byte for byte the one the tag was made for
+                    headers.setETag("W/" + etag);
+                }
+            }
+
+            private List<DataBuffer> accept(DataBuffer buffer) {
+                if (encoded) {
+                    return compress(buffer);
+                }
+                pending.add(buffer);
+                pendingBytes += buffer.readableByteCount();
+                if (pendingBytes < threshold) {
+                    return List.of();
+                }
+                encode();
+                List<DataBuffer> output = new ArrayList<>(pending.size());
+                for (DataBuffer held : pending) {
+                    output.addAll(compress(held));
+                }
+                pending.clear();
+                return output;
+            }
+
+            /**
+             * @return the output of compressing the buffer, which is released
+             */
+            private List<DataBuffer> compress(DataBuffer buffer) {
+                try {
+                    DataBuffer output = compressor().compress(buffer, bufferFactory(), flush);
+                    if (output.readableByteCount() == 0) {
+                        DataBufferUtils.release(output);
+                        return List.of();
+                    }
+                    return List.of(output);
+                } finally {
+                    DataBufferUtils.release(buffer);
+                }
+            }
+
+            /**
+             * @return the end of the compressed body, or the whole body if it stayed
+             * below the threshold
+             */
+            List<DataBuffer> complete() {
+                if (!encoded) {
+                    List<DataBuffer> body = List.copyOf(pending);
+                    pending.clear();
+                    return body;
+                }
+                // Even an empty body must be a valid stream of the encoding it is sent with
+                StreamingCompressor compressor = compressor();
+                DataBuffer output = compressor.finish(bufferFactory());
+                gatewayMetrics.recordCompression(exchange, encoding.token(), compressor.getInputBytes(),
+                        compressor.getOutputBytes(), compressor.getCompressionNanos());
+                release();
+                return List.of(output);
+            }
+
+            private StreamingCompressor compressor() {
+                if (compressor == null) {
+                    compressor = compressorPool.acquire(encoding);
+                }
+                return compressor;
+            }
+
+            /**
+             * Returns the compressor to the pool and releases any buffers held back.
+             */
+            void release() {
+                if (!released.compareAndSet(false, true)) {
+                    return;
+                }
+                pending.forEach(DataBufferUtils::release);
+                pending.clear();
+                if (compressor != null) {
+                    compressorPool.release(compressor);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.concurrency.AdaptiveConcurrencyLimiter;
+import com.brihaspathee.artemis.concurrency.Priority;
+import com.brihaspathee.artemis.config.ConcurrencyLimitConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 09:30
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Sheds load when an upstream service degrades. Enabled on a route by adding it to the
+ * filters of the route, e.g. {@code ConcurrencyLimitFilter} or {@code ConcurrencyLimitFilter=LOW}.
+ * All routes to the same upstream URI (e.g. {@code lb://account-service}) share one
+ * {@link AdaptiveConcurrencyLimiter}; requests beyond its limit get a 503 with a
+ * Retry-After header right away. The priority argument decides which requests are shed
+ * first; without it, requests of authenticated users are high priority and public
+ * requests low priority.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends AbstractGatewayFilterFactory<ConcurrencyLimitFilter.Config> {
+
+    /**
+     * The name of the priority argument.
+     */
+    public static final String PRIORITY = "priority";
+
+    /**
+     * The upstream of requests without a route.
+     */
+    private static final String NO_UPSTREAM = "none";
+
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    /**
+     * The limiters keyed on upstream URI. Kept here rather than in the route filters so
+     * that they are shared by routes and survive route refreshes.
+     */
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * The Retry-After of shed requests, in seconds.
+     */
+    private final String retryAfter;
+
+    /**
+     * Constructs the filter factory.
+     *
+     * @param concurrencyLimitConfig the settings of the concurrency limits
+     * @param gatewayMetrics the gauges of the limits and counters of shed requests
+     */
+    public ConcurrencyLimitFilter(ConcurrencyLimitConfig concurrencyLimitConfig, GatewayMetrics gatewayMetrics) {
+        super(Config.class);
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+        this.gatewayMetrics = gatewayMetrics;
+        this.retryAfter = String.valueOf(Math.max(1, concurrencyLimitConfig.getRetryAfter().toSeconds()));
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> limit(exchange, chain, config.getPriority());
+    }
+
+    /**
+     * Allows the priority to be given in shortcut form on a route, e.g. {@code ConcurrencyLimitFilter=LOW}.
+     *
+     * @return the order of the configuration fields in shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of(PRIORITY);
+    }
+
+    private Mono<Void> limit(ServerWebExchange exchange, GatewayFilterChain chain, Priority routePriority) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String upstream = route != null ? route.getUri().toString() : NO_UPSTREAM;
+        AdaptiveConcurrencyLimiter limiter = limiter(upstream);
+        Priority priority = routePriority != null
+                ? routePriority
+                : exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_USER_ATTR) != null ? Priority.HIGH : Priority.LOW;
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(priority);
+        if (permit == null) {
+            log.debug("Shedding {} priority request to {}, limit {}", priority, upstream, limiter.getLimit());
+            gatewayMetrics.recordShed(upstream, priority);
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+            return exchange.getResponse().setComplete();
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        permit.onDropped();
+                    } else {
+                        permit.onSuccess(System.nanoTime() - start);
+                    }
+                })
+                .doOnError(e -> permit.onDropped())
+                .doOnCancel(permit::onIgnore);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(String upstream) {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(upstream);
+        if (limiter != null) {
+            return limiter;
+        }
+        return limiters.computeIfAbsent(upstream, key -> {
+            AdaptiveConcurrencyLimiter created = new AdaptiveConcurrencyLimiter(concurrencyLimitConfig);
+            gatewayMetrics.registerConcurrencyLimiter(key, created);
+            return created;
+        });
+    }
+
+    /**
+     * The priority of the requests of a route.
+     */
+    @Getter
+    @Setter
+    public static class Config {
+
+        /**
+         * The priority of the requests of the route; when null it depends on whether
+         * the request was authenticated.
+         */
+        private Priority priority;
+
+        public Config() {}
+    }
+}
@@ -0,0 +1,342 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.HedgingConfig;
+import com.brihaspathee.artemis.hedge.HedgeBudget;
+import com.brihaspathee.artemis.hedge.LatencyWindow;
+import com.brihaspathee.artemis.loadbalancer.LatencyAwareLoadBalancer;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.Connection;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_SCHEME_PREFIX_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 16:00
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Hedges GET and HEAD requests on routes with a hedge percentile: when the upstream
+ * service has not answered within that percentile of the route's recent response times,
+ * the request is sent a second time, to another instance for lb:// routes. The first
+ * response is used and the other request cancelled. A request that fails outright is
+ * sent again right away instead of after the delay. Hedged requests are paid for from
+ * a {@link HedgeBudget} shared by all routes, so hedging cannot add more than a fixed
+ * share of load.
+ * <p>
+ * It runs right before the load balancer filter, so that each request picks its own
+ * instance, and gives each of them its own attributes and response so that the routing
+ * filter of one cannot interfere with the other. Only the winner's are copied back onto
+ * the exchange.
+ */
+@Slf4j
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The route metadata key holding the hedge percentile of the route.
+     */
+    public static final String HEDGE_PERCENTILE_METADATA = "artemis-hedge-percentile";
+
+    private final HedgingConfig config;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    private final HedgeBudget hedgeBudget;
+
+    /**
+     * The recent response times of every hedged route, keyed on route id.
+     */
+    private final ConcurrentMap<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+    public HedgingFilter(HedgingConfig config, GatewayMetrics gatewayMetrics) {
+        this.config = config;
+        this.gatewayMetrics = gatewayMetrics;
+        this.hedgeBudget = new HedgeBudget(config.getBudgetRatio(), config.getMaximumBudget());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null || !(route.getMetadata().get(HEDGE_PERCENTILE_METADATA) instanceof Number percentile)
+                || !isHedgeable(exchange)) {
+            return chain.filter(exchange);
+        }
+        LatencyWindow window = window(route.getId(), percentile.doubleValue());
+        hedgeBudget.deposit();
+        long delay = window.percentileNanos();
+        if (delay < 0) {
+            // Not enough response times yet to know when to hedge
+            long start = System.nanoTime();
+            return chain.filter(exchange).doOnSuccess(ignored -> window.record(System.nanoTime() - start));
+        }
+        delay = Math.max(config.getMinimumDelay().toNanos(), Math.min(config.getMaximumDelay().toNanos(), delay));
+
+        AtomicBoolean decided = new AtomicBoolean();
+        Attempt primary = new Attempt(exchange, null, false);
+        Mono<Attempt> hedge = Mono.firstWithSignal(Mono.delay(Duration.ofNanos(delay)).then(), primary.failed.asMono())
+                .then(Mono.defer(() -> hedge(exchange, chain, window, primary, decided)));
+        return Mono.firstWithValue(primary.send(chain, window, decided), hedge)
+                .onErrorMap(NoSuchElementException.class, e -> primary.error != null ? primary.error : e)
+                .doOnNext(winner -> {
+                    winner.commit(exchange);
+                    if (winner.hedged) {
+                        gatewayMetrics.recordHedge(exchange, GatewayMetrics.HEDGE_WON);
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Runs right before the load balancer filter, after the request URL has been set.
+     */
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    /**
+     * Sends the hedged request, if the request has not been answered meanwhile and the
+     * budget allows.
+     */
+    private Mono<Attempt> hedge(ServerWebExchange exchange, GatewayFilterChain chain, LatencyWindow window,
+                                Attempt primary, AtomicBoolean decided) {
+        if (decided.get()) {
+            return Mono.empty();
+        }
+        if (!hedgeBudget.tryWithdraw()) {
+            gatewayMetrics.recordHedge(exchange, GatewayMetrics.HEDGE_THROTTLED);
+            return Mono.empty();
+        }
+        gatewayMetrics.recordHedge(exchange, GatewayMetrics.HEDGE_SENT);
+        Response<ServiceInstance> chosen = primary.exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        ServiceInstance excluded = chosen != null && chosen.hasServer() ? chosen.getServer() : null;
+        log.debug("Hedging request to {}", exchange.getRequest().getURI());
+        return new Attempt(exchange, excluded, true).send(chain, window, decided);
+    }
+
+    private LatencyWindow window(String routeId, double percentile) {
+        LatencyWindow window = windows.get(routeId);
+        if (window != null && window.getPercentile() == percentile) {
+            return window;
+        }
+        return windows.compute(routeId, (id, current) -> current != null && current.getPercentile() == percentile
+                ? current
+                : new LatencyWindow(percentile, config.getWindowSize(), config.getMinimumSamples()));
+    }
+
+    /**
+     * @return whether the request is idempotent, has no body and is routed over plain HTTP
+     */
+    private static boolean isHedgeable(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET && request.getMethod() != HttpMethod.HEAD) {
+            return false;
+        }
+        HttpHeaders headers = request.getHeaders();
+        if (headers.getContentLength() > 0 || headers.containsKey(HttpHeaders.TRANSFER_ENCODING)
+                || headers.containsKey(HttpHeaders.UPGRADE)) {
+            return false;
+        }
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || url.getScheme() == null || exchange.getAttribute(GATEWAY_SCHEME_PREFIX_ATTR) != null
+                || isAlreadyRouted(exchange)) {
+            return false;
+        }
+        String scheme = url.getScheme();
+        return scheme.equals("http") || scheme.equals("https") || scheme.equals("lb");
+    }
+
+    /**
+     * One of the requests sent upstream for a client request.
+     */
+    private static final class Attempt {
+
+        private final AttemptExchange exchange;
+
+        private final boolean hedged;
+
+        /**
+         * Completes when the request fails, so that it can be hedged right away.
+         */
+        private final Sinks.Empty<Void> failed = Sinks.empty();
+
+        private volatile Throwable error;
+
+        private Attempt(ServerWebExchange exchange, ServiceInstance excluded, boolean hedged) {
+            this.exchange = new AttemptExchange(exchange, excluded);
+            this.hedged = hedged;
+        }
+
+        /**
+         * Sends the request through the rest of the chain.
+         *
+         * @return this attempt if it is the first to be answered, otherwise empty
+         */
+        private Mono<Attempt> send(GatewayFilterChain chain, LatencyWindow window, AtomicBoolean decided) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return chain.filter(exchange)
+                        .doOnSuccess(ignored -> window.record(System.nanoTime() - start))
+                        .doOnError(e -> {
+                            error = e;
+                            failed.tryEmitEmpty();
+                        })
+                        .doOnCancel(() -> {
+                            // The request took at least this long, which keeps the
+                            // percentile from drifting down when hedges keep winning
+                            if (!hedged) {
+                                window.record(System.nanoTime() - start);
+                            }
+                        })
+                        .then(Mono.fromSupplier(() -> {
+                            if (decided.compareAndSet(false, true)) {
+                                return this;
+                            }
+                            release();
+                            return null;
+                        }));
+            });
+        }
+
+        /**
+         * Closes the connection of a response that arrived too late to be used.
+         */
+        private void release() {
+            Connection connection = exchange.getAttribute(CLIENT_RESPONSE_CONN_ATTR);
+            if (connection != null) {
+                connection.dispose();
+            }
+        }
+
+        /**
+         * Makes the response of this attempt the response of the exchange.
+         */
+        private void commit(ServerWebExchange target) {
+            exchange.attributes.forEach((name, value) -> {
+                if (!LatencyAwareLoadBalancer.EXCLUDED_INSTANCE_ATTR.equals(name)) {
+                    target.getAttributes().put(name, value);
+                }
+            });
+            ServerHttpResponse response = target.getResponse();
+            if (exchange.response.status != null) {
+                response.setStatusCode(exchange.response.status);
+            }
+            response.getHeaders().addAll(exchange.response.headers);
+        }
+    }
+
+    /**
+     * The exchange of one attempt: a copy of the attributes, a request without a body
+     * (which can only be read once) and a response that only collects status and headers.
+     */
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+
+        private final Map<String, Object> attributes;
+
+        private final ServerHttpRequest request;
+
+        private final AttemptResponse response;
+
+        private AttemptExchange(ServerWebExchange exchange, ServiceInstance excluded) {
+            super(exchange);
+            this.attributes = new ConcurrentHashMap<>(exchange.getAttributes());
+            Set<URI> originalUrls = exchange.getAttribute(GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+            if (originalUrls != null) {
+                attributes.put(GATEWAY_ORIGINAL_REQUEST_URL_ATTR, new LinkedHashSet<>(originalUrls));
+            }
+            if (excluded != null) {
+                attributes.put(LatencyAwareLoadBalancer.EXCLUDED_INSTANCE_ATTR, excluded);
+            }
+            this.request = new ServerHttpRequestDecorator(exchange.getRequest()) {
+                @Override
+                public Flux<DataBuffer> getBody() {
+                    return Flux.empty();
+                }
+            };
+            this.response = new AttemptResponse(exchange.getResponse());
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public ServerHttpRequest getRequest() {
+            return request;
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+    }
+
+    private static final class AttemptResponse extends ServerHttpResponseDecorator {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private volatile HttpStatusCode status;
+
+        private AttemptResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public boolean setStatusCode(HttpStatusCode status) {
+            this.status = status;
+            return true;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
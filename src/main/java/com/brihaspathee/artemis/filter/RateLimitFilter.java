@@ -0,0 +1,159 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.RateLimitConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import com.brihaspathee.artemis.ratelimit.LocalRateLimiter;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 23:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Limits the rate of requests per user on a route, in memory, without Redis. Enabled on
+ * a route by adding it to the filters of the route, e.g. {@code RateLimitFilter=10,20}
+ * for 10 requests per second with bursts of up to 20. Requests are keyed on the user
+ * authenticated by the {@link AuthenticationFilter} (the user it forwards in X-USER-NAME),
+ * and on public routes on the client address. Behind proxies the client address is taken
+ * from X-Forwarded-For, skipping the entries added by the configured number of trusted
+ * proxies; otherwise all clients behind a proxy would share one bucket. Limited requests
+ * get a 429 with a Retry-After header. The limits are per gateway instance.
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    /**
+     * The name of the replenish rate argument.
+     */
+    public static final String REPLENISH_RATE = "replenishRate";
+
+    /**
+     * The name of the burst capacity argument.
+     */
+    public static final String BURST_CAPACITY = "burstCapacity";
+
+    private final RateLimitConfig rateLimitConfig;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    /**
+     * Constructs the filter factory.
+     *
+     * @param rateLimitConfig the settings shared by the rate limits of all routes
+     * @param gatewayMetrics the counters of limited requests
+     */
+    public RateLimitFilter(RateLimitConfig rateLimitConfig, GatewayMetrics gatewayMetrics) {
+        super(Config.class);
+        this.rateLimitConfig = rateLimitConfig;
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    /**
+     * Creates the filter of a route. Each route has its own buckets, which start full
+     * again when the route is rebuilt.
+     *
+     * @param config the limits of the route
+     * @return the rate limiting filter
+     */
+    @Override
+    public GatewayFilter apply(Config config) {
+        int burstCapacity = config.getBurstCapacity() > 0
+                ? config.getBurstCapacity()
+                : (int) Math.ceil(config.getReplenishRate());
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(config.getReplenishRate(), burstCapacity,
+                rateLimitConfig.getMaximumKeys());
+        RemoteAddressResolver addressResolver = rateLimitConfig.getTrustedProxies() > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(rateLimitConfig.getTrustedProxies())
+                : new RemoteAddressResolver() {};
+        return (exchange, chain) -> limit(exchange, chain, rateLimiter, addressResolver);
+    }
+
+    /**
+     * Allows the limits to be given in shortcut form on a route, e.g. {@code RateLimitFilter=10,20}.
+     *
+     * @return the order of the configuration fields in shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of(REPLENISH_RATE, BURST_CAPACITY);
+    }
+
+    private Mono<Void> limit(ServerWebExchange exchange, GatewayFilterChain chain, LocalRateLimiter rateLimiter,
+                             RemoteAddressResolver addressResolver) {
+        String key = key(exchange, addressResolver);
+        if (key == null) {
+            return chain.filter(exchange);
+        }
+        long waitNanos = rateLimiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+        gatewayMetrics.recordRateLimited(exchange);
+        exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER,
+                String.valueOf(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * The user the request is made by, as authenticated by the {@link AuthenticationFilter}.
+     * The X-USER-NAME header itself is not used as it may have been sent by the client.
+     *
+     * @param addressResolver resolves the client address of anonymous requests
+     * @return the key of the bucket, or null if the request is not limited
+     */
+    private String key(ServerWebExchange exchange, RemoteAddressResolver addressResolver) {
+        String username = exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_USER_ATTR);
+        if (username != null) {
+            return username;
+        }
+        if (!rateLimitConfig.isLimitAnonymous()) {
+            return null;
+        }
+        InetSocketAddress remoteAddress = addressResolver.resolve(exchange);
+        return remoteAddress != null && remoteAddress.getAddress() != null
+                ? remoteAddress.getAddress().getHostAddress()
+                : "unknown";
+    }
+
+    /**
+     * The limits of a route.
+     */
+    @Getter
+    @Setter
+    public static class Config {
+
+        /**
+         * The number of requests per second each user is allowed on average.
+         */
+        private double replenishRate = 10;
+
+        /**
+         * The number of requests each user is allowed at once. Defaults to the replenish rate.
+         */
+        private int burstCapacity = 0;
+
+        public Config() {}
+    }
+}
@@ -0,0 +1,84 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 22:30
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Times every routed request as a whole and, when enabled, adds a Server-Timing header
+ * with the time spent on authentication and waiting for the upstream service, e.g.
+ * {@code Server-Timing: auth;dur=1.2, upstream;dur=35.4}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestTimingFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The name of the Server-Timing response header.
+     */
+    private static final String SERVER_TIMING = "Server-Timing";
+
+    private final GatewayMetrics gatewayMetrics;
+
+    private final GatewayMetricsConfig gatewayMetricsConfig;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        if (gatewayMetricsConfig.isServerTiming()) {
+            exchange.getResponse().beforeCommit(() -> {
+                String serverTiming = serverTiming(exchange);
+                if (serverTiming != null) {
+                    exchange.getResponse().getHeaders().add(SERVER_TIMING, serverTiming);
+                }
+                return Mono.empty();
+            });
+        }
+        // A cancelled request (the client went away) is recorded as an error
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> gatewayMetrics.recordRequest(exchange, false, System.nanoTime() - start))
+                .doOnError(e -> gatewayMetrics.recordRequest(exchange, true, System.nanoTime() - start))
+                .doOnCancel(() -> gatewayMetrics.recordRequest(exchange, true, System.nanoTime() - start));
+    }
+
+    /**
+     * Runs first, so that the time of all other filters is included.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static String serverTiming(ServerWebExchange exchange) {
+        Long auth = exchange.getAttribute(GatewayMetrics.AUTH_DURATION_ATTR);
+        Long upstream = exchange.getAttribute(GatewayMetrics.UPSTREAM_DURATION_ATTR);
+        if (auth == null && upstream == null) {
+            return null;
+        }
+        StringBuilder header = new StringBuilder(48);
+        if (auth != null) {
+            header.append("auth;dur=").append(auth / 1_000_000.0);
+        }
+        if (upstream != null) {
+            if (!header.isEmpty()) {
+                header.append(", ");
+            }
+            header.append("upstream;dur=").append(upstream / 1_000_000.0);
+        }
+        return header.toString();
+    }
+}
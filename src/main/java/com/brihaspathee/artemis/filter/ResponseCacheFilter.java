@@ -0,0 +1,228 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.cache.CacheDirectives;
+import com.brihaspathee.artemis.cache.CachedResponse;
+import com.brihaspathee.artemis.cache.ResponseCacheKey;
+import com.brihaspathee.artemis.cache.ResponseCacheStore;
+import com.brihaspathee.artemis.cache.ResponseCapture;
+import com.brihaspathee.artemis.config.ResponseCacheConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 11:30
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Serves GET requests of a route from the {@link ResponseCacheStore}. Enabled on a route
+ * by adding it to the filters of the route, e.g. {@code ResponseCacheFilter=10m} to keep
+ * responses without a max-age fresh for 10 minutes, or {@code ResponseCacheFilter=10m,true}
+ * to cache per authenticated user. It runs in its place among the filters of the route,
+ * after the {@link AuthenticationFilter}, so every request is still authorized.
+ * <p>
+ * Fresh responses are served from the cache, and answered with a 304 if the client
+ * already has them. Stale responses with an entity tag are revalidated with a
+ * conditional request; other requests are forwarded and the upstream response is
+ * cached by the {@link ResponseCacheWriteFilter} as it streams to the client.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    /**
+     * Exchange attribute holding the {@link ResponseCapture} of a request whose response
+     * is to be cached.
+     */
+    public static final String CAPTURE_ATTR = ResponseCacheFilter.class.getName() + ".capture";
+
+    /**
+     * The name of the time to live argument.
+     */
+    public static final String TIME_TO_LIVE = "timeToLive";
+
+    /**
+     * The name of the per user argument.
+     */
+    public static final String PER_USER = "perUser";
+
+    private final ResponseCacheStore responseCacheStore;
+
+    private final ResponseCacheConfig responseCacheConfig;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    /**
+     * Constructs the filter factory.
+     *
+     * @param responseCacheStore the cached responses
+     * @param responseCacheConfig the settings of the response cache
+     * @param gatewayMetrics the counters of cache hits and misses
+     */
+    public ResponseCacheFilter(ResponseCacheStore responseCacheStore,
+                               ResponseCacheConfig responseCacheConfig,
+                               GatewayMetrics gatewayMetrics) {
+        super(Config.class);
+        this.responseCacheStore = responseCacheStore;
+        this.responseCacheConfig = responseCacheConfig;
+        this.gatewayMetrics = gatewayMetrics;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long timeToLive = (config.getTimeToLive() != null
+                ? config.getTimeToLive()
+                : responseCacheConfig.getTimeToLive()).toNanos();
+        return new CachingFilter(timeToLive, config.isPerUser());
+    }
+
+    /**
+     * Allows the configuration to be given in shortcut form on a route, e.g. {@code ResponseCacheFilter=10m,true}.
+     *
+     * @return the order of the configuration fields in shortcut form
+     */
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of(TIME_TO_LIVE, PER_USER);
+    }
+
+    /**
+     * The filter of a route with caching enabled. The {@link ResponseCacheWriteFilter}
+     * only decorates the responses of routes that have one.
+     */
+    class CachingFilter implements GatewayFilter {
+
+        private final long timeToLive;
+
+        private final boolean perUser;
+
+        CachingFilter(long timeToLive, boolean perUser) {
+            this.timeToLive = timeToLive;
+            this.perUser = perUser;
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            CacheDirectives directives = CacheDirectives.of(request.getHeaders());
+            String user = exchange.getAttribute(AuthenticationFilter.AUTHENTICATED_USER_ATTR);
+            if (directives.noStore() || (perUser && user == null)) {
+                return chain.filter(exchange);
+            }
+            Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+            URI uri = request.getURI();
+            ResponseCacheKey key = new ResponseCacheKey(route != null ? route.getId() : null,
+                    uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery(),
+                    perUser ? user : null);
+            String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            CachedResponse cached = responseCacheStore.get(key);
+            long now = System.nanoTime();
+            if (cached != null && cached.isFresh(now) && !directives.noCache()) {
+                gatewayMetrics.recordResponseCache(exchange, GatewayMetrics.CACHE_HIT);
+                return serve(exchange.getResponse(), cached, now, ifNoneMatch);
+            }
+            CachedResponse stale = cached != null && cached.etag() != null ? cached : null;
+            exchange.getAttributes().put(CAPTURE_ATTR, new ResponseCapture(key, timeToLive, perUser, stale, ifNoneMatch));
+            if (stale == null) {
+                gatewayMetrics.recordResponseCache(exchange, GatewayMetrics.CACHE_MISS);
+                return chain.filter(exchange);
+            }
+            // Ask the upstream service whether the cached response is still valid
+            ServerHttpRequest conditional = request.mutate()
+                    .headers(headers -> headers.set(HttpHeaders.IF_NONE_MATCH, stale.etag()))
+                    .build();
+            return chain.filter(exchange.mutate().request(conditional).build());
+        }
+    }
+
+    /**
+     * Serves a cached response, streaming its body without copying it.
+     *
+     * @param response the response to the client
+     * @param cached the cached response
+     * @param now the current time in System.nanoTime() terms
+     * @param ifNoneMatch the If-None-Match header sent by the client, or null
+     * @return a {@code Mono<Void>} that completes when the response has been written
+     */
+    static Mono<Void> serve(ServerHttpResponse response, CachedResponse cached, long now, String ifNoneMatch) {
+        HttpHeaders headers = response.getHeaders();
+        headers.clear();
+        headers.addAll(cached.headers());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.set(HttpHeaders.AGE, Long.toString(cached.ageSeconds(now)));
+        if (cached.etag() != null && matches(ifNoneMatch, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().remaining());
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cached.body().duplicate())));
+    }
+
+    /**
+     * @return whether an If-None-Match header matches the entity tag, using the weak comparison
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = weakless(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || weakless(trimmed).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String weakless(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * The caching settings of a route.
+     */
+    @Getter
+    @Setter
+    public static class Config {
+
+        /**
+         * How long responses without a max-age are fresh; the global setting when null.
+         */
+        private Duration timeToLive;
+
+        /**
+         * Whether responses are cached per authenticated user. Requests without an
+         * authenticated user are then not cached, and private responses are.
+         */
+        private boolean perUser = false;
+
+        public Config() {}
+    }
+}
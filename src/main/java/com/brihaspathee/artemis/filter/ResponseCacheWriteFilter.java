@@ -0,0 +1,252 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.cache.CacheDirectives;
+import com.brihaspathee.artemis.cache.CachedResponse;
+import com.brihaspathee.artemis.cache.ResponseCacheStore;
+import com.brihaspathee.artemis.cache.ResponseCapture;
+import com.brihaspathee.artemis.config.ResponseCacheConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 11:45
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Caches upstream responses as they are written to the client. It has to run before the
+ * {@link NettyWriteResponseFilter}, and so before the filters of the route, to decorate
+ * the response that filter writes to; it only does so on routes with a
+ * {@link ResponseCacheFilter}, and the decorated response only caches what the
+ * {@link ResponseCacheFilter} asked for through {@link ResponseCacheFilter#CAPTURE_ATTR}.
+ * <p>
+ * The body is copied into a heap buffer as it passes through, without holding it
+ * back from the client. When the upstream service answers a conditional request with
+ * a 304, the cached response is served instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseCacheWriteFilter implements GlobalFilter, Ordered {
+
+    /**
+     * The size of the body buffer if the upstream response has no Content-Length.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private final ResponseCacheStore responseCacheStore;
+
+    private final ResponseCacheConfig responseCacheConfig;
+
+    private final GatewayMetrics gatewayMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET || !hasCachingFilter(exchange)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate().response(new CachingResponse(exchange)).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private static boolean hasCachingFilter(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return false;
+        }
+        for (GatewayFilter filter : route.getFilters()) {
+            GatewayFilter delegate = filter instanceof OrderedGatewayFilter ordered ? ordered.getDelegate() : filter;
+            if (delegate instanceof ResponseCacheFilter.CachingFilter) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The response of a request on a route with caching enabled.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+
+        CachingResponse(ServerWebExchange exchange) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            ResponseCapture capture = exchange.getAttribute(ResponseCacheFilter.CAPTURE_ATTR);
+            if (capture == null) {
+                return super.writeWith(body);
+            }
+            exchange.getAttributes().remove(ResponseCacheFilter.CAPTURE_ATTR);
+            long now = System.nanoTime();
+            if (capture.stale() != null) {
+                if (getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                    gatewayMetrics.recordResponseCache(exchange, GatewayMetrics.CACHE_REVALIDATED);
+                    CachedResponse revalidated = capture.stale().revalidated(now,
+                            now + timeToLive(CacheDirectives.of(getHeaders()), capture));
+                    responseCacheStore.put(capture.key(), revalidated);
+                    return Flux.from(body)
+                            .doOnNext(DataBufferUtils::release)
+                            .then(Mono.defer(() -> ResponseCacheFilter.serve(getDelegate(), revalidated, now,
+                                    capture.clientIfNoneMatch())));
+                }
+                gatewayMetrics.recordResponseCache(exchange, GatewayMetrics.CACHE_MISS);
+            }
+            HttpHeaders headers = getHeaders();
+            CacheDirectives directives = CacheDirectives.of(headers);
+            long timeToLive = timeToLive(directives, capture);
+            String etag = headers.getETag();
+            long contentLength = headers.getContentLength();
+            long maximumEntrySize = responseCacheConfig.getMaximumEntrySize().toBytes();
+            if (!isCacheable(directives, capture) || (timeToLive <= 0 && etag == null)
+                    || contentLength > maximumEntrySize) {
+                return super.writeWith(body);
+            }
+            BodyRecorder recorder = new BodyRecorder(contentLength >= 0
+                    ? (int) contentLength
+                    : (int) Math.min(INITIAL_BUFFER_SIZE, maximumEntrySize), maximumEntrySize);
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders copy = new HttpHeaders();
+            copy.addAll(headers);
+            HttpHeaders cachedHeaders = HttpHeaders.readOnlyHttpHeaders(copy);
+            return super.writeWith(Flux.from(body)
+                    .doOnNext(recorder::append)
+                    .doOnComplete(() -> {
+                        ByteBuffer recorded = recorder.finish();
+                        if (recorded != null) {
+                            responseCacheStore.put(capture.key(), new CachedResponse(status, cachedHeaders,
+                                    recorded, etag, now, now + timeToLive));
+                        }
+                    }));
+        }
+
+        /**
+         * Whether the response may be cached at all. Responses that vary on anything
+         * but the encoding, set cookies or are encoded are not; private responses only
+         * per user. An encoded response could be served to a client that cannot decode it.
+         */
+        private boolean isCacheable(CacheDirectives directives, ResponseCapture capture) {
+            HttpHeaders headers = getHeaders();
+            if (getStatusCode() != HttpStatus.OK || directives.noStore()
+                    || (directives.isPrivate() && !capture.perUser())
+                    || headers.containsKey(HttpHeaders.SET_COOKIE)
+                    || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                return false;
+            }
+            List<String> vary = headers.getVary();
+            // A response in identity encoding is valid for any Accept-Encoding
+            return vary.isEmpty() || (vary.size() == 1 && vary.getFirst().equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING));
+        }
+
+        /**
+         * How long a response is fresh: its s-maxage (shared entries only) or max-age,
+         * otherwise the time to live of the route; zero if it must always be revalidated.
+         */
+        private long timeToLive(CacheDirectives directives, ResponseCapture capture) {
+            if (directives.noCache()) {
+                return 0;
+            }
+            if (directives.sharedMaxAge() >= 0 && !capture.perUser()) {
+                return directives.sharedMaxAge() * 1_000_000_000L;
+            }
+            if (directives.maxAge() >= 0) {
+                return directives.maxAge() * 1_000_000_000L;
+            }
+            return capture.timeToLive();
+        }
+    }
+
+    /**
+     * Copies a body into a heap buffer as it streams by, giving up once it grows beyond
+     * the maximum entry size. Heap buffers are reclaimed by the garbage collector when
+     * an entry is evicted, where direct buffers would only be freed by a later GC of
+     * their small on-heap owner, far from the cache's size bound.
+     */
+    private static class BodyRecorder {
+
+        private final long maximumSize;
+
+        private ByteBuffer buffer;
+
+        BodyRecorder(int initialSize, long maximumSize) {
+            this.maximumSize = maximumSize;
+            this.buffer = ByteBuffer.allocate(initialSize);
+        }
+
+        void append(DataBuffer dataBuffer) {
+            if (buffer == null) {
+                return;
+            }
+            int length = dataBuffer.readableByteCount();
+            if (buffer.remaining() < length) {
+                long required = (long) buffer.position() + length;
+                if (required > maximumSize) {
+                    buffer = null;
+                    return;
+                }
+                ByteBuffer grown = ByteBuffer.allocate((int) Math.min(maximumSize,
+                        Math.max(required, 2L * buffer.capacity())));
+                grown.put(buffer.flip());
+                buffer = grown;
+            }
+            // Copies without moving the read position of the buffer being written to the client
+            int position = buffer.position();
+            dataBuffer.toByteBuffer(dataBuffer.readPosition(), buffer, position, length);
+            buffer.position(position + length);
+        }
+
+        /**
+         * @return the recorded body, or null if it was too large
+         */
+        ByteBuffer finish() {
+            if (buffer == null) {
+                return null;
+            }
+            ByteBuffer body = buffer.flip();
+            if (body.limit() < body.capacity()) {
+                // Do not hold on to the unused part of a buffer that was sized up front
+                ByteBuffer exact = ByteBuffer.allocate(body.limit());
+                exact.put(body).flip();
+                body = exact;
+            }
+            return body.asReadOnlyBuffer();
+        }
+    }
+}
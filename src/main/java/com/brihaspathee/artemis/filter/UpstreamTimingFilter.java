@@ -0,0 +1,46 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 22:35
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Times the wait for the upstream service: from handing the request to the routing
+ * filter until the upstream response headers have been received.
+ */
+@Component
+@RequiredArgsConstructor
+public class UpstreamTimingFilter implements GlobalFilter, Ordered {
+
+    private final GatewayMetrics gatewayMetrics;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        // Recorded before completion is propagated, i.e. before the response is committed
+        return chain.filter(exchange)
+                .doOnSuccess(ignored -> gatewayMetrics.recordUpstream(exchange, false, System.nanoTime() - start))
+                .doOnError(e -> gatewayMetrics.recordUpstream(exchange, true, System.nanoTime() - start));
+    }
+
+    /**
+     * Runs right before the routing filters, which have the lowest precedence.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE - 1;
+    }
+}
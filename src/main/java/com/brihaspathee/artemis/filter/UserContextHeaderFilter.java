@@ -0,0 +1,55 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.auth.UserContextSigner;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 17:25
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.filter
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Removes the user name and user context headers from every request entering the
+ * gateway, on every route, so that downstream services only ever see the ones set by
+ * the {@link AuthenticationFilter}.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserContextHeaderFilter implements GlobalFilter, Ordered {
+
+    private final UserContextSigner userContextSigner;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        String headerName = userContextSigner.getHeaderName();
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        if (!requestHeaders.containsKey(headerName)
+                && !requestHeaders.containsKey(AuthenticationFilter.USER_NAME_HEADER)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    headers.remove(headerName);
+                    headers.remove(AuthenticationFilter.USER_NAME_HEADER);
+                }))
+                .build());
+    }
+
+    /**
+     * Runs before any route filter.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
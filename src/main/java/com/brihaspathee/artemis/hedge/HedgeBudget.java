@@ -0,0 +1,68 @@
+package com.brihaspathee.artemis.hedge;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 15:45
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.hedge
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Bounds the extra load caused by hedged requests. Every request that may be hedged
+ * deposits a fraction of a token, every hedged request withdraws a whole one, and the
+ * balance is capped so that hedges can only burst briefly. When an upstream slows
+ * down across the board, hedging then tails off instead of multiplying the load on it.
+ */
+public class HedgeBudget {
+
+    /**
+     * A token in the units of the balance, which is kept in thousandths of a token.
+     */
+    private static final long TOKEN = 1000;
+
+    private final long deposit;
+
+    private final long maximum;
+
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio the hedged requests allowed per request (0.05 for 5%)
+     * @param maximumTokens the hedged requests that can be sent in a burst
+     */
+    public HedgeBudget(double ratio, int maximumTokens) {
+        this.deposit = Math.round(ratio * TOKEN);
+        this.maximum = maximumTokens * TOKEN;
+        this.balance = new AtomicLong(maximum);
+    }
+
+    /**
+     * Credits the budget for a request that may be hedged.
+     */
+    public void deposit() {
+        while (true) {
+            long current = balance.get();
+            if (current >= maximum || balance.compareAndSet(current, Math.min(maximum, current + deposit))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return whether a hedged request may be sent; if so, it has been paid for
+     */
+    public boolean tryWithdraw() {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.brihaspathee.artemis.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 15:40
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.hedge
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The most recent response times of a route and one percentile of them. The samples
+ * are kept in a ring; the percentile is recomputed from a sorted copy of the ring by
+ * the thread recording every tenth of the window, so reading it costs a volatile read.
+ */
+public class LatencyWindow {
+
+    private final double percentile;
+
+    private final int minimumSamples;
+
+    private final int recomputeInterval;
+
+    private final AtomicLongArray samples;
+
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * The percentile in nanoseconds, or -1 until there are enough samples.
+     */
+    private volatile long value = -1;
+
+    /**
+     * @param percentile the percentile to compute (0-1)
+     * @param windowSize the number of most recent samples kept
+     * @param minimumSamples the number of samples needed before the percentile is computed
+     */
+    public LatencyWindow(double percentile, int windowSize, int minimumSamples) {
+        this.percentile = percentile;
+        this.samples = new AtomicLongArray(windowSize);
+        this.minimumSamples = Math.max(1, Math.min(minimumSamples, windowSize));
+        this.recomputeInterval = Math.max(1, windowSize / 10);
+    }
+
+    /**
+     * @return the percentile this window computes
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Adds a response time to the window.
+     *
+     * @param nanos the response time
+     */
+    public void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        n++;
+        if (n == minimumSamples || (n > minimumSamples && n % recomputeInterval == 0)) {
+            value = compute((int) Math.min(n, samples.length()));
+        }
+    }
+
+    /**
+     * @return the percentile of the response times in the window in nanoseconds, or -1
+     *         if there are not enough samples yet
+     */
+    public long percentileNanos() {
+        return value;
+    }
+
+    private long compute(int filled) {
+        long[] sorted = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * filled) - 1;
+        return sorted[Math.max(0, Math.min(filled - 1, index))];
+    }
+}
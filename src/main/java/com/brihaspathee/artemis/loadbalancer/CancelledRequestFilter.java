@@ -0,0 +1,47 @@
+package com.brihaspathee.artemis.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 15:50
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Ends the request on the chosen instance when a load balanced request is cancelled,
+ * by the client going away or by losing to a hedged request. The load balancer filter
+ * does not complete its lifecycle on cancellation, which would leave the request in
+ * flight in the {@link InstanceStats} of the instance for good.
+ */
+@Component
+@RequiredArgsConstructor
+public class CancelledRequestFilter implements GlobalFilter, Ordered {
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chain.filter(exchange).doOnCancel(() -> instanceStatsRegistry.requestCancelled(
+                exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR)));
+    }
+
+    /**
+     * Runs right after the load balancer filter has chosen the instance.
+     */
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
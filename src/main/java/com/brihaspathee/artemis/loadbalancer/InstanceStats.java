@@ -0,0 +1,146 @@
+package com.brihaspathee.artemis.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 14:10
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The response times, requests in flight and ejection state of one service instance.
+ */
+public class InstanceStats {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Whether a request has been chosen to probe the instance and has not ended yet.
+     */
+    private final AtomicBoolean probeClaimed = new AtomicBoolean();
+
+    /**
+     * The moving average of the response time in nanoseconds, zero until the first
+     * response. Guarded by {@code this}, volatile for the balancer.
+     */
+    private volatile double latency;
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private int samples;
+
+    /**
+     * Guarded by {@code this}.
+     */
+    private int consecutiveFailures;
+
+    /**
+     * When the ejection ends in System.nanoTime() terms; zero if not ejected.
+     */
+    private volatile long ejectedUntil;
+
+    /**
+     * How many times in a row the instance has been ejected. Guarded by {@code this}.
+     */
+    private int ejections;
+
+    /**
+     * @return the cost of sending the instance another request: its average response
+     *         time times the requests it would then have in flight
+     */
+    public double cost() {
+        return latency * (inFlight.get() + 1);
+    }
+
+    /**
+     * @return whether the instance is ejected or on probation after an ejection
+     */
+    public boolean isEjected() {
+        return ejectedUntil != 0;
+    }
+
+    /**
+     * Claims the single probe of an instance whose ejection is over. Of the requests
+     * choosing the instance at the same time, only one gets the claim, which it holds
+     * until it ends.
+     *
+     * @param now the current time in System.nanoTime() terms
+     * @return whether the caller may send the probe
+     */
+    public boolean claimProbe(long now) {
+        long until = ejectedUntil;
+        return until != 0 && now - until >= 0 && probeClaimed.compareAndSet(false, true);
+    }
+
+    public double getLatency() {
+        return latency;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void requestEnded() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Lets the next request probe the instance, once the probe has ended in any way.
+     */
+    void probeEnded() {
+        probeClaimed.set(false);
+    }
+
+    /**
+     * Adds a response time to the average. The first response after an ejection
+     * replaces the average, which is out of date by then.
+     *
+     * @return the number of responses averaged
+     */
+    synchronized int recordSuccess(long latencyNanos, double weight) {
+        consecutiveFailures = 0;
+        if (samples == 0 || ejectedUntil != 0) {
+            latency = latencyNanos;
+            samples = 1;
+        } else {
+            latency += (latencyNanos - latency) * weight;
+            samples++;
+        }
+        return samples;
+    }
+
+    /**
+     * @return the number of failures in a row
+     */
+    synchronized int recordFailure() {
+        return ++consecutiveFailures;
+    }
+
+    /**
+     * Ejects the instance, for twice as long as the last time if it is ejected again
+     * right after being probed.
+     */
+    synchronized void eject(long now, long baseNanos, long maximumNanos) {
+        long duration = Math.min(maximumNanos, baseNanos << Math.min(ejections, 20));
+        ejections++;
+        consecutiveFailures = 0;
+        ejectedUntil = now + Math.max(1, duration);
+    }
+
+    /**
+     * Puts the instance back in rotation after a successful probe.
+     */
+    synchronized void reinstate() {
+        ejectedUntil = 0;
+        ejections = 0;
+    }
+}
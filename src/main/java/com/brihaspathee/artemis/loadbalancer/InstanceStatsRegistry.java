@@ -0,0 +1,246 @@
+package com.brihaspathee.artemis.loadbalancer;
+
+import com.brihaspathee.artemis.config.LoadBalancerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 14:20
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Keeps the {@link InstanceStats} of the instances of every load balanced service, fed
+ * by the load balancer lifecycle of the gateway's ReactiveLoadBalancerClientFilter: the
+ * response time is measured from the choice of the instance until the response headers
+ * are received. Ejects instances that respond far slower than the other instances of
+ * their service, or that keep failing, as long as enough instances remain.
+ */
+@Slf4j
+@Component
+public class InstanceStatsRegistry implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final LoadBalancerConfig config;
+
+    private final LongSupplier nanoTime;
+
+    /**
+     * The stats keyed on service id and then instance.
+     */
+    private final ConcurrentMap<String, ConcurrentMap<String, InstanceStats>> services = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InstanceStatsRegistry(LoadBalancerConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    InstanceStatsRegistry(LoadBalancerConfig config, LongSupplier nanoTime) {
+        this.config = config;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * @return the current time in System.nanoTime() terms
+     */
+    long now() {
+        return nanoTime.getAsLong();
+    }
+
+    /**
+     * @param instance a service instance
+     * @return the stats of the instance, created if it has none yet
+     */
+    public InstanceStats stats(ServiceInstance instance) {
+        return instances(instance.getServiceId())
+                .computeIfAbsent(key(instance), ignored -> new InstanceStats());
+    }
+
+    /**
+     * Drops the stats of the instances of a service that are no longer registered.
+     *
+     * @param serviceId the id of the service
+     * @param current the instances currently registered
+     */
+    void retain(String serviceId, Collection<ServiceInstance> current) {
+        Set<String> keys = new HashSet<>();
+        current.forEach(instance -> keys.add(key(instance)));
+        instances(serviceId).keySet().retainAll(keys);
+    }
+
+    /**
+     * @return the number of instances of the service that have stats
+     */
+    int size(String serviceId) {
+        return instances(serviceId).size();
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext context) {
+            context.setRequestStartTime(now());
+        }
+        stats(lbResponse.getServer()).requestStarted();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        ServiceInstance instance = lbResponse.getServer();
+        InstanceStats stats = stats(instance);
+        stats.requestEnded();
+        boolean probe = lbResponse instanceof LatencyAwareLoadBalancer.ProbeResponse;
+        switch (completionContext.status()) {
+            case DISCARD -> {
+            }
+            case FAILED -> recordFailure(instance, probe);
+            case SUCCESS -> {
+                if (completionContext.getClientResponse() instanceof ResponseData response
+                        && response.getHttpStatus() != null && response.getHttpStatus().is5xxServerError()) {
+                    recordFailure(instance, probe);
+                } else if (completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext context
+                        && context.getRequestStartTime() != 0) {
+                    recordSuccess(instance, now() - context.getRequestStartTime(), probe);
+                }
+            }
+        }
+        if (probe) {
+            stats.probeEnded();
+        }
+    }
+
+    /**
+     * Ends a request that was cancelled before it completed, for which the load balancer
+     * filter never completes the lifecycle. A cancelled probe tells nothing about the
+     * instance, so the next request probes it again.
+     *
+     * @param lbResponse the instance chosen for the request
+     */
+    public void requestCancelled(Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats stats = stats(lbResponse.getServer());
+        stats.requestEnded();
+        if (lbResponse instanceof LatencyAwareLoadBalancer.ProbeResponse) {
+            stats.probeEnded();
+        }
+    }
+
+    /**
+     * Records a response of an instance, ejecting the instance if it is far slower than
+     * the others, or reinstating it if it was being probed and no longer is.
+     *
+     * @param instance the instance that responded
+     * @param latencyNanos the response time
+     * @param probe whether the request was the probe of an ejected instance
+     */
+    void recordSuccess(ServiceInstance instance, long latencyNanos, boolean probe) {
+        InstanceStats stats = stats(instance);
+        if (stats.isEjected() && !probe) {
+            // The response to a request sent before the instance was ejected
+            return;
+        }
+        int samples = stats.recordSuccess(latencyNanos, config.getLatencyWeight());
+        boolean slow = isSlow(instance.getServiceId(), stats);
+        if (probe) {
+            if (slow) {
+                eject(instance, stats, "still slow");
+            } else {
+                log.info("Reinstating instance {} of {}", key(instance), instance.getServiceId());
+                stats.reinstate();
+            }
+        } else if (slow && samples >= config.getEjection().getMinimumSamples() && canEject(instance.getServiceId())) {
+            eject(instance, stats, "slow");
+        }
+    }
+
+    /**
+     * Records a failed request to an instance, ejecting the instance after too many
+     * failures in a row, or right away if it was being probed.
+     *
+     * @param instance the instance that failed
+     * @param probe whether the request was the probe of an ejected instance
+     */
+    void recordFailure(ServiceInstance instance, boolean probe) {
+        InstanceStats stats = stats(instance);
+        if (stats.isEjected()) {
+            if (probe) {
+                eject(instance, stats, "probe failed");
+            }
+            return;
+        }
+        int failures = stats.recordFailure();
+        if (failures >= config.getEjection().getConsecutiveFailures() && canEject(instance.getServiceId())) {
+            eject(instance, stats, failures + " failures in a row");
+        }
+    }
+
+    private void eject(ServiceInstance instance, InstanceStats stats, String reason) {
+        LoadBalancerConfig.Ejection ejection = config.getEjection();
+        log.warn("Ejecting instance {} of {}: {}", key(instance), instance.getServiceId(), reason);
+        stats.eject(now(), ejection.getBaseEjectionTime().toNanos(), ejection.getMaximumEjectionTime().toNanos());
+    }
+
+    /**
+     * @return whether the average response time of the instance is far above the median
+     *         of the other instances in rotation
+     */
+    private boolean isSlow(String serviceId, InstanceStats stats) {
+        double[] others = instances(serviceId).values().stream()
+                .filter(other -> other != stats && !other.isEjected() && other.getLatency() > 0)
+                .mapToDouble(InstanceStats::getLatency)
+                .sorted()
+                .toArray();
+        if (others.length == 0) {
+            return false;
+        }
+        double median = others[others.length / 2];
+        return stats.getLatency() > median * config.getEjection().getLatencyFactor();
+    }
+
+    /**
+     * @return whether another instance of the service may be ejected
+     */
+    private boolean canEject(String serviceId) {
+        Collection<InstanceStats> all = instances(serviceId).values();
+        long ejected = all.stream().filter(InstanceStats::isEjected).count();
+        return ejected < all.size() * config.getEjection().getMaximumEjectedPercent() / 100;
+    }
+
+    private ConcurrentMap<String, InstanceStats> instances(String serviceId) {
+        return services.computeIfAbsent(serviceId.toLowerCase(Locale.ROOT), ignored -> new ConcurrentHashMap<>());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getHost() + ":" + instance.getPort();
+    }
+}
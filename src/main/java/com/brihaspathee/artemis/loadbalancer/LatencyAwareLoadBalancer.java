@@ -0,0 +1,146 @@
+package com.brihaspathee.artemis.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 14:40
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Chooses the instance of a service a request is sent to by the power of two choices:
+ * of two instances picked at random, the one with the lower cost, i.e. moving average
+ * response time times requests in flight, is chosen. This avoids slow and busy instances
+ * without herding all requests onto the single fastest one. Ejected instances are left
+ * out; once their ejection is over, a single request is sent to probe them. If every
+ * instance is ejected, all of them are used. A request carrying an instance in the
+ * {@link #EXCLUDED_INSTANCE_ATTR} attribute, such as a hedged request, is sent to
+ * another instance if there is one.
+ */
+@Slf4j
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    /**
+     * Exchange attribute holding an instance the request should not be sent to.
+     */
+    public static final String EXCLUDED_INSTANCE_ATTR = LatencyAwareLoadBalancer.class.getName() + ".excludedInstance";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final String serviceId;
+
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    /**
+     * @param serviceInstanceListSupplierProvider provides the instances of the service
+     * @param serviceId the id of the service
+     * @param instanceStatsRegistry the response times and ejection state of the instances
+     */
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId,
+                                    InstanceStatsRegistry instanceStatsRegistry) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = choose(instances, excludedInstance(request));
+            if (supplier instanceof SelectedInstanceCallback callback && response.hasServer()) {
+                callback.selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Chooses one of the instances of the service.
+     *
+     * @param instances the instances currently registered
+     * @param excluded an instance to avoid, or null
+     * @return the chosen instance, or an empty response if there are none
+     */
+    Response<ServiceInstance> choose(List<ServiceInstance> instances, ServiceInstance excluded) {
+        if (instances.isEmpty()) {
+            log.warn("No instances available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+        if (instanceStatsRegistry.size(serviceId) > instances.size()) {
+            instanceStatsRegistry.retain(serviceId, instances);
+        }
+        if (excluded != null && instances.size() > 1) {
+            instances = instances.stream()
+                    .filter(instance -> !instance.getHost().equals(excluded.getHost()) || instance.getPort() != excluded.getPort())
+                    .toList();
+        }
+        long now = instanceStatsRegistry.now();
+        List<ServiceInstance> available = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            InstanceStats stats = instanceStatsRegistry.stats(instance);
+            if (!stats.isEjected()) {
+                available.add(instance);
+            } else if (stats.claimProbe(now)) {
+                // The ejection is over: probe the instance, with this request only
+                return new ProbeResponse(instance);
+            }
+        }
+        if (available.isEmpty()) {
+            available = instances;
+        }
+        if (available.size() == 1) {
+            return new DefaultResponse(available.getFirst());
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(available.size());
+        int second = random.nextInt(available.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = available.get(first);
+        ServiceInstance b = available.get(second);
+        return new DefaultResponse(instanceStatsRegistry.stats(a).cost() <= instanceStatsRegistry.stats(b).cost() ? a : b);
+    }
+
+    private static ServiceInstance excludedInstance(Request request) {
+        if (request.getContext() instanceof RequestDataContext context
+                && context.getClientRequest() != null && context.getClientRequest().getAttributes() != null
+                && context.getClientRequest().getAttributes().get(EXCLUDED_INSTANCE_ATTR) instanceof ServiceInstance instance) {
+            return instance;
+        }
+        return null;
+    }
+
+    /**
+     * The choice of an ejected instance to probe it. The probe claimed in
+     * {@link InstanceStats#claimProbe} is released when the request ends.
+     */
+    static final class ProbeResponse extends DefaultResponse {
+
+        ProbeResponse(ServiceInstance serviceInstance) {
+            super(serviceInstance);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.brihaspathee.artemis.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 14:50
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The load balancer configuration of every service, registered through
+ * {@link LoadBalancerClientsConfig}. It is deliberately not a {@code @Configuration}
+ * so that it is only loaded into the load balancer context of each service.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         InstanceStatsRegistry instanceStatsRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        ObjectProvider<ServiceInstanceListSupplier> supplierProvider =
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class);
+        return new LatencyAwareLoadBalancer(supplierProvider, serviceId, instanceStatsRegistry);
+    }
+}
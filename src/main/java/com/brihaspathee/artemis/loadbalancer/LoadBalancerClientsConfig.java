@@ -0,0 +1,23 @@
+package com.brihaspathee.artemis.loadbalancer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 18, October 2026
+ * Time: 14:55
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.loadbalancer
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Replaces the round robin load balancer of lb:// route URIs with the
+ * {@link LatencyAwareLoadBalancer}, unless application.load-balancer.latency-aware is false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "application.load-balancer", name = "latency-aware", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerClientsConfig {
+}
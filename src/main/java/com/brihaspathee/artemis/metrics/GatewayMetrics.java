@@ -0,0 +1,324 @@
+package com.brihaspathee.artemis.metrics;
+
+import com.brihaspathee.artemis.concurrency.AdaptiveConcurrencyLimiter;
+import com.brihaspathee.artemis.concurrency.Priority;
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 22:15
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.metrics
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The timers of the gateway's own stages. All of them publish percentiles computed
+ * over HdrHistogram based sliding windows, and optionally histogram buckets. Tags are
+ * limited to the route id and small, fixed sets of values so that the number of time
+ * series stays bounded by the number of routes:
+ * <ul>
+ *     <li>{@code artemis.gateway.requests} - whole request, by route and status series (or error)</li>
+ *     <li>{@code artemis.gateway.auth} - authentication, by route, outcome and decision source</li>
+ *     <li>{@code artemis.gateway.upstream} - wait for the upstream response, by route and status series (or error)</li>
+ *     <li>{@code artemis.auth.service.calls} - calls to the auth service, by call type and outcome</li>
+ *     <li>{@code artemis.gateway.rate.limited} - requests rejected by the rate limit of a route (a counter)</li>
+ *     <li>{@code artemis.gateway.concurrency.limit} and {@code artemis.gateway.concurrency.in.flight} -
+ *     the adaptive concurrency limit of an upstream service and its use (gauges)</li>
+ *     <li>{@code artemis.gateway.shed} - requests shed by the concurrency limit, by upstream and priority (a counter)</li>
+ *     <li>{@code artemis.gateway.response.cache} - requests on routes with caching, by route and result:
+ *     hit, miss or revalidated (a counter)</li>
+ *     <li>{@code artemis.gateway.hedge} - hedged requests, by route and result: sent, won (answered
+ *     first) or throttled (not sent for lack of budget) (a counter)</li>
+ *     <li>{@code artemis.gateway.aggregate.legs} - legs of composite routes, by route, leg and outcome</li>
+ *     <li>{@code artemis.gateway.compression.saved} and {@code artemis.gateway.compression.time} - bytes
+ *     saved and wall-clock time spent compressing per compressed response, by route and encoding (a summary and a timer)</li>
+ * </ul>
+ */
+@Component
+public class GatewayMetrics {
+
+    /**
+     * Exchange attribute holding the nanoseconds spent on authentication.
+     */
+    public static final String AUTH_DURATION_ATTR = GatewayMetrics.class.getName() + ".authDuration";
+
+    /**
+     * Exchange attribute holding the nanoseconds spent waiting for the upstream service.
+     */
+    public static final String UPSTREAM_DURATION_ATTR = GatewayMetrics.class.getName() + ".upstreamDuration";
+
+    /*
+        Result tag values of the response cache counter
+     */
+    public static final String CACHE_HIT = "hit";
+    public static final String CACHE_MISS = "miss";
+    public static final String CACHE_REVALIDATED = "revalidated";
+
+    /*
+        Result tag values of the hedge counter
+     */
+    public static final String HEDGE_SENT = "sent";
+    public static final String HEDGE_WON = "won";
+    public static final String HEDGE_THROTTLED = "throttled";
+
+    /*
+        Outcome tag values of the aggregate leg timer
+     */
+    public static final String LEG_SUCCEEDED = "succeeded";
+    public static final String LEG_TIMED_OUT = "timed-out";
+    public static final String LEG_FAILED = "failed";
+
+    /**
+     * The route tag value of requests that did not match a route.
+     */
+    private static final String NO_ROUTE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final GatewayMetricsConfig config;
+
+    /**
+     * The timers created so far. Looking a timer up here avoids building a meter id on
+     * every request.
+     */
+    private final ConcurrentMap<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * The counters of rate limited requests keyed on route id.
+     */
+    private final ConcurrentMap<String, Counter> rateLimited = new ConcurrentHashMap<>();
+
+    /**
+     * The counters of shed requests, response cache results and hedges, keyed on name and tag values.
+     */
+    private final ConcurrentMap<CounterKey, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * The summaries of bytes saved by compression, keyed on name and tag values.
+     */
+    private final ConcurrentMap<CounterKey, DistributionSummary> summaries = new ConcurrentHashMap<>();
+
+    public GatewayMetrics(MeterRegistry meterRegistry, GatewayMetricsConfig config) {
+        this.meterRegistry = meterRegistry;
+        this.config = config;
+    }
+
+    /**
+     * Records the time spent authenticating a request.
+     *
+     * @param exchange the authenticated exchange
+     * @param outcome granted, forbidden, unauthorized or unavailable
+     * @param source where the decision came from: cache, local or auth-service
+     * @param nanos the time spent
+     */
+    public void recordAuth(ServerWebExchange exchange, String outcome, String source, long nanos) {
+        exchange.getAttributes().put(AUTH_DURATION_ATTR, nanos);
+        timer("artemis.gateway.auth", "route", routeId(exchange), "outcome", outcome, "source", source)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time spent waiting for the upstream service to respond.
+     *
+     * @param exchange the routed exchange
+     * @param failed whether the upstream call failed rather than produced a response
+     * @param nanos the time spent
+     */
+    public void recordUpstream(ServerWebExchange exchange, boolean failed, long nanos) {
+        exchange.getAttributes().put(UPSTREAM_DURATION_ATTR, nanos);
+        timer("artemis.gateway.upstream", "route", routeId(exchange), "outcome", outcome(exchange, failed), null, null)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the time the gateway spent on a whole request.
+     *
+     * @param exchange the completed exchange
+     * @param failed whether the request ended with an error rather than a response
+     * @param nanos the time spent
+     */
+    public void recordRequest(ServerWebExchange exchange, boolean failed, long nanos) {
+        timer("artemis.gateway.requests", "route", routeId(exchange), "outcome", outcome(exchange, failed), null, null)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a call to the auth service.
+     *
+     * @param type single or batch
+     * @param outcome granted, forbidden, unauthorized or error
+     * @param nanos the time the call took
+     */
+    public void recordAuthServiceCall(String type, String outcome, long nanos) {
+        timer("artemis.auth.service.calls", "type", type, "outcome", outcome, null, null)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a request rejected by the rate limit of its route.
+     *
+     * @param exchange the rejected exchange
+     */
+    public void recordRateLimited(ServerWebExchange exchange) {
+        rateLimited.computeIfAbsent(routeId(exchange), route -> Counter.builder("artemis.gateway.rate.limited")
+                        .tag("route", route)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Publishes the limit and in-flight count of the concurrency limiter of an upstream service.
+     *
+     * @param upstream the URI of the upstream service
+     * @param limiter the limiter of the upstream service
+     */
+    public void registerConcurrencyLimiter(String upstream, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("artemis.gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("artemis.gateway.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a request shed by the concurrency limit of its upstream service.
+     *
+     * @param upstream the URI of the upstream service
+     * @param priority the priority of the request
+     */
+    public void recordShed(String upstream, Priority priority) {
+        counter("artemis.gateway.shed", "upstream", upstream, "priority", priority.name().toLowerCase())
+                .increment();
+    }
+
+    /**
+     * Counts a request on a route with response caching.
+     *
+     * @param exchange the exchange
+     * @param result hit, miss or revalidated
+     */
+    public void recordResponseCache(ServerWebExchange exchange, String result) {
+        counter("artemis.gateway.response.cache", "route", routeId(exchange), "result", result).increment();
+    }
+
+    /**
+     * Counts a hedged request.
+     *
+     * @param exchange the exchange
+     * @param result sent, won or throttled
+     */
+    public void recordHedge(ServerWebExchange exchange, String result) {
+        counter("artemis.gateway.hedge", "route", routeId(exchange), "result", result).increment();
+    }
+
+    /**
+     * Records the time a leg of a composite route took.
+     *
+     * @param exchange the exchange of the composite route
+     * @param leg the name of the leg
+     * @param outcome succeeded, timed-out or failed
+     * @param nanos the time spent
+     */
+    public void recordAggregateLeg(ServerWebExchange exchange, String leg, String outcome, long nanos) {
+        timer("artemis.gateway.aggregate.legs", "route", routeId(exchange), "leg", leg, "outcome", outcome)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records a compressed response.
+     *
+     * @param exchange the exchange
+     * @param encoding the content encoding the response was compressed with
+     * @param inputBytes the size of the response before compression
+     * @param outputBytes the size of the response after compression
+     * @param compressionNanos the wall-clock time spent compressing
+     */
+    public void recordCompression(ServerWebExchange exchange, String encoding, long inputBytes, long outputBytes,
+                                  long compressionNanos) {
+        String route = routeId(exchange);
+        summaries.computeIfAbsent(new CounterKey("artemis.gateway.compression.saved", route, encoding),
+                        key -> DistributionSummary.builder(key.name())
+                                .baseUnit("bytes")
+                                .tag("route", route)
+                                .tag("encoding", encoding)
+                                .register(meterRegistry))
+                .record(Math.max(0, inputBytes - outputBytes));
+        timer("artemis.gateway.compression.time", "route", route, "encoding", encoding, null, null)
+                .record(compressionNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Counter counter(String name, String tag1, String value1, String tag2, String value2) {
+        return counters.computeIfAbsent(new CounterKey(name, value1, value2), key -> Counter.builder(name)
+                .tag(tag1, value1)
+                .tag(tag2, value2)
+                .register(meterRegistry));
+    }
+
+    private Timer timer(String name, String tag1, String value1, String tag2, String value2, String tag3, String value3) {
+        return timers.computeIfAbsent(new TimerKey(name, value1, value2, value3), key -> {
+            Timer.Builder builder = Timer.builder(name)
+                    .tag(tag1, value1)
+                    .tag(tag2, value2)
+                    .publishPercentiles(config.getPercentiles().stream().mapToDouble(Double::doubleValue).toArray())
+                    .publishPercentileHistogram(config.isPercentileHistogram())
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(config.getMaximumExpectedValue());
+            if (tag3 != null) {
+                builder.tag(tag3, value3);
+            }
+            return builder.register(meterRegistry);
+        });
+    }
+
+    private static String routeId(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        return route != null ? route.getId() : NO_ROUTE;
+    }
+
+    /**
+     * The series of the response status (2xx, 4xx, ...), or "error" if there is no response.
+     */
+    private static String outcome(ServerWebExchange exchange, boolean failed) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (failed || status == null) {
+            return "error";
+        }
+        return switch (status.value() / 100) {
+            case 1 -> "1xx";
+            case 2 -> "2xx";
+            case 3 -> "3xx";
+            case 4 -> "4xx";
+            default -> "5xx";
+        };
+    }
+
+    /**
+     * Identifies a counter by its name and tag values.
+     */
+    private record CounterKey(String name, String value1, String value2) {
+    }
+
+    /**
+     * Identifies a timer by its name and tag values.
+     */
+    private record TimerKey(String name, String value1, String value2, String value3) {
+    }
+}
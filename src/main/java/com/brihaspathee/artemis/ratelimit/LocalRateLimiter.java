@@ -0,0 +1,114 @@
+package com.brihaspathee.artemis.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 23:05
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.ratelimit
+ * To change this template use File | Settings | File and Code Template
+ *
+ * An in-memory token bucket per key (user), held in the gateway instance itself. Each
+ * bucket is a single {@link AtomicLong} updated with a compare-and-set, using the
+ * generic cell rate algorithm: the bucket stores the time at which it would be full
+ * again, and a request is admitted if taking one token does not push that time further
+ * than the burst capacity ahead of now. Requests for different keys never contend;
+ * requests for the same key contend on one CAS and never block.
+ * <p>
+ * A bucket that has not been touched for as long as it takes to refill completely is
+ * indistinguishable from a new one, so buckets are expired after that idle time, which
+ * keeps memory bounded by the number of recently active keys. The number of buckets is
+ * also capped; evicting an active bucket early only makes the limit more lenient.
+ */
+public class LocalRateLimiter {
+
+    /**
+     * The time it takes to refill one token, in nanoseconds.
+     */
+    private final long emissionInterval;
+
+    /**
+     * The time it takes to refill the whole bucket, in nanoseconds.
+     */
+    private final long burstWindow;
+
+    /**
+     * The source of the current time in nanoseconds.
+     */
+    private final Ticker ticker;
+
+    /**
+     * The buckets keyed on user. The value is the time at which the bucket is full again.
+     */
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * Constructs a rate limiter.
+     *
+     * @param replenishRate the number of requests per second each key is allowed on average
+     * @param burstCapacity the number of requests each key is allowed at once
+     * @param maximumKeys the maximum number of keys tracked at a time
+     */
+    public LocalRateLimiter(double replenishRate, int burstCapacity, long maximumKeys) {
+        this(replenishRate, burstCapacity, maximumKeys, Ticker.systemTicker());
+    }
+
+    LocalRateLimiter(double replenishRate, int burstCapacity, long maximumKeys, Ticker ticker) {
+        if (replenishRate <= 0 || burstCapacity < 1) {
+            throw new IllegalArgumentException("The replenish rate and burst capacity must be positive");
+        }
+        this.emissionInterval = Math.max(1, Math.round(1_000_000_000 / replenishRate));
+        this.burstWindow = emissionInterval * burstCapacity;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterAccess(Duration.ofNanos(burstWindow))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Takes one token from the bucket of the key, if there is one.
+     *
+     * @param key the key (user) the request is made by
+     * @return zero if the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = ticker.read();
+        AtomicLong bucket = buckets.get(key, ignored -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + emissionInterval;
+            long ahead = next - now;
+            if (ahead > burstWindow) {
+                return ahead - burstWindow;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return the approximate number of buckets currently held
+     */
+    public long size() {
+        return buckets.estimatedSize();
+    }
+
+    /**
+     * Removes the buckets that have been idle long enough to be full again. Done by the
+     * cache as a side effect of its use; exposed for tests.
+     */
+    void cleanUp() {
+        buckets.cleanUp();
+    }
+}
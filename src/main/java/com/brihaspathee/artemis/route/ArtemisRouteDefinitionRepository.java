@@ -2,19 +2,33 @@ package com.brihaspathee.artemis.route;
 
 import com.brihaspathee.artemis.domain.entity.Route;
 import com.brihaspathee.artemis.domain.repository.RouteRepository;
+import com.brihaspathee.artemis.domain.repository.RouteTableState;
+import com.brihaspathee.artemis.aggregate.AggregateLeg;
+import com.brihaspathee.artemis.filter.AggregationFilter;
+import com.brihaspathee.artemis.filter.CompressionFilter;
+import com.brihaspathee.artemis.filter.HedgingFilter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cloud.gateway.filter.FilterDefinition;
-import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
 import org.springframework.cloud.gateway.route.RouteDefinition;
 import org.springframework.cloud.gateway.route.RouteDefinitionRepository;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.net.URI;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Created in Intellij IDEA
@@ -30,6 +44,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ArtemisRouteDefinitionRepository implements RouteDefinitionRepository {
 
+    /**
+     * The metadata key carrying the route id on every route definition. Scoped
+     * {@code RefreshRoutesEvent}s use it to rebuild a single route.
+     */
+    public static final String ROUTE_ID_METADATA = "artemis-route-id";
+
     /**
      * A repository interface for performing CRUD operations on Route entities.
      * Used to manage and access route data in the application.
@@ -37,19 +57,188 @@ public class ArtemisRouteDefinitionRepository implements RouteDefinitionReposito
     private final RouteRepository routeRepository;
 
     /**
-     * Retrieves all enabled route definitions from the repository and converts them
-     * into a reactive Flux stream of RouteDefinition objects.
+     * Persists the last good route set so that the next start does not have to wait
+     * for the database.
+     */
+    private final RouteSnapshotStore routeSnapshotStore;
+
+    /**
+     * Parses and validates the predicates and filters of a route.
+     */
+    private final RouteDefinitionParser routeDefinitionParser;
+
+    /**
+     * A small, dedicated scheduler on which the blocking JPA queries are run, so that
+     * loading routes never ties up a reactor-netty event loop thread. It is bounded
+     * so that a slow database cannot cause an unbounded number of threads to pile up.
+     */
+    private final Scheduler routeLoadingScheduler = Schedulers.newBoundedElastic(2, 16, "route-loader");
+
+    /**
+     * The definitions of all enabled routes keyed on route id, in load order. Null until
+     * the routes have been loaded for the first time. Replaced as a whole (never mutated)
+     * so readers need no locking.
+     */
+    private volatile Map<String, RouteDefinition> routeDefinitions;
+
+    /**
+     * The version of each loaded route, used to find the routes that changed.
+     * Guarded by {@code this}.
+     */
+    private final Map<String, Long> routeVersions = new HashMap<>();
+
+    /**
+     * The fingerprint of the routes table at the time of the last load. Guarded by {@code this}.
+     */
+    private RouteTableState tableState;
+
+    /**
+     * Retrieves all enabled route definitions and returns them as a reactive Flux stream
+     * of RouteDefinition objects. Once loaded, the definitions are served from memory and
+     * only changed by {@link #reconcile()}; the first load queries the database on the
+     * route loading scheduler rather than on the subscribing thread.
      *
      * @return a Flux stream containing the route definitions for all enabled routes.
      */
     @Override
     public Flux<RouteDefinition> getRouteDefinitions() {
+        Map<String, RouteDefinition> definitions = routeDefinitions;
+        if (definitions != null) {
+            return Flux.fromIterable(definitions.values());
+        }
+        return Mono.fromCallable(this::loadAll)
+                .subscribeOn(routeLoadingScheduler)
+                .flatMapIterable(Map::values);
+    }
+
+    /**
+     * Serves the routes from the local snapshot, if there is a usable one, so that the
+     * gateway can route immediately after starting. The snapshot is reconciled with the
+     * database by the first (background) {@link #reconcile()}.
+     */
+    @PostConstruct
+    public synchronized void restoreSnapshot() {
+        long start = System.nanoTime();
+        routeSnapshotStore.read().ifPresent(snapshot -> {
+            Map<String, RouteDefinition> definitions = new LinkedHashMap<>();
+            for (RouteSnapshot.Entry entry : snapshot.routes()) {
+                definitions.put(entry.routeId(), entry.definition());
+                routeVersions.put(entry.routeId(), entry.version());
+            }
+            tableState = snapshot.tableState();
+            routeDefinitions = Collections.unmodifiableMap(definitions);
+            log.info("Restored {} route(s) from the local snapshot in {} ms",
+                    definitions.size(), (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    /**
+     * Brings the in-memory route definitions in line with the routes table. A cheap
+     * fingerprint query is run first; only if it changed are the route versions compared,
+     * and only the routes whose version changed are loaded and converted again.
+     * This method blocks on the database and must not be called from an event loop thread.
+     *
+     * @return the ids of the routes that were added, changed or removed
+     */
+    public synchronized Set<String> reconcile() {
+        if (routeDefinitions == null) {
+            loadAll();
+            return Set.of();
+        }
+        RouteTableState state = routeRepository.findTableState();
+        if (Objects.equals(state, tableState)) {
+            return Set.of();
+        }
+        Map<String, Long> currentVersions = new HashMap<>();
+        routeRepository.findEnabledRouteVersions()
+                .forEach(routeVersion -> currentVersions.put(routeVersion.routeId(), routeVersion.version()));
+        Set<String> changed = new LinkedHashSet<>();
+        currentVersions.forEach((routeId, version) -> {
+            if (!version.equals(routeVersions.get(routeId))) {
+                changed.add(routeId);
+            }
+        });
+        Set<String> removed = new LinkedHashSet<>(routeVersions.keySet());
+        removed.removeAll(currentVersions.keySet());
+
+        Map<String, RouteDefinition> definitions = new LinkedHashMap<>(routeDefinitions);
+        removed.forEach(routeId -> {
+            definitions.remove(routeId);
+            routeVersions.remove(routeId);
+        });
+        if (!changed.isEmpty()) {
+            for (Route route : routeRepository.findByRouteIdInAndEnabledTrue(changed)) {
+                // An invalid change keeps the last good definition of the route
+                tryConvert(route).ifPresent(definition -> definitions.put(route.getRouteId(), definition));
+                routeVersions.put(route.getRouteId(), route.getVersion());
+            }
+        }
+        tableState = state;
+        routeDefinitions = Collections.unmodifiableMap(definitions);
+        writeSnapshot();
+        changed.addAll(removed);
+        log.info("Reconciled routes, {} route(s) changed", changed.size());
+        return changed;
+    }
+
+    /**
+     * Loads and converts all enabled routes, unless another caller already has.
+     *
+     * @return the definitions of all enabled routes keyed on route id
+     */
+    private synchronized Map<String, RouteDefinition> loadAll() {
+        if (routeDefinitions != null) {
+            return routeDefinitions;
+        }
         log.info("Getting all routes...");
-        List<RouteDefinition> routeDefinitions = routeRepository.findByEnabledTrue()
-                .stream()
-                .map(this::convertToRouteDefinition)
+        long start = System.nanoTime();
+        RouteTableState state = routeRepository.findTableState();
+        Map<String, RouteDefinition> definitions = new LinkedHashMap<>();
+        for (Route route : routeRepository.findByEnabledTrue()) {
+            tryConvert(route).ifPresent(definition -> definitions.put(route.getRouteId(), definition));
+            routeVersions.put(route.getRouteId(), route.getVersion());
+        }
+        tableState = state;
+        routeDefinitions = Collections.unmodifiableMap(definitions);
+        log.info("Loaded {} route(s) from the database in {} ms",
+                definitions.size(), (System.nanoTime() - start) / 1_000_000);
+        writeSnapshot();
+        return routeDefinitions;
+    }
+
+    /**
+     * Converts a route, logging and skipping it if it is invalid so that one bad row
+     * cannot prevent all the other routes from loading.
+     *
+     * @param route the route to convert
+     * @return the route definition, or empty if the route is invalid
+     */
+    private Optional<RouteDefinition> tryConvert(Route route) {
+        try {
+            return Optional.of(convertToRouteDefinition(route));
+        } catch (IllegalArgumentException e) {
+            log.error("Skipping invalid route {}: {}", route.getRouteId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Persists the current route set as the local snapshot. Must be called while holding {@code this}.
+     */
+    private void writeSnapshot() {
+        List<RouteSnapshot.Entry> entries = routeDefinitions.values().stream()
+                .map(definition -> new RouteSnapshot.Entry(definition.getId(),
+                        routeVersions.get(definition.getId()), definition))
                 .toList();
-        return Flux.fromIterable(routeDefinitions);
+        routeSnapshotStore.write(new RouteSnapshot(tableState, entries));
+    }
+
+    /**
+     * Releases the threads of the route loading scheduler when the context is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        routeLoadingScheduler.dispose();
     }
 
     /**
@@ -83,27 +272,43 @@ public class ArtemisRouteDefinitionRepository implements RouteDefinitionReposito
      *              detail the routing configurations.
      * @return a {@link RouteDefinition} object constructed based on the attributes
      *         from the provided {@link Route} entity.
+     * @throws IllegalArgumentException if the URI, predicates or filters of the route are invalid
      */
-    private RouteDefinition convertToRouteDefinition(Route route) {
+    public RouteDefinition convertToRouteDefinition(Route route) {
         RouteDefinition routeDefinition = new RouteDefinition();
         routeDefinition.setId(route.getRouteId());
         routeDefinition.setUri(URI.create(route.getUri()));
+        routeDefinition.setOrder(route.getRouteOrder());
+        routeDefinition.getMetadata().put(ROUTE_ID_METADATA, route.getRouteId());
+        if (route.getHedgePercentile() != null) {
+            double percentile = route.getHedgePercentile();
+            if (!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("Hedge percentile must be between 0 and 1: " + percentile);
+            }
+            routeDefinition.getMetadata().put(HedgingFilter.HEDGE_PERCENTILE_METADATA, percentile);
+        }
+        if (route.getCompressionThreshold() != null) {
+            if (route.getCompressionThreshold() < 0) {
+                throw new IllegalArgumentException("Compression threshold must not be negative: "
+                        + route.getCompressionThreshold());
+            }
+            routeDefinition.getMetadata().put(CompressionFilter.COMPRESSION_THRESHOLD_METADATA,
+                    route.getCompressionThreshold());
+        }
+        if (route.getAggregateLegs() != null && !route.getAggregateLegs().isBlank()) {
+            // Parsed here only to reject an invalid row when it is loaded
+            AggregateLeg.parse(route.getAggregateLegs());
+            routeDefinition.getMetadata().put(AggregationFilter.AGGREGATE_LEGS_METADATA, route.getAggregateLegs());
+        }
 
         // Add Predicates
-        List<PredicateDefinition> predicates = new ArrayList<>();
-        predicates.add(new PredicateDefinition("Path="+route.getPredicates().trim()));
-
-        routeDefinition.setPredicates(predicates);
+        routeDefinition.setPredicates(routeDefinitionParser.parsePredicates(route.getPredicates()));
 
-        // Add filters
-        if(route.getFilters() != null) {
-            List<FilterDefinition> filters = new ArrayList<>();
-            filters.add(new FilterDefinition(route.getFilters().trim()));
-            routeDefinition.setFilters(filters);
-        }
+        // Add filters, with authentication as required by the security policy of the route
+        routeDefinition.setFilters(routeDefinitionParser.applySecurityPolicy(
+                routeDefinitionParser.parseFilters(route.getFilters()), route.getSecurityPolicy()));
 
-//        routeDefinition.setOrder((route.getIsSecured() ? -1 : 0));
-        log.info("Route Definition: " + routeDefinition);
+        log.debug("Route Definition: {}", routeDefinition);
         return routeDefinition;
     }
 }
@@ -0,0 +1,165 @@
+package com.brihaspathee.artemis.route;
+
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 18:30
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * An immutable segment trie over the Path patterns of all routes. Looking up a request
+ * path walks one node per path segment and yields the routes whose pattern could match,
+ * in route order. The trie is a pre-filter: the full route predicates still decide, so
+ * any segment it cannot index precisely ("{id:\\d+}", "acc*") is treated as a
+ * single-segment wildcard, and routes without a Path pattern are always candidates.
+ */
+public final class PathRouteTrie {
+
+    /**
+     * The routes in the order the gateway evaluates them.
+     */
+    private final List<Route> routes;
+
+    /**
+     * The positions (in {@link #routes}) of the routes that have no indexable pattern.
+     */
+    private final List<Integer> unindexed = new ArrayList<>();
+
+    private final Node root = new Node();
+
+    private PathRouteTrie(List<Route> routes) {
+        this.routes = List.copyOf(routes);
+    }
+
+    /**
+     * Builds the trie.
+     *
+     * @param routes the routes in evaluation order
+     * @param pathPatterns the Path patterns of each route keyed on route id; routes
+     *                     without an entry are treated as matching any path
+     * @return the trie
+     */
+    public static PathRouteTrie build(List<Route> routes, Map<String, List<String>> pathPatterns) {
+        PathRouteTrie trie = new PathRouteTrie(routes);
+        for (int position = 0; position < routes.size(); position++) {
+            List<String> patterns = pathPatterns.get(routes.get(position).getId());
+            if (patterns == null || patterns.isEmpty()) {
+                trie.unindexed.add(position);
+                continue;
+            }
+            for (String pattern : patterns) {
+                trie.insert(pattern, position);
+            }
+        }
+        return trie;
+    }
+
+    /**
+     * Returns the routes that may match the given path, in evaluation order.
+     *
+     * @param path the path within the application
+     * @return the candidate routes
+     */
+    public List<Route> candidates(PathContainer path) {
+        List<String> segments = new ArrayList<>();
+        for (PathContainer.Element element : path.elements()) {
+            if (element instanceof PathContainer.PathSegment segment && !segment.valueToMatch().isEmpty()) {
+                segments.add(segment.valueToMatch());
+            }
+        }
+        List<Integer> matches = new ArrayList<>(unindexed);
+        root.collect(segments, 0, matches);
+        matches.sort(null);
+        List<Route> candidates = new ArrayList<>(matches.size());
+        int previous = -1;
+        for (int position : matches) {
+            // A route with several patterns may have been collected more than once
+            if (position != previous) {
+                candidates.add(routes.get(position));
+                previous = position;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @return the number of routes indexed by this trie
+     */
+    public int size() {
+        return routes.size();
+    }
+
+    private void insert(String pattern, int position) {
+        Node node = root;
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("**") || (segment.startsWith("{*") && segment.endsWith("}"))) {
+                node.catchAll.add(position);
+                return;
+            }
+            if (isWildcard(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        node.terminal.add(position);
+    }
+
+    private static boolean isWildcard(String segment) {
+        return segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0 || segment.indexOf('{') >= 0;
+    }
+
+    /**
+     * A trie node. Each list holds route positions in ascending order.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> literals = new HashMap<>();
+
+        /**
+         * The routes whose pattern ends here.
+         */
+        private final List<Integer> terminal = new ArrayList<>();
+
+        /**
+         * The routes whose pattern continues with "**", matching any remainder.
+         */
+        private final List<Integer> catchAll = new ArrayList<>();
+
+        /**
+         * The child reached through a single-segment wildcard.
+         */
+        private Node wildcard;
+
+        private void collect(List<String> segments, int index, List<Integer> matches) {
+            matches.addAll(catchAll);
+            if (index == segments.size()) {
+                matches.addAll(terminal);
+                return;
+            }
+            Node literal = literals.get(segments.get(index));
+            if (literal != null) {
+                literal.collect(segments, index + 1, matches);
+            }
+            if (wildcard != null) {
+                wildcard.collect(segments, index + 1, matches);
+            }
+        }
+    }
+}
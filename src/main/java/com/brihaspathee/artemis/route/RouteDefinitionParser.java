@@ -0,0 +1,196 @@
+package com.brihaspathee.artemis.route;
+
+import com.brihaspathee.artemis.domain.entity.RouteSecurityPolicy;
+import com.brihaspathee.artemis.filter.AuthenticationFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
+import org.springframework.cloud.gateway.support.NameUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 19:40
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * Parses the predicates and filters columns of a route into gateway definitions. Both
+ * columns hold one definition per line in the gateway's shortcut notation, e.g.
+ * <pre>
+ * Path=/api/v1/artemis/account/**
+ * Method=GET,POST
+ * </pre>
+ * Filters are applied in the order of their lines. A predicates value that is just a
+ * path (the original single-path format) is read as a Path predicate. Every name is
+ * checked against the predicate and filter factories known to the gateway, so a
+ * mistyped row is rejected when it is loaded rather than when the gateway builds it.
+ * The authentication filter is placed by {@link #applySecurityPolicy} from the security
+ * policy of the route rather than taken verbatim from the filters column.
+ */
+@Component
+public class RouteDefinitionParser {
+
+    /**
+     * The name of the Path route predicate.
+     */
+    private static final String PATH_PREDICATE = "Path";
+
+    /**
+     * The name under which the authentication filter is referenced on a route.
+     */
+    private static final String AUTHENTICATION_FILTER = NameUtils.normalizeFilterFactoryName(AuthenticationFilter.class);
+
+    /**
+     * The names of all route predicate factories.
+     */
+    private final Set<String> predicateNames;
+
+    /**
+     * The names of all gateway filter factories.
+     */
+    private final Set<String> filterNames;
+
+    /**
+     * Constructs the parser from the factories registered with the gateway.
+     *
+     * @param predicateFactories all route predicate factories
+     * @param filterFactories all gateway filter factories
+     */
+    @Autowired
+    public RouteDefinitionParser(List<RoutePredicateFactory<?>> predicateFactories,
+                                 List<GatewayFilterFactory<?>> filterFactories) {
+        this(predicateFactories.stream().map(RoutePredicateFactory::name).collect(Collectors.toSet()),
+                filterFactories.stream().map(GatewayFilterFactory::name).collect(Collectors.toSet()));
+    }
+
+    /**
+     * Constructs the parser from the known predicate and filter names.
+     *
+     * @param predicateNames the names of the accepted predicates
+     * @param filterNames the names of the accepted filters
+     */
+    public RouteDefinitionParser(Set<String> predicateNames, Set<String> filterNames) {
+        this.predicateNames = Set.copyOf(predicateNames);
+        this.filterNames = Set.copyOf(filterNames);
+    }
+
+    /**
+     * Parses the predicates column of a route.
+     *
+     * @param text the predicates, one per line
+     * @return the predicate definitions, in order
+     * @throws IllegalArgumentException if a line cannot be parsed or names an unknown predicate
+     */
+    public List<PredicateDefinition> parsePredicates(String text) {
+        List<PredicateDefinition> predicates = new ArrayList<>();
+        for (String line : lines(text)) {
+            String definition = line.startsWith("/") ? PATH_PREDICATE + "=" + line : line;
+            PredicateDefinition predicate = parse(() -> new PredicateDefinition(definition), line);
+            if (!predicateNames.contains(predicate.getName())) {
+                throw new IllegalArgumentException("Unknown predicate '" + predicate.getName() + "'");
+            }
+            predicates.add(predicate);
+        }
+        if (predicates.isEmpty()) {
+            throw new IllegalArgumentException("A route needs at least one predicate");
+        }
+        return predicates;
+    }
+
+    /**
+     * Parses the filters column of a route.
+     *
+     * @param text the filters, one per line, in the order they are applied
+     * @return the filter definitions, in order
+     * @throws IllegalArgumentException if a line cannot be parsed or names an unknown filter
+     */
+    public List<FilterDefinition> parseFilters(String text) {
+        List<FilterDefinition> filters = new ArrayList<>();
+        for (String line : lines(text)) {
+            FilterDefinition filter = parse(() -> new FilterDefinition(line), line);
+            if (!filterNames.contains(filter.getName())) {
+                throw new IllegalArgumentException("Unknown filter '" + filter.getName() + "'");
+            }
+            filters.add(filter);
+        }
+        return filters;
+    }
+
+    /**
+     * Builds the filter chain that enforces the security policy of a route. Public routes
+     * lose any authentication filter; other routes get exactly one, in front of all other
+     * filters so that it sees the path as requested. Its local verification setting is
+     * taken from the row, except that authenticated-only routes always verify locally
+     * and never ask the auth service to check the resource.
+     *
+     * @param filters the filters parsed from the row
+     * @param policy the security policy of the route, or null to infer it from the filters
+     * @return the filters to put on the route definition
+     */
+    public List<FilterDefinition> applySecurityPolicy(List<FilterDefinition> filters, RouteSecurityPolicy policy) {
+        FilterDefinition authentication = null;
+        List<FilterDefinition> secured = new ArrayList<>(filters.size() + 1);
+        for (FilterDefinition filter : filters) {
+            if (AUTHENTICATION_FILTER.equals(filter.getName())) {
+                authentication = filter;
+            } else {
+                secured.add(filter);
+            }
+        }
+        if (policy == null) {
+            policy = authentication != null ? RouteSecurityPolicy.RESOURCE_AUTHORIZED : RouteSecurityPolicy.PUBLIC;
+        }
+        if (policy == RouteSecurityPolicy.PUBLIC) {
+            return secured;
+        }
+        boolean localVerification = policy == RouteSecurityPolicy.AUTHENTICATED
+                || (authentication != null && Boolean.parseBoolean(argument(authentication, 0, AuthenticationFilter.LOCAL_VERIFICATION)));
+        FilterDefinition filter = new FilterDefinition();
+        filter.setName(AUTHENTICATION_FILTER);
+        filter.addArg(AuthenticationFilter.LOCAL_VERIFICATION, Boolean.toString(localVerification));
+        filter.addArg(AuthenticationFilter.RESOURCE_CHECK,
+                Boolean.toString(policy == RouteSecurityPolicy.RESOURCE_AUTHORIZED));
+        secured.add(0, filter);
+        return secured;
+    }
+
+    /**
+     * Reads an argument of a filter given either by name or by position (shortcut notation).
+     */
+    private static String argument(FilterDefinition filter, int position, String name) {
+        String value = filter.getArgs().get(name);
+        if (value != null) {
+            return value;
+        }
+        return filter.getArgs().get(NameUtils.generateName(position));
+    }
+
+    private static List<String> lines(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return text.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+    }
+
+    private static <T> T parse(Supplier<T> parser, String line) {
+        try {
+            return parser.get();
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Unable to parse '" + line + "': " + e.getMessage(), e);
+        }
+    }
+}
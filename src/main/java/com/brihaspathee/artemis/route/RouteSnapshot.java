@@ -0,0 +1,35 @@
+package com.brihaspathee.artemis.route;
+
+import com.brihaspathee.artemis.domain.repository.RouteTableState;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.util.List;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 17:30
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.route
+ * To change this template use File | Settings | File and Code Template
+ *
+ * The last route set successfully loaded from the database, as persisted by the
+ * {@link RouteSnapshotStore}. It carries the versions and table fingerprint as well,
+ * so that a gateway started from a snapshot can reconcile incrementally.
+ *
+ * @param tableState the fingerprint of the routes table the snapshot was taken from
+ * @param routes the snapshot of every enabled route, in load order
+ */
+public record RouteSnapshot(RouteTableState tableState, List<Entry> routes) {
+
+    /**
+     * A single route of the snapshot.
+     *
+     * @param routeId the unique identifier of the route
+     * @param version the version of the route row
+     * @param definition the converted route definition
+     */
+    public record Entry(String routeId, long version, RouteDefinition definition) {
+    }
+}
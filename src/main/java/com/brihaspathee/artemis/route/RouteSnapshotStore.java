@@ -0,0 +1,178 @@
+package com.brihaspathee.artemis.route;
+
+import com.brihaspathee.artemis.config.RouteRefreshConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 17:35
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.route
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+public class RouteSnapshotStore {
+
+    /**
+     * Identifies a route snapshot file, followed by the format version.
+     */
+    private static final int MAGIC = 0x41525453;
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The permissions of the snapshot directory when it is created on a POSIX file system.
+     */
+    private static final Set<PosixFilePermission> DIRECTORY_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    /**
+     * The snapshot settings.
+     */
+    private final RouteRefreshConfig.Snapshot settings;
+
+    /**
+     * Constructs the snapshot store.
+     *
+     * @param routeRefreshConfig the route refresh configuration holding the snapshot settings
+     */
+    public RouteSnapshotStore(RouteRefreshConfig routeRefreshConfig) {
+        this.settings = routeRefreshConfig.getSnapshot();
+    }
+
+    /**
+     * Reads the snapshot. A missing, truncated or corrupted snapshot is ignored, and so is
+     * a snapshot that another user could have written: one not owned by the gateway's
+     * user, or writable by its group or others.
+     *
+     * @return the snapshot, or empty if there is no usable snapshot or snapshots are disabled
+     */
+    public Optional<RouteSnapshot> read() {
+        if (!settings.isEnabled()) {
+            return Optional.empty();
+        }
+        Path path = Path.of(settings.getPath());
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+            if (!isTrusted(path)) {
+                log.warn("Ignoring route snapshot {}, it is not owned by {} or writable by others",
+                        path, System.getProperty("user.name"));
+                return Optional.empty();
+            }
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.warn("Ignoring route snapshot {}, unknown format", path);
+                return Optional.empty();
+            }
+            long checksum = in.readLong();
+            byte[] payload = in.readNBytes(in.readInt());
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                log.warn("Ignoring route snapshot {}, checksum mismatch", path);
+                return Optional.empty();
+            }
+            try (InputStream json = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+                return Optional.of(objectMapper.readValue(json, RouteSnapshot.class));
+            }
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable route snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot. The file is written next to its final location and then moved
+     * over it atomically, so a crash never leaves a half-written snapshot behind. Failures
+     * are logged and otherwise ignored; the snapshot only speeds up the next start.
+     *
+     * @param snapshot the snapshot to persist
+     */
+    public void write(RouteSnapshot snapshot) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        Path path = Path.of(settings.getPath()).toAbsolutePath();
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (OutputStream json = new GZIPOutputStream(compressed)) {
+                objectMapper.writeValue(json, snapshot);
+            }
+            byte[] payload = compressed.toByteArray();
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+
+            createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(crc.getValue());
+                out.writeInt(payload.length);
+                out.write(payload);
+            }
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Wrote route snapshot with {} route(s) to {}", snapshot.routes().size(), path);
+        } catch (IOException e) {
+            log.warn("Unable to write route snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the file is owned by the gateway's user and, on a POSIX file
+     *         system, not writable by its group or others
+     */
+    private static boolean isTrusted(Path path) throws IOException {
+        if (!Files.getOwner(path).getName().equals(System.getProperty("user.name"))) {
+            return false;
+        }
+        PosixFileAttributeView posix = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+        if (posix == null) {
+            return true;
+        }
+        Set<PosixFilePermission> permissions = posix.readAttributes().permissions();
+        return !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    /**
+     * Creates the snapshot directory, accessible to the gateway's user only.
+     */
+    private static void createDirectories(Path directory) throws IOException {
+        if (Files.isDirectory(directory)) {
+            return;
+        }
+        if (directory.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(DIRECTORY_PERMISSIONS));
+        } else {
+            Files.createDirectories(directory);
+        }
+    }
+}
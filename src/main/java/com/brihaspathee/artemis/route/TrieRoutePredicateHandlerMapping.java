@@ -0,0 +1,151 @@
+package com.brihaspathee.artemis.route;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.RoutePredicateHandlerMapping;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_ROUTE_ATTR;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 18:50
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.route
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "application.routes", name = "trie-matching", havingValue = "true", matchIfMissing = true)
+public class TrieRoutePredicateHandlerMapping extends RoutePredicateHandlerMapping
+        implements ApplicationListener<RefreshRoutesResultEvent> {
+
+    /**
+     * The name of the Path route predicate.
+     */
+    private static final String PATH_PREDICATE = "Path";
+
+    /**
+     * The (cached) routes the trie is built from.
+     */
+    private final RouteLocator routeLocator;
+
+    /**
+     * Provides the Path patterns of the routes.
+     */
+    private final RouteDefinitionLocator routeDefinitionLocator;
+
+    /**
+     * The trie of the current routes. Null until the routes have been loaded once, in
+     * which case routes are looked up the default way.
+     */
+    private volatile PathRouteTrie trie;
+
+    /**
+     * Constructs the handler mapping, replacing the gateway's default one.
+     *
+     * @param webHandler the gateway's filtering web handler
+     * @param routeLocator the caching route locator
+     * @param routeDefinitionLocator the locator of all route definitions
+     * @param globalCorsProperties the global CORS configuration
+     * @param environment the environment
+     */
+    public TrieRoutePredicateHandlerMapping(FilteringWebHandler webHandler,
+                                            RouteLocator routeLocator,
+                                            RouteDefinitionLocator routeDefinitionLocator,
+                                            GlobalCorsProperties globalCorsProperties,
+                                            Environment environment) {
+        super(webHandler, routeLocator, globalCorsProperties, environment);
+        this.routeLocator = routeLocator;
+        this.routeDefinitionLocator = routeDefinitionLocator;
+    }
+
+    /**
+     * Rebuilds the trie after the gateway has refreshed its routes. This runs on the
+     * refreshing thread, never on a request, and the new trie is swapped in atomically.
+     *
+     * @param event the result of a route refresh
+     */
+    @Override
+    public void onApplicationEvent(RefreshRoutesResultEvent event) {
+        if (!event.isSuccess()) {
+            return;
+        }
+        Mono.zip(routeLocator.getRoutes().collectList(),
+                        routeDefinitionLocator.getRouteDefinitions().collectList())
+                .map(tuple -> PathRouteTrie.build(tuple.getT1(), pathPatterns(tuple.getT2())))
+                .subscribe(built -> {
+                    trie = built;
+                    log.debug("Rebuilt the route trie with {} route(s)", built.size());
+                }, e -> log.error("Unable to rebuild the route trie, keeping the previous one", e));
+    }
+
+    /**
+     * Looks up the route for the exchange by evaluating only the routes whose Path
+     * pattern can match the request path, in the same order as the default lookup. A
+     * route whose predicate fails is logged and skipped, as in the default lookup.
+     *
+     * @param exchange the current exchange
+     * @return the first matching route
+     */
+    @Override
+    protected Mono<Route> lookupRoute(ServerWebExchange exchange) {
+        PathRouteTrie current = trie;
+        if (current == null) {
+            return super.lookupRoute(exchange);
+        }
+        List<Route> candidates = current.candidates(exchange.getRequest().getPath().pathWithinApplication());
+        return Flux.fromIterable(candidates)
+                .filterWhen(route -> {
+                    exchange.getAttributes().put(GATEWAY_PREDICATE_ROUTE_ATTR, route.getId());
+                    return Mono.defer(() -> Mono.from(route.getPredicate().apply(exchange)))
+                            .onErrorResume(e -> {
+                                log.error("Error applying predicate for route: {}", route.getId(), e);
+                                return Mono.just(false);
+                            });
+                })
+                .next()
+                .map(route -> {
+                    log.debug("Route matched: {}", route.getId());
+                    validateRoute(route, exchange);
+                    return route;
+                });
+    }
+
+    /**
+     * Extracts the patterns of the first Path predicate of every route definition.
+     */
+    static Map<String, List<String>> pathPatterns(List<RouteDefinition> definitions) {
+        Map<String, List<String>> patterns = new HashMap<>();
+        for (RouteDefinition definition : definitions) {
+            definition.getPredicates().stream()
+                    .filter(predicate -> PATH_PREDICATE.equals(predicate.getName()))
+                    .findFirst()
+                    .map(PredicateDefinition::getArgs)
+                    .ifPresent(args -> patterns.put(definition.getId(), args.values().stream()
+                            .flatMap(value -> List.of(value.split(",")).stream())
+                            .map(String::trim)
+                            .toList()));
+        }
+        return patterns;
+    }
+}
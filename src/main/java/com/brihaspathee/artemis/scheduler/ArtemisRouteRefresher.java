@@ -1,5 +1,6 @@
 package com.brihaspathee.artemis.scheduler;
 
+import com.brihaspathee.artemis.route.ArtemisRouteDefinitionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
@@ -7,6 +8,9 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.Map;
+import java.util.Set;
+
 /**
  * Created in Intellij IDEA
  * User: Balaji Varadharajan
@@ -21,6 +25,12 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class ArtemisRouteRefresher {
 
+    /**
+     * Above this number of changed routes a single full refresh is cheaper than
+     * one scoped refresh per route.
+     */
+    private static final int FULL_REFRESH_THRESHOLD = 50;
+
     /**
      * The eventPublisher is an instance of ApplicationEventPublisher
      * that is used to publish application-specific events. It allows
@@ -30,15 +40,33 @@ public class ArtemisRouteRefresher {
     private final ApplicationEventPublisher eventPublisher;
 
     /**
-     * Refreshes the application routes by retrieving the latest route details from the database.
-     * This method publishes a {@link RefreshRoutesEvent} to notify other components about
-     * the refresh operation, enabling them to update their state or behavior accordingly.
-     * It uses the {@link ApplicationEventPublisher} to broadcast the event and generates
-     * an informational log message indicating the initiation of the refresh process.
+     * The repository holding the route definitions loaded from the database.
+     */
+    private final ArtemisRouteDefinitionRepository routeDefinitionRepository;
+
+    /**
+     * Refreshes the application routes that changed in the database since the last run.
+     * The route definition repository first compares a fingerprint of the routes table;
+     * when nothing changed no event is published at all. Otherwise a scoped
+     * {@link RefreshRoutesEvent} is published per changed route, so that only those routes
+     * (and their filters) are rebuilt, falling back to a full refresh when many changed.
+     * Invoked by the {@link RouteChangeListener} whenever the database reports a change,
+     * and periodically as a fallback for missed notifications.
      */
-    @Scheduled(fixedRate = 60000)
-    public void refresh() {
-        log.info("Refreshing routes from db");
-        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+    @Scheduled(fixedRateString = "${application.routes.poll-interval:PT5M}")
+    public synchronized void refresh() {
+        log.debug("Checking routes in db for changes");
+        Set<String> changedRoutes = routeDefinitionRepository.reconcile();
+        if (changedRoutes.isEmpty()) {
+            return;
+        }
+        if (changedRoutes.size() > FULL_REFRESH_THRESHOLD) {
+            log.info("Refreshing all routes, {} routes changed", changedRoutes.size());
+            eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+            return;
+        }
+        log.info("Refreshing changed routes {}", changedRoutes);
+        changedRoutes.forEach(routeId -> eventPublisher.publishEvent(new RefreshRoutesEvent(this,
+                Map.of(ArtemisRouteDefinitionRepository.ROUTE_ID_METADATA, routeId))));
     }
 }
@@ -0,0 +1,140 @@
+package com.brihaspathee.artemis.scheduler;
+
+import com.brihaspathee.artemis.config.RouteRefreshConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Created in Intellij IDEA
+ * User: Balaji Varadharajan
+ * Date: 17, October 2026
+ * Time: 16:50
+ * Project: artemis
+ * Package Name: com.brihaspathee.artemis.scheduler
+ * To change this template use File | Settings | File and Code Template
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RouteChangeListener implements SmartLifecycle {
+
+    /**
+     * The channel the routes_notify_change trigger publishes on.
+     */
+    private static final String CHANNEL = "routes_changed";
+
+    /**
+     * Used to open the dedicated listener connection. The connection is held for the
+     * lifetime of the gateway, so it is not borrowed from the connection pool.
+     */
+    private final DataSourceProperties dataSourceProperties;
+
+    /**
+     * The route refresh configuration.
+     */
+    private final RouteRefreshConfig routeRefreshConfig;
+
+    /**
+     * Refreshes the routes that changed once a notification has been received.
+     */
+    private final ArtemisRouteRefresher routeRefresher;
+
+    /**
+     * Whether the listener should keep running.
+     */
+    private volatile boolean running;
+
+    /**
+     * The thread waiting for notifications.
+     */
+    private Thread listenerThread;
+
+    /**
+     * Starts listening for route changes, unless the change feed is disabled.
+     */
+    @Override
+    public void start() {
+        if (!routeRefreshConfig.getChangeFeed().isEnabled()) {
+            log.info("Route change feed is disabled, relying on polling only");
+            return;
+        }
+        running = true;
+        listenerThread = Thread.ofPlatform()
+                .daemon()
+                .name("route-change-listener")
+                .start(this::listen);
+    }
+
+    /**
+     * Stops listening for route changes.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Holds a connection listening on the routes_changed channel and triggers a route
+     * refresh for every batch of notifications. After (re)connecting, one refresh is run
+     * to catch up on changes made while no connection was listening.
+     */
+    private void listen() {
+        RouteRefreshConfig.ChangeFeed changeFeed = routeRefreshConfig.getChangeFeed();
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for route changes on channel {}", CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                routeRefresher.refresh();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(
+                            (int) changeFeed.getPollTimeout().toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        log.info("Received {} route change notification(s)", notifications.length);
+                        routeRefresher.refresh();
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("Route change listener lost its connection: {}", e.getMessage());
+            } catch (RuntimeException e) {
+                log.error("Error while refreshing changed routes", e);
+            }
+            sleep(changeFeed.getReconnectDelay().toMillis());
+        }
+    }
+
+    private void sleep(long millis) {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+-- Keeps routes.version and routes.updated_at current for every update,
+-- including updates made with plain SQL outside of the gateway.
+CREATE OR REPLACE FUNCTION routes_track_change() RETURNS trigger AS $$
+BEGIN
+    IF NEW.version IS NOT DISTINCT FROM OLD.version THEN
+        NEW.version := OLD.version + 1;
+    END IF;
+    NEW.updated_at := now();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS routes_track_change ON routes;
+
+CREATE TRIGGER routes_track_change
+    BEFORE UPDATE ON routes
+    FOR EACH ROW EXECUTE FUNCTION routes_track_change();
+
+-- Publishes the route id of every inserted, updated or deleted row on the
+-- routes_changed channel, so gateways can refresh without polling.
+CREATE OR REPLACE FUNCTION routes_notify_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM pg_notify('routes_changed', COALESCE(NEW.route_id, OLD.route_id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS routes_notify_change ON routes;
+
+CREATE TRIGGER routes_notify_change
+    AFTER INSERT OR UPDATE OR DELETE ON routes
+    FOR EACH ROW EXECUTE FUNCTION routes_notify_change();
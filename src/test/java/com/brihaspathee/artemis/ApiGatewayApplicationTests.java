@@ -1,13 +1,20 @@
 package com.brihaspathee.artemis;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+
 @SpringBootTest
 @Testcontainers
 class ApiGatewayApplicationTests {
@@ -25,8 +32,34 @@ class ApiGatewayApplicationTests {
         registry.add("spring.datasource.password", postgres::getPassword);
     }
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RouteLocator routeLocator;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void routeChangesArePushedThroughListenNotify() {
+        // The poll interval is minutes, so the route can only show up this fast through the change feed
+        jdbcTemplate.update("insert into routes (id, route_id, uri, predicates, filters, enabled) " +
+                "values (nextval('routes_seq'), 'notify-test', 'http://localhost:9999', '/notify-test/**', " +
+                "'AuthenticationFilter', true)");
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> hasRoute("notify-test"));
+
+        jdbcTemplate.update("update routes set enabled = false where route_id = 'notify-test'");
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> !hasRoute("notify-test"));
+    }
+
+    private boolean hasRoute(String routeId) {
+        return Boolean.TRUE.equals(routeLocator.getRoutes()
+                .any(route -> route.getId().equals(routeId))
+                .block());
+    }
+
 }
@@ -0,0 +1,165 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuthorizationBatcherTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final ConcurrentLinkedQueue<Integer> batchSizes = new ConcurrentLinkedQueue<>();
+
+    private DisposableServer authService;
+
+    private AuthServiceClient authServiceClient;
+
+    private AuthServiceConfig config;
+
+    private AuthorizationBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        authService = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/api/v1/artemis/auth/secured/resource/validate/batch",
+                        (request, response) -> request.receive().aggregate().asString()
+                                .delayUntil(body -> Mono.delay(body.contains("slow-") ? Duration.ofMillis(500) : Duration.ZERO))
+                                .flatMap(body -> response.header("Content-Type", "application/json")
+                                        .sendString(Mono.just(answer(body)))
+                                        .then())))
+                .bindNow();
+        config = new AuthServiceConfig();
+        config.setHost("localhost");
+        config.setPort(String.valueOf(authService.port()));
+        config.getBatching().setEnabled(true);
+        config.getBatching().setWindow(Duration.ofMillis(20));
+        config.getBatching().setMaxSize(10);
+        authServiceClient = new AuthServiceClient(WebClient.builder(), config,
+                new ReactiveResilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(),
+                        new Resilience4JConfigurationProperties()),
+                new GatewayMetrics(new SimpleMeterRegistry(), new GatewayMetricsConfig()));
+        batcher = new AuthorizationBatcher(authServiceClient, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+        authServiceClient.shutdown();
+        authService.disposeNow();
+    }
+
+    @Test
+    void concurrentQuestionsAreSentInBatches() {
+        int callers = 50;
+        List<AuthorizationDecision> decisions = Flux.range(0, callers)
+                .flatMap(i -> batcher.authorize(new AuthorizationKey("token-" + i, "/api/v1/artemis/account/" + i)), callers)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(callers, decisions.size());
+        decisions.forEach(decision -> assertTrue(decision.isGranted()));
+        assertEquals(callers, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() <= callers / 2, "expected batching, got batches of " + batchSizes);
+        batchSizes.forEach(size -> assertTrue(size <= 10));
+    }
+
+    @Test
+    void everyCallerReceivesTheAnswerToItsOwnQuestion() {
+        Map<String, AuthorizationDecision> decisions = Flux.just("token-1", "bad-2", "token-3")
+                .flatMap(token -> batcher.authorize(new AuthorizationKey(token, "/api/v1/artemis/account"))
+                        .map(decision -> Map.entry(token, decision)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block(Duration.ofSeconds(10));
+
+        assertEquals("token-1", decisions.get("token-1").user().getUsername());
+        assertEquals(AuthorizationDecision.Outcome.UNAUTHORIZED, decisions.get("bad-2").outcome());
+        assertEquals("token-3", decisions.get("token-3").user().getUsername());
+    }
+
+    @Test
+    void questionsBeyondTheMaximumPendingFailFast() {
+        config.getBatching().setMaxSize(1);
+        config.getBatching().setMaxConcurrentBatches(1);
+        config.getBatching().setMaxPending(2);
+        AuthorizationBatcher bounded = new AuthorizationBatcher(authServiceClient, config);
+        try {
+            long started = System.nanoTime();
+            List<Boolean> rejected = Flux.range(0, 20)
+                    .flatMap(i -> bounded.authorize(new AuthorizationKey("slow-" + i, "/api/v1/artemis/account"))
+                            .map(decision -> false)
+                            .onErrorResume(AuthServiceUnavailableException.class, e -> Mono.just(
+                                    System.nanoTime() - started < Duration.ofMillis(400).toNanos()))
+                            .take(Duration.ofMillis(450)), 20)
+                    .collectList()
+                    .block(Duration.ofSeconds(10));
+
+            assertTrue(rejected.stream().filter(Boolean::booleanValue).count() > 0,
+                    "expected questions to be rejected at once, got " + rejected);
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void cancelledQuestionsAreLeftOutOfTheBatch() {
+        batcher.authorize(new AuthorizationKey("token-1", "/api/v1/artemis/account")).subscribe().dispose();
+        AuthorizationDecision decision = batcher.authorize(new AuthorizationKey("token-2", "/api/v1/artemis/account"))
+                .block(Duration.ofSeconds(10));
+
+        assertEquals("token-2", decision.user().getUsername());
+        assertEquals(List.of(1), List.copyOf(batchSizes));
+    }
+
+    @Test
+    void nothingIsBatchedWhenBatchingIsDisabled() {
+        config.getBatching().setEnabled(false);
+        AuthorizationBatcher disabled = new AuthorizationBatcher(authServiceClient, config);
+
+        assertThrows(IllegalStateException.class,
+                () -> disabled.authorize(new AuthorizationKey("token-1", "/api/v1/artemis/account")));
+        disabled.shutdown();
+    }
+
+    /**
+     * Stub of the batch validate endpoint: grants every token except "bad-*" tokens.
+     */
+    private String answer(String body) {
+        try {
+            List<Map<String, String>> keys = OBJECT_MAPPER.readValue(body, new TypeReference<>() {});
+            batchSizes.add(keys.size());
+            return keys.stream()
+                    .map(key -> key.get("token").startsWith("bad-")
+                            ? "{\"status\":401}"
+                            : "{\"status\":200,\"user\":{\"username\":\"" + key.get("token") + "\"}}")
+                    .collect(Collectors.joining(",", "{\"response\":[", "]}"));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
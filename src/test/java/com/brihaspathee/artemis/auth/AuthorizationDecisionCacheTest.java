@@ -0,0 +1,101 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import com.brihaspathee.artemis.dto.auth.UserDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AuthorizationDecisionCacheTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-17T10:00:00Z");
+
+    private static final String RESOURCE = "/api/v1/artemis/account";
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private final AuthServiceConfig config = new AuthServiceConfig();
+
+    private final AuthorizationDecision granted = AuthorizationDecision.granted(new UserDto());
+
+    @Test
+    void grantedDecisionsExpireWithTheToken() {
+        AuthorizationDecisionCache cache = cache();
+        AuthorizationKey shortLived = new AuthorizationKey(token(NOW.plusSeconds(30)), RESOURCE);
+        AuthorizationKey longLived = new AuthorizationKey(token(NOW.plusSeconds(3600)), RESOURCE);
+        cache.put(shortLived, granted);
+        cache.put(longLived, granted);
+
+        advance(Duration.ofSeconds(29));
+        assertSame(granted, cache.get(shortLived));
+        advance(Duration.ofSeconds(2));
+        assertNull(cache.get(shortLived));
+        assertSame(granted, cache.get(longLived));
+
+        advance(config.getDecisionCache().getTtl());
+        assertNull(cache.get(longLived));
+    }
+
+    @Test
+    void rejectionsExpireAfterTheNegativeTtl() {
+        AuthorizationDecisionCache cache = cache();
+        AuthorizationKey key = new AuthorizationKey(token(NOW.plusSeconds(3600)), RESOURCE);
+        cache.put(key, AuthorizationDecision.unauthorized());
+
+        advance(config.getDecisionCache().getNegativeTtl().minusMillis(1));
+        assertSame(AuthorizationDecision.unauthorized(), cache.get(key));
+        advance(Duration.ofMillis(2));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void decisionsAreKeyedOnTokenAndResource() {
+        AuthorizationDecisionCache cache = cache();
+        String token = token(NOW.plusSeconds(3600));
+        cache.put(new AuthorizationKey(token, RESOURCE), granted);
+
+        assertNotNull(cache.get(new AuthorizationKey(token, RESOURCE)));
+        assertNull(cache.get(new AuthorizationKey(token, RESOURCE + "/other")));
+        assertNull(cache.get(new AuthorizationKey(token(NOW.plusSeconds(1800)), RESOURCE)));
+    }
+
+    @Test
+    void aDisabledCacheKeepsNothing() {
+        config.getDecisionCache().setEnabled(false);
+        AuthorizationDecisionCache cache = cache();
+        AuthorizationKey key = new AuthorizationKey(token(NOW.plusSeconds(3600)), RESOURCE);
+        cache.put(key, granted);
+
+        assertNull(cache.get(key));
+    }
+
+    private AuthorizationDecisionCache cache() {
+        return new AuthorizationDecisionCache(config, new SimpleMeterRegistry(), ticker::get,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private void advance(Duration duration) {
+        ticker.addAndGet(duration.toNanos());
+    }
+
+    /**
+     * @return an unsigned JWT expiring at the given time
+     */
+    private static String token(Instant expiry) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("{\"exp\":" + expiry.getEpochSecond() + "}").getBytes(StandardCharsets.UTF_8))
+                + ".";
+    }
+}
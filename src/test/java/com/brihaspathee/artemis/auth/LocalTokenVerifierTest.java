@@ -0,0 +1,64 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.security.KeyPairGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocalTokenVerifierTest {
+
+    private static final TestTokens TOKENS = new TestTokens();
+
+    private static LocalTokenVerifier verifier;
+
+    @BeforeAll
+    static void setUp() {
+        AuthServiceConfig config = new AuthServiceConfig();
+        config.getLocalVerification().setJwks(TOKENS.jwks());
+        JwksKeyStore keyStore = new JwksKeyStore(config, new DefaultResourceLoader());
+        keyStore.start();
+        verifier = new LocalTokenVerifier(keyStore, config);
+    }
+
+    @Test
+    void validRsaTokenIsVerified() {
+        TokenVerification verification = verifier.verify(TOKENS.rsaToken("jdoe", 300));
+        assertEquals(TokenVerification.Status.VERIFIED, verification.status());
+        assertEquals("jdoe", verification.username());
+    }
+
+    @Test
+    void validEcTokenIsVerified() {
+        assertEquals(TokenVerification.Status.VERIFIED, verifier.verify(TOKENS.ecToken("jdoe", 300)).status());
+    }
+
+    @Test
+    void tamperedTokenIsRejected() {
+        String[] parts = TOKENS.rsaToken("jdoe", 300).split("\\.");
+        String forged = parts[0] + "." + TestTokens.encode(TestTokens.claims("admin", 300)) + "." + parts[2];
+        assertEquals(TokenVerification.Status.REJECTED, verifier.verify(forged).status());
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        assertEquals(TokenVerification.Status.REJECTED, verifier.verify(TOKENS.rsaToken("jdoe", -300)).status());
+    }
+
+    @Test
+    void tokenSignedByUnknownKeyIsUndecided() throws Exception {
+        KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+        rsa.initialize(2048);
+        String token = TestTokens.sign("RS256", "rsa-2", rsa.generateKeyPair().getPrivate(),
+                TestTokens.claims("jdoe", 300));
+        assertEquals(TokenVerification.Status.UNDECIDED, verifier.verify(token).status());
+    }
+
+    @Test
+    void opaqueTokenIsUndecided() {
+        assertEquals(TokenVerification.Status.UNDECIDED, verifier.verify("opaque-token").status());
+    }
+}
@@ -0,0 +1,77 @@
+package com.brihaspathee.artemis.auth;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() {
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+        Mono<String> second = singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono();
+        });
+
+        StepVerifier.create(Mono.zip(first, second))
+                .then(() -> upstream.tryEmitValue("value"))
+                .assertNext(results -> {
+                    assertEquals("value", results.getT1());
+                    assertEquals("value", results.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, calls.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    void errorIsPropagatedToEveryCallerAndNotRetained() {
+        Sinks.One<String> upstream = Sinks.one();
+        Mono<String> first = singleFlight.execute("key", upstream::asMono);
+        Mono<String> second = singleFlight.execute("key", upstream::asMono);
+
+        StepVerifier.create(Mono.zipDelayError(first.onErrorReturn("first failed"), second.onErrorReturn("second failed")))
+                .then(() -> upstream.tryEmitError(new IllegalStateException("boom")))
+                .assertNext(results -> {
+                    assertEquals("first failed", results.getT1());
+                    assertEquals("second failed", results.getT2());
+                })
+                .verifyComplete();
+        assertEquals(0, singleFlight.inFlightCount());
+
+        StepVerifier.create(singleFlight.execute("key", () -> Mono.just("recovered")))
+                .expectNext("recovered")
+                .verifyComplete();
+    }
+
+    @Test
+    void upstreamIsCancelledOnlyWhenAllCallersCancel() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> call = Mono.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = singleFlight.execute("key", () -> call).subscribe();
+        Disposable second = singleFlight.execute("key", () -> call).subscribe();
+
+        first.dispose();
+        assertEquals(1, singleFlight.inFlightCount());
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+}
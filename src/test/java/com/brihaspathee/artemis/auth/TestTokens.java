@@ -0,0 +1,88 @@
+package com.brihaspathee.artemis.auth;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Generates signing keys, the matching JWKS document and signed tokens for tests,
+ * so that local verification can be exercised without any network access.
+ */
+public final class TestTokens {
+
+    private final KeyPair rsaKeys;
+
+    private final KeyPair ecKeys;
+
+    public TestTokens() {
+        try {
+            KeyPairGenerator rsa = KeyPairGenerator.getInstance("RSA");
+            rsa.initialize(2048);
+            rsaKeys = rsa.generateKeyPair();
+            KeyPairGenerator ec = KeyPairGenerator.getInstance("EC");
+            ec.initialize(new ECGenParameterSpec("secp256r1"));
+            ecKeys = ec.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return a JWKS document with the RSA key as "rsa-1" and the EC key as "ec-1"
+     */
+    public String jwks() {
+        RSAPublicKey rsaPublic = (RSAPublicKey) rsaKeys.getPublic();
+        ECPublicKey ecPublic = (ECPublicKey) ecKeys.getPublic();
+        return "{\"keys\":["
+                + "{\"kty\":\"RSA\",\"kid\":\"rsa-1\",\"use\":\"sig\",\"n\":\"" + unsigned(rsaPublic.getModulus())
+                + "\",\"e\":\"" + unsigned(rsaPublic.getPublicExponent()) + "\"},"
+                + "{\"kty\":\"EC\",\"kid\":\"ec-1\",\"crv\":\"P-256\",\"x\":\"" + unsigned(ecPublic.getW().getAffineX())
+                + "\",\"y\":\"" + unsigned(ecPublic.getW().getAffineY()) + "\"}"
+                + "]}";
+    }
+
+    public String rsaToken(String subject, long expiresInSeconds) {
+        return sign("RS256", "rsa-1", rsaKeys.getPrivate(), claims(subject, expiresInSeconds));
+    }
+
+    public String ecToken(String subject, long expiresInSeconds) {
+        return sign("ES256", "ec-1", ecKeys.getPrivate(), claims(subject, expiresInSeconds));
+    }
+
+    public static String sign(String alg, String kid, PrivateKey key, String claims) {
+        try {
+            String signingInput = encode("{\"alg\":\"" + alg + "\",\"kid\":\"" + kid + "\"}") + "." + encode(claims);
+            Signature signature = Signature.getInstance(alg.startsWith("RS") ? "SHA256withRSA" : "SHA256withECDSAinP1363Format");
+            signature.initSign(key);
+            signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+            return signingInput + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String claims(String subject, long expiresInSeconds) {
+        return "{\"sub\":\"" + subject + "\",\"exp\":" + (Instant.now().getEpochSecond() + expiresInSeconds) + "}";
+    }
+
+    public static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String unsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,68 @@
+package com.brihaspathee.artemis.auth;
+
+import com.brihaspathee.artemis.config.UserContextConfig;
+import com.brihaspathee.artemis.dto.auth.UserDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserContextSignerTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private final UserContextConfig config = config(new byte[32]);
+
+    @Test
+    void signedContextVerifiesUntilItExpires() {
+        String header = signer(config, NOW).sign(UserDto.builder().username("jdoe").build());
+
+        assertEquals("jdoe", signer(config, NOW.plusSeconds(59)).verify(header).getUsername());
+        assertNull(signer(config, NOW.plusSeconds(61)).verify(header));
+    }
+
+    @Test
+    void tamperedOrForeignContextIsRejected() {
+        UserContextSigner signer = signer(config, NOW);
+        String header = signer.sign(UserDto.builder().username("jdoe").build());
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"user\":{\"username\":\"admin\"},\"exp\":9999999999}".getBytes())
+                + header.substring(header.indexOf('.'));
+        byte[] otherKey = new byte[32];
+        otherKey[0] = 1;
+
+        assertNull(signer.verify(forged));
+        assertNull(signer.verify("garbage"));
+        assertNull(signer(config(otherKey), NOW).verify(header));
+        assertThrows(IllegalStateException.class, () -> signer(config(new byte[16]), NOW));
+    }
+
+    @Test
+    void disabledSignerRefusesToSignOrVerify() {
+        UserContextSigner signer = signer(new UserContextConfig(), NOW);
+
+        assertFalse(signer.isEnabled());
+        assertThrows(IllegalStateException.class, () -> signer.sign(UserDto.builder().username("jdoe").build()));
+        assertThrows(IllegalStateException.class, () -> signer.verify("payload.signature"));
+    }
+
+    private static UserContextSigner signer(UserContextConfig config, Instant now) {
+        return new UserContextSigner(config, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static UserContextConfig config(byte[] key) {
+        UserContextConfig config = new UserContextConfig();
+        config.setEnabled(true);
+        config.setSecret(Base64.getEncoder().encodeToString(key));
+        config.setTimeToLive(Duration.ofSeconds(60));
+        return config;
+    }
+}
@@ -0,0 +1,76 @@
+package com.brihaspathee.artemis.concurrency;
+
+import com.brihaspathee.artemis.config.ConcurrencyLimitConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+
+    @Test
+    void requestsBeyondTheLimitAreShedLowPriorityFirst() {
+        config.setInitialLimit(10);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            permits.add(limiter.tryAcquire(Priority.LOW));
+        }
+        permits.forEach(permit -> assertNotNull(permit));
+        assertNull(limiter.tryAcquire(Priority.LOW));
+        assertNotNull(limiter.tryAcquire(Priority.HIGH));
+        assertNotNull(limiter.tryAcquire(Priority.HIGH));
+        assertNull(limiter.tryAcquire(Priority.HIGH));
+
+        permits.getFirst().onIgnore();
+        permits.getFirst().onIgnore();
+        assertEquals(9, limiter.getInFlight());
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        runAtFullLimit(limiter, 200, TimeUnit.MILLISECONDS.toNanos(10));
+        int grown = limiter.getLimit();
+        assertTrue(grown > config.getInitialLimit(), "limit " + grown);
+
+        runAtFullLimit(limiter, 3, TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(limiter.getLimit() < grown / 2, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void failuresShrinkTheLimitDownToTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire(Priority.HIGH).onDropped();
+        }
+
+        assertEquals(config.getMinLimit(), limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    /**
+     * Completes batches of requests that use the whole limit, all with the given RTT.
+     */
+    private static void runAtFullLimit(AdaptiveConcurrencyLimiter limiter, int batches, long rttNanos) {
+        for (int batch = 0; batch < batches; batch++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            AdaptiveConcurrencyLimiter.Permit permit;
+            while ((permit = limiter.tryAcquire(Priority.HIGH)) != null) {
+                permits.add(permit);
+            }
+            permits.forEach(admitted -> admitted.onSuccess(rttNanos));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.AggregationConfig;
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AggregationFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DisposableServer upstream;
+
+    @BeforeEach
+    void startUpstream() {
+        upstream = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/profile", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"user\":\"" + request.requestHeaders().get("X-USER-NAME")
+                                        + "\",\"cookie\":\"" + request.requestHeaders().get("Cookie")
+                                        + "\",\"authorization\":\"" + request.requestHeaders().get("Authorization")
+                                        + "\",\"uri\":\"" + request.uri() + "\"}")))
+                        .get("/spliced", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"a\":1},\"injected\":{\"b\":2}")))
+                        .get("/truncated", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.just("{\"a\":[1,2")))
+                        .get("/banner", (request, response) -> response
+                                .header("Content-Type", "text/plain")
+                                .sendString(Mono.just("Hello \"there\"")))
+                        .get("/orders", (request, response) -> response
+                                .sendString(Mono.delay(Duration.ofSeconds(2)).thenReturn("[]")))
+                        .get("/down", (request, response) -> response.status(503).send()))
+                .bindNow();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        upstream.disposeNow();
+    }
+
+    @Test
+    void legsAreMergedAndASlowLegIsLeftOut() throws Exception {
+        MockServerWebExchange exchange = exchange("""
+                profile=%1$s/profile
+                banner=%1$s/banner
+                orders=%1$s/orders,100ms
+                """);
+
+        filter().filter(exchange, unused -> Mono.error(new AssertionError("not routed"))).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        JsonNode body = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertEquals("alice", body.path("profile").path("user").asText());
+        assertEquals("null", body.path("profile").path("cookie").asText());
+        assertEquals("null", body.path("profile").path("authorization").asText());
+        assertEquals("/profile?locale=en", body.path("profile").path("uri").asText());
+        assertEquals("Hello \"there\"", body.path("banner").asText());
+        assertFalse(body.has("orders"));
+        assertEquals("timeout", body.path("errors").path("orders").asText());
+        assertEquals(1, meterRegistry.get("artemis.gateway.aggregate.legs")
+                .tags("leg", "orders", "outcome", "timed-out").timer().count());
+    }
+
+    @Test
+    void theResponseIsABadGatewayWhenEveryLegFails() throws Exception {
+        MockServerWebExchange exchange = exchange("down=%1$s/down");
+
+        filter().filter(exchange, unused -> Mono.error(new AssertionError("not routed"))).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.BAD_GATEWAY, exchange.getResponse().getStatusCode());
+        assertEquals("{\"errors\":{\"down\":\"status 503\"}}", exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void legsAnsweringInvalidJsonAreListedAsErrors() throws Exception {
+        MockServerWebExchange exchange = exchange("""
+                banner=%1$s/banner
+                spliced=%1$s/spliced
+                truncated=%1$s/truncated
+                """);
+
+        filter().filter(exchange, unused -> Mono.error(new AssertionError("not routed"))).block(Duration.ofSeconds(5));
+
+        JsonNode body = objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+        assertEquals(List.of("banner", "errors"), body.properties().stream().map(Map.Entry::getKey).toList());
+        assertEquals("invalid json", body.path("errors").path("spliced").asText());
+        assertEquals("invalid json", body.path("errors").path("truncated").asText());
+    }
+
+    private AggregationFilter filter() {
+        return new AggregationFilter(WebClient.builder(), (ExchangeFilterFunction) null, new AggregationConfig(),
+                new GatewayMetrics(meterRegistry, new GatewayMetricsConfig()));
+    }
+
+    private MockServerWebExchange exchange(String legs) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/mobile/home?locale=en")
+                .header("X-USER-NAME", "alice")
+                .header("Cookie", "session=42")
+                .header("Authorization", "Bearer secret"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("mobile-home")
+                .uri("no://op")
+                .predicate(unused -> true)
+                .metadata(AggregationFilter.AGGREGATE_LEGS_METADATA,
+                        legs.formatted("http://localhost:" + upstream.port()))
+                .build());
+        return exchange;
+    }
+}
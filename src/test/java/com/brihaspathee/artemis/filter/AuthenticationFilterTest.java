@@ -0,0 +1,218 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.auth.AuthServiceClient;
+import com.brihaspathee.artemis.auth.AuthorizationBatcher;
+import com.brihaspathee.artemis.auth.AuthorizationDecisionCache;
+import com.brihaspathee.artemis.auth.JwksKeyStore;
+import com.brihaspathee.artemis.auth.LocalTokenVerifier;
+import com.brihaspathee.artemis.auth.TestTokens;
+import com.brihaspathee.artemis.auth.UserContextSigner;
+import com.brihaspathee.artemis.config.AuthServiceConfig;
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.config.UserContextConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuthenticationFilterTest {
+
+    private static final String USER_RESPONSE = "{\"response\":{\"username\":\"jdoe\"}}";
+
+    private static final TestTokens TOKENS = new TestTokens();
+
+    private final AtomicInteger authServiceCalls = new AtomicInteger();
+
+    private HttpStatus authServiceStatus = HttpStatus.OK;
+
+    private String authServiceBody = USER_RESPONSE;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GatewayMetrics gatewayMetrics = new GatewayMetrics(meterRegistry, new GatewayMetricsConfig());
+
+    private AuthServiceConfig authServiceConfig;
+
+    private final UserContextConfig userContextConfig = new UserContextConfig();
+
+    @BeforeEach
+    void setUp() {
+        authServiceConfig = new AuthServiceConfig();
+        authServiceConfig.setHost("localhost");
+        authServiceConfig.setPort("6094");
+        authServiceConfig.getLocalVerification().setJwks(TOKENS.jwks());
+        userContextConfig.setEnabled(true);
+        userContextConfig.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+    }
+
+    @Test
+    void concurrentRequestsWithSameTokenCallAuthServiceOnce() {
+        int callers = 20;
+        GatewayFilter filter = newFilter().apply(new AuthenticationFilter.Config());
+        ConcurrentLinkedQueue<String> forwardedUsers = new ConcurrentLinkedQueue<>();
+        GatewayFilterChain chain = exchange -> {
+            forwardedUsers.add(exchange.getRequest().getHeaders().getFirst("X-USER-NAME"));
+            return Mono.empty();
+        };
+
+        List<MockServerWebExchange> exchanges = Flux.range(0, callers)
+                .map(i -> exchange("token-1", "/api/v1/artemis/account"))
+                .collectList()
+                .block();
+        Mono<Void> all = Flux.fromIterable(exchanges)
+                .flatMap(exchange -> filter.filter(exchange, chain), callers)
+                .then();
+
+        StepVerifier.create(all).verifyComplete();
+        assertEquals(1, authServiceCalls.get());
+        assertEquals(callers, forwardedUsers.size());
+        forwardedUsers.forEach(user -> assertEquals("jdoe", user));
+        assertEquals(callers, meterRegistry.get("artemis.gateway.auth")
+                .tags("outcome", "granted", "source", "auth-service").timer().count());
+        assertEquals(1, meterRegistry.get("artemis.auth.service.calls")
+                .tags("type", "single", "outcome", "granted").timer().count());
+    }
+
+    @Test
+    void repeatedRequestIsServedFromCache() {
+        GatewayFilter filter = newFilter().apply(new AuthenticationFilter.Config());
+        GatewayFilterChain chain = exchange -> Mono.empty();
+
+        filter.filter(exchange("token-1", "/api/v1/artemis/account"), chain).block();
+        filter.filter(exchange("token-1", "/api/v1/artemis/account"), chain).block();
+        filter.filter(exchange("token-1", "/api/v1/artemis/other"), chain).block();
+
+        assertEquals(2, authServiceCalls.get());
+    }
+
+    @Test
+    void locallyVerifiedTokenSkipsAuthServiceWhenNoResourceCheckIsRequired() {
+        AuthenticationFilter.Config config = new AuthenticationFilter.Config();
+        config.setLocalVerification(true);
+        config.setResourceCheck(false);
+        GatewayFilter filter = newFilter().apply(config);
+        ConcurrentLinkedQueue<String> forwardedUsers = new ConcurrentLinkedQueue<>();
+        UserContextSigner signer = new UserContextSigner(userContextConfig);
+        GatewayFilterChain chain = exchange -> {
+            forwardedUsers.add(exchange.getRequest().getHeaders().getFirst("X-USER-NAME"));
+            forwardedUsers.add(signer.verify(exchange.getRequest().getHeaders().getFirst("X-USER-CONTEXT")).getUsername());
+            return Mono.empty();
+        };
+
+        filter.filter(exchange(TOKENS.rsaToken("jdoe", 300), "/api/v1/artemis/account"), chain).block();
+        MockServerWebExchange expired = exchange(TOKENS.rsaToken("jdoe", -300), "/api/v1/artemis/account");
+        filter.filter(expired, chain).block();
+
+        assertEquals(0, authServiceCalls.get());
+        assertEquals(List.of("jdoe", "jdoe"), List.copyOf(forwardedUsers));
+        assertEquals(HttpStatus.UNAUTHORIZED, expired.getResponse().getStatusCode());
+    }
+
+    @Test
+    void tokenUnknownToLocalVerificationFallsBackToAuthService() {
+        AuthenticationFilter.Config config = new AuthenticationFilter.Config();
+        config.setLocalVerification(true);
+        config.setResourceCheck(false);
+        GatewayFilter filter = newFilter().apply(config);
+
+        filter.filter(exchange("opaque-token", "/api/v1/artemis/account"), exchange -> Mono.empty()).block();
+
+        assertEquals(1, authServiceCalls.get());
+    }
+
+    @Test
+    void failingAuthServiceOpensCircuitAndAnswersServiceUnavailable() {
+        authServiceConfig.getCircuitBreaker().setSlidingWindowSize(5);
+        authServiceConfig.getCircuitBreaker().setMinimumNumberOfCalls(5);
+        authServiceStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+        GatewayFilter filter = newFilter().apply(new AuthenticationFilter.Config());
+
+        for (int i = 0; i < 10; i++) {
+            MockServerWebExchange exchange = exchange("token-" + i, "/api/v1/artemis/account");
+            filter.filter(exchange, ignored -> Mono.empty()).block();
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        }
+
+        // The circuit opened after the fifth failure, the other calls never left the gateway
+        assertEquals(5, authServiceCalls.get());
+    }
+
+    @Test
+    void clientErrorsAndUnreadableAnswersDoNotOpenCircuit() {
+        authServiceConfig.getCircuitBreaker().setSlidingWindowSize(5);
+        authServiceConfig.getCircuitBreaker().setMinimumNumberOfCalls(5);
+        authServiceStatus = HttpStatus.NOT_FOUND;
+        GatewayFilter filter = newFilter().apply(new AuthenticationFilter.Config());
+
+        for (int i = 0; i < 10; i++) {
+            MockServerWebExchange exchange = exchange("token-" + i, "/api/v1/artemis/account");
+            filter.filter(exchange, ignored -> Mono.empty()).block();
+            assertEquals(HttpStatus.FORBIDDEN, exchange.getResponse().getStatusCode());
+        }
+        authServiceStatus = HttpStatus.OK;
+        authServiceBody = "{\"response\":";
+        for (int i = 10; i < 20; i++) {
+            MockServerWebExchange exchange = exchange("token-" + i, "/api/v1/artemis/account");
+            filter.filter(exchange, ignored -> Mono.empty()).block();
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        }
+
+        assertEquals(20, authServiceCalls.get());
+    }
+
+    private AuthenticationFilter newFilter() {
+        WebClient.Builder webClientBuilder = WebClient.builder()
+                .exchangeFunction(request -> {
+                    authServiceCalls.incrementAndGet();
+                    return Mono.delay(Duration.ofMillis(50))
+                            .map(tick -> ClientResponse.create(authServiceStatus)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body(authServiceBody)
+                                    .build());
+                });
+        JwksKeyStore keyStore = new JwksKeyStore(authServiceConfig, new DefaultResourceLoader());
+        keyStore.start();
+        ReactiveResilience4JCircuitBreakerFactory circuitBreakerFactory = new ReactiveResilience4JCircuitBreakerFactory(
+                CircuitBreakerRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults(), new Resilience4JConfigurationProperties());
+        AuthServiceClient authServiceClient = new AuthServiceClient(webClientBuilder, authServiceConfig, circuitBreakerFactory,
+                gatewayMetrics);
+        AuthenticationFilter filter = new AuthenticationFilter(authServiceClient,
+                new AuthorizationBatcher(authServiceClient, authServiceConfig), authServiceConfig,
+                new AuthorizationDecisionCache(authServiceConfig, new SimpleMeterRegistry()),
+                new LocalTokenVerifier(keyStore, authServiceConfig), gatewayMetrics,
+                new UserContextSigner(userContextConfig));
+        ReflectionTestUtils.setField(filter, "accountTypeHeader", "X-ACCOUNT-TYPE");
+        return filter;
+    }
+
+    private static MockServerWebExchange exchange(String token, String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+}
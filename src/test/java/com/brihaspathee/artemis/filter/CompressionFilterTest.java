@@ -0,0 +1,157 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.compression.ContentEncoding;
+import com.brihaspathee.artemis.config.CompressionConfig;
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class CompressionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final CompressionFilter filter = new CompressionFilter(new CompressionConfig(),
+            new GatewayMetrics(meterRegistry, new GatewayMetricsConfig()));
+
+    @Test
+    void aStreamedBodyAboveTheThresholdIsCompressed() throws IOException {
+        String part = "{\"account\":\"12345\",\"name\":\"Jane Doe\",\"balance\":100.25},";
+        MockServerWebExchange exchange = exchange("gzip, deflate");
+
+        filter.filter(exchange, respond(MediaType.APPLICATION_JSON, "\"etag\"", part.repeat(20), part.repeat(20))).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+        assertEquals("W/\"etag\"", headers.getETag());
+        byte[] compressed = body(exchange);
+        assertTrue(compressed.length < part.length() * 40 / 4);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(part.repeat(40).getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+        assertEquals(1, meterRegistry.get("artemis.gateway.compression.saved").tags("encoding", "gzip")
+                .summary().count());
+    }
+
+    @Test
+    void aBodyOfKnownLengthIsCompressedFromItsFirstBuffer() throws IOException {
+        String body = "{\"account\":\"12345\"},".repeat(100);
+        MockServerWebExchange exchange = exchange("gzip");
+
+        filter.filter(exchange, routed -> {
+            routed.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            routed.getResponse().getHeaders().setContentLength(body.length());
+            return routed.getResponse().writeWith(Flux.just(
+                    DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8))));
+        }).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(-1, headers.getContentLength());
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body(exchange)))) {
+            assertArrayEquals(body.getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+        assertEquals(1, meterRegistry.get("artemis.gateway.compression.time").tags("encoding", "gzip")
+                .timer().count());
+    }
+
+    @Test
+    void anEmptyFlushedBodyIsStillAValidStream() throws IOException {
+        MockServerWebExchange exchange = exchange("gzip");
+
+        filter.filter(exchange, routed -> {
+            routed.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return routed.getResponse().writeAndFlushWith(Flux.<Flux<DataBuffer>>empty());
+        }).block();
+
+        assertEquals("gzip", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body(exchange)))) {
+            assertEquals(0, in.readAllBytes().length);
+        }
+    }
+
+    @Test
+    void smallAndAlreadyCompressedBodiesAreSentAsTheyAre() {
+        MockServerWebExchange small = exchange("gzip");
+        filter.filter(small, respond(MediaType.APPLICATION_JSON, null, "{}")).block();
+        assertNull(small.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), small.getResponse().getHeaders().getVary());
+        assertEquals("{}", new String(body(small), StandardCharsets.UTF_8));
+
+        MockServerWebExchange image = exchange("gzip");
+        filter.filter(image, respond(MediaType.IMAGE_PNG, null, "x".repeat(2048))).block();
+        assertNull(image.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(2048, body(image).length);
+    }
+
+    @Test
+    void theEncodingIsNegotiatedFromAcceptEncoding() {
+        List<ContentEncoding> preferred = List.of(ContentEncoding.GZIP, ContentEncoding.DEFLATE);
+        assertEquals(ContentEncoding.GZIP, negotiate("deflate, gzip", preferred));
+        assertEquals(ContentEncoding.DEFLATE, negotiate("gzip;q=0.5, deflate", preferred));
+        assertEquals(ContentEncoding.DEFLATE, negotiate("gzip;q=0, *", preferred));
+        assertNull(negotiate("br, identity", preferred));
+    }
+
+    private static ContentEncoding negotiate(String acceptEncoding, List<ContentEncoding> preferred) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        return ContentEncoding.negotiate(headers, preferred);
+    }
+
+    private static MockServerWebExchange exchange(String acceptEncoding) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/accounts")
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("accounts")
+                .uri("http://localhost")
+                .predicate(unused -> true)
+                .metadata(CompressionFilter.COMPRESSION_THRESHOLD_METADATA, 1024)
+                .build());
+        return exchange;
+    }
+
+    /**
+     * An upstream that answers with a body of the given parts and no Content-Length.
+     */
+    private static GatewayFilterChain respond(MediaType contentType, String etag, String... parts) {
+        return exchange -> {
+            exchange.getResponse().getHeaders().setContentType(contentType);
+            if (etag != null) {
+                exchange.getResponse().getHeaders().setETag(etag);
+            }
+            return exchange.getResponse().writeWith(Flux.fromArray(parts)
+                    .map(part -> DefaultDataBufferFactory.sharedInstance.wrap(part.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        DataBuffer body = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+        byte[] bytes = new byte[body.readableByteCount()];
+        body.read(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,68 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.ConcurrencyLimitConfig;
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void requestsBeyondTheLimitOfTheUpstreamAreShed() {
+        ConcurrencyLimitConfig concurrencyLimitConfig = new ConcurrencyLimitConfig();
+        concurrencyLimitConfig.setInitialLimit(5);
+        ConcurrencyLimitFilter factory = new ConcurrencyLimitFilter(concurrencyLimitConfig,
+                new GatewayMetrics(meterRegistry, new GatewayMetricsConfig()));
+        GatewayFilter filter = factory.apply(new ConcurrencyLimitFilter.Config());
+        // Upstream responses that never arrive
+        Sinks.Empty<Void> upstream = Sinks.empty();
+
+        List<MockServerWebExchange> exchanges = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            MockServerWebExchange exchange = exchange();
+            exchange.getAttributes().put(AuthenticationFilter.AUTHENTICATED_USER_ATTR, "jdoe");
+            filter.filter(exchange, ignored -> upstream.asMono()).subscribe();
+            exchanges.add(exchange);
+        }
+
+        exchanges.subList(0, 5).forEach(exchange -> assertNull(exchange.getResponse().getStatusCode()));
+        MockServerWebExchange shed = exchanges.get(5);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("artemis.gateway.shed").tags("priority", "high").counter().count());
+        assertEquals(5, meterRegistry.get("artemis.gateway.concurrency.in.flight")
+                .tags("upstream", "lb://account-service").gauge().value());
+
+        upstream.tryEmitEmpty();
+        assertEquals(0, meterRegistry.get("artemis.gateway.concurrency.in.flight").gauge().value());
+        filter.filter(exchange(), ignored -> Mono.empty()).block();
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/artemis/account"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("account")
+                .uri("lb://account-service")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,99 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.config.HedgingConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class HedgingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final HedgingConfig config = new HedgingConfig();
+
+    @Test
+    void aSlowRequestIsHedgedAndTheFirstResponseWins() {
+        config.setMinimumSamples(1);
+        HedgingFilter filter = filter();
+        filter.filter(exchange(), respond("warm-up", Duration.ZERO)).block();
+
+        AtomicInteger attempts = new AtomicInteger();
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        MockServerWebExchange exchange = exchange();
+        filter.filter(exchange, attempt -> attempts.getAndIncrement() == 0
+                ? Mono.<Void>never().doOnCancel(() -> primaryCancelled.set(true))
+                : respond("hedge", Duration.ZERO).filter(attempt)).block(Duration.ofSeconds(5));
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertEquals("hedge", exchange.getResponse().getHeaders().getFirst("X-Instance"));
+        assertEquals("hedge", exchange.getAttribute("instance"));
+        assertTrue(primaryCancelled.get());
+        assertEquals(1, meterRegistry.get("artemis.gateway.hedge").tags("result", "sent").counter().count());
+        assertEquals(1, meterRegistry.get("artemis.gateway.hedge").tags("result", "won").counter().count());
+    }
+
+    @Test
+    void hedgesStopWhenTheBudgetIsSpent() {
+        config.setMinimumSamples(1);
+        config.setBudgetRatio(0);
+        config.setMaximumBudget(1);
+        HedgingFilter filter = filter();
+        filter.filter(exchange(), respond("warm-up", Duration.ZERO)).block();
+
+        for (int i = 0; i < 2; i++) {
+            AtomicInteger attempts = new AtomicInteger();
+            MockServerWebExchange exchange = exchange();
+            filter.filter(exchange, attempt -> attempts.getAndIncrement() == 0
+                    ? respond("primary", Duration.ofMillis(50)).filter(attempt)
+                    : Mono.never()).block(Duration.ofSeconds(5));
+            assertEquals("primary", exchange.getResponse().getHeaders().getFirst("X-Instance"));
+        }
+
+        assertEquals(1, meterRegistry.get("artemis.gateway.hedge").tags("result", "sent").counter().count());
+        assertEquals(1, meterRegistry.get("artemis.gateway.hedge").tags("result", "throttled").counter().count());
+    }
+
+    private HedgingFilter filter() {
+        return new HedgingFilter(config, new GatewayMetrics(meterRegistry, new GatewayMetricsConfig()));
+    }
+
+    /**
+     * An upstream that answers after the given delay, as the routing filter would.
+     */
+    private static GatewayFilterChain respond(String instance, Duration delay) {
+        return exchange -> Mono.delay(delay).then(Mono.fromRunnable(() -> {
+            exchange.getAttributes().put("instance", instance);
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().add("X-Instance", instance);
+        }));
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/artemis/account"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("account")
+                .uri("lb://account-service")
+                .predicate(e -> true)
+                .metadata(HedgingFilter.HEDGE_PERCENTILE_METADATA, 0.9)
+                .build());
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://account-service/api/v1/artemis/account"));
+        return exchange;
+    }
+}
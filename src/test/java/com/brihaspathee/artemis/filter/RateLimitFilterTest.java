@@ -0,0 +1,106 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.config.RateLimitConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    void requestsOverTheLimitOfTheUserAreRejected() {
+        GatewayFilter filter = newFilter(new RateLimitConfig()).apply(config(1, 2));
+
+        filter.filter(exchange("jdoe"), chain).block();
+        filter.filter(exchange("jdoe"), chain).block();
+        MockServerWebExchange limited = exchange("jdoe");
+        filter.filter(limited, chain).block();
+        filter.filter(exchange("asmith"), chain).block();
+
+        assertEquals(3, forwarded.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, limited.getResponse().getStatusCode());
+        assertEquals("1", limited.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, meterRegistry.get("artemis.gateway.rate.limited").counter().count());
+    }
+
+    @Test
+    void userHeaderSentByTheClientIsNotTrusted() {
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        rateLimitConfig.setLimitAnonymous(false);
+        GatewayFilter filter = newFilter(rateLimitConfig).apply(config(1, 1));
+
+        for (int i = 0; i < 3; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/artemis/public")
+                    .header("X-USER-NAME", "jdoe"));
+            filter.filter(exchange, chain).block();
+            assertNull(exchange.getResponse().getStatusCode());
+        }
+        assertEquals(3, forwarded.get());
+    }
+
+    @Test
+    void anonymousRequestsAreKeyedOnTheAddressAddedByTheTrustedProxy() {
+        RateLimitConfig rateLimitConfig = new RateLimitConfig();
+        rateLimitConfig.setTrustedProxies(1);
+        GatewayFilter filter = newFilter(rateLimitConfig).apply(config(1, 1));
+
+        filter.filter(anonymousExchange("10.0.0.1"), chain).block();
+        MockServerWebExchange spoofed = anonymousExchange("192.168.1.1, 10.0.0.1");
+        filter.filter(spoofed, chain).block();
+        MockServerWebExchange other = anonymousExchange("10.0.0.2");
+        filter.filter(other, chain).block();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, spoofed.getResponse().getStatusCode());
+        assertNull(other.getResponse().getStatusCode());
+        assertEquals(2, forwarded.get());
+    }
+
+    private RateLimitFilter newFilter(RateLimitConfig rateLimitConfig) {
+        return new RateLimitFilter(rateLimitConfig, new GatewayMetrics(meterRegistry, new GatewayMetricsConfig()));
+    }
+
+    private static RateLimitFilter.Config config(double replenishRate, int burstCapacity) {
+        RateLimitFilter.Config config = new RateLimitFilter.Config();
+        config.setReplenishRate(replenishRate);
+        config.setBurstCapacity(burstCapacity);
+        return config;
+    }
+
+    /**
+     * A request without a user, received from the proxy at 172.16.0.1.
+     */
+    private static MockServerWebExchange anonymousExchange(String forwardedFor) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/artemis/public")
+                .remoteAddress(new InetSocketAddress("172.16.0.1", 40000))
+                .header("X-Forwarded-For", forwardedFor));
+    }
+
+    private static MockServerWebExchange exchange(String username) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/artemis/account"));
+        exchange.getAttributes().put(AuthenticationFilter.AUTHENTICATED_USER_ATTR, username);
+        return exchange;
+    }
+}
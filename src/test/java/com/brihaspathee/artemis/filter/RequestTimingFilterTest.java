@@ -0,0 +1,79 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RequestTimingFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GatewayMetricsConfig config = new GatewayMetricsConfig();
+
+    private final GatewayMetrics gatewayMetrics = new GatewayMetrics(meterRegistry, config);
+
+    /**
+     * Stands in for the rest of the chain: authenticates, then calls the upstream service.
+     */
+    private final GatewayFilterChain chain = exchange -> {
+        gatewayMetrics.recordAuth(exchange, "granted", "cache", TimeUnit.MILLISECONDS.toNanos(2));
+        return new UpstreamTimingFilter(gatewayMetrics).filter(exchange, routed -> {
+            routed.getResponse().setStatusCode(HttpStatus.OK);
+            return Mono.delay(Duration.ofMillis(20)).then();
+        }).then(Mono.defer(() -> exchange.getResponse().setComplete()));
+    };
+
+    @Test
+    void stagesAreTimedPerRoute() {
+        MockServerWebExchange exchange = exchange();
+
+        new RequestTimingFilter(gatewayMetrics, config).filter(exchange, chain).block();
+
+        Timer requests = meterRegistry.get("artemis.gateway.requests").tags("route", "account", "outcome", "2xx").timer();
+        Timer upstream = meterRegistry.get("artemis.gateway.upstream").tags("route", "account", "outcome", "2xx").timer();
+        assertEquals(1, requests.count());
+        assertEquals(1, upstream.count());
+        assertTrue(upstream.totalTime(TimeUnit.MILLISECONDS) >= 20);
+        assertTrue(requests.totalTime(TimeUnit.NANOSECONDS) >= upstream.totalTime(TimeUnit.NANOSECONDS));
+        assertEquals(1, meterRegistry.get("artemis.gateway.auth")
+                .tags("route", "account", "outcome", "granted", "source", "cache").timer().count());
+        assertNull(exchange.getResponse().getHeaders().getFirst("Server-Timing"));
+    }
+
+    @Test
+    void serverTimingHeaderIsAddedWhenEnabled() {
+        config.setServerTiming(true);
+        MockServerWebExchange exchange = exchange();
+
+        new RequestTimingFilter(gatewayMetrics, config).filter(exchange, chain).block();
+
+        String serverTiming = exchange.getResponse().getHeaders().getFirst("Server-Timing");
+        assertTrue(serverTiming.startsWith("auth;dur=2.0, upstream;dur="), serverTiming);
+    }
+
+    private static MockServerWebExchange exchange() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/artemis/account"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("account")
+                .uri("http://localhost:6095")
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+}
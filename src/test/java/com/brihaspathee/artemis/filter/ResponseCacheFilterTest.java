@@ -0,0 +1,160 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.cache.ResponseCacheStore;
+import com.brihaspathee.artemis.config.GatewayMetricsConfig;
+import com.brihaspathee.artemis.config.ResponseCacheConfig;
+import com.brihaspathee.artemis.metrics.GatewayMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "{\"states\":[\"AL\",\"AK\",\"AZ\"]}";
+
+    private static final String ETAG = "\"v1\"";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final GatewayMetrics gatewayMetrics = new GatewayMetrics(meterRegistry, new GatewayMetricsConfig());
+
+    private final ResponseCacheConfig responseCacheConfig = new ResponseCacheConfig();
+
+    private final ResponseCacheStore store = new ResponseCacheStore(responseCacheConfig, meterRegistry);
+
+    private final ResponseCacheFilter factory = new ResponseCacheFilter(store, responseCacheConfig, gatewayMetrics);
+
+    private final ResponseCacheWriteFilter writeFilter = new ResponseCacheWriteFilter(store, responseCacheConfig, gatewayMetrics);
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private String cacheControl = "max-age=60";
+
+    private String contentEncoding;
+
+    @Test
+    void freshResponsesAreServedFromTheCache() {
+        GatewayFilter filter = factory.apply(new ResponseCacheFilter.Config());
+
+        MockServerWebExchange first = get(filter, null, null);
+        MockServerWebExchange second = get(filter, null, null);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(BODY, first.getResponse().getBodyAsString().block());
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(ETAG, second.getResponse().getHeaders().getETag());
+        assertNotNull(second.getResponse().getHeaders().getFirst(HttpHeaders.AGE));
+
+        MockServerWebExchange conditional = get(filter, null, ETAG);
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(2, meterRegistry.get("artemis.gateway.response.cache").tags("result", "hit").counter().count());
+    }
+
+    @Test
+    void staleResponsesAreRevalidated() {
+        cacheControl = "no-cache";
+        GatewayFilter filter = factory.apply(new ResponseCacheFilter.Config());
+
+        get(filter, null, null);
+        MockServerWebExchange revalidated = get(filter, null, null);
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals(BODY, revalidated.getResponse().getBodyAsString().block());
+        assertEquals(1, meterRegistry.get("artemis.gateway.response.cache").tags("result", "revalidated").counter().count());
+    }
+
+    @Test
+    void perUserResponsesAreNotShared() {
+        cacheControl = "private, max-age=60";
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setPerUser(true);
+        GatewayFilter filter = factory.apply(config);
+
+        get(filter, "jdoe", null);
+        get(filter, "jdoe", null);
+        get(filter, "asmith", null);
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void uncacheableResponsesAreNotCached() {
+        cacheControl = "no-store";
+        GatewayFilter shared = factory.apply(new ResponseCacheFilter.Config());
+
+        get(shared, null, null);
+        get(shared, null, null);
+
+        cacheControl = "private, max-age=60";
+        get(shared, null, null);
+        get(shared, null, null);
+
+        cacheControl = "max-age=60";
+        contentEncoding = "gzip";
+        get(shared, null, null);
+        get(shared, null, null);
+
+        assertEquals(6, upstreamCalls.get());
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * Runs a GET through the write filter, the caching filter of the route and a stub of
+     * the upstream service that answers conditional requests for the current ETag with a 304.
+     */
+    private MockServerWebExchange get(GatewayFilter filter, String user, String ifNoneMatch) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/v1/artemis/reference/states");
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("reference")
+                .uri("lb://reference-service")
+                .predicate(e -> true)
+                .filter(new OrderedGatewayFilter(filter, 1))
+                .build());
+        if (user != null) {
+            exchange.getAttributes().put(AuthenticationFilter.AUTHENTICATED_USER_ATTR, user);
+        }
+        writeFilter.filter(exchange, decorated -> filter.filter(decorated, this::upstream)).block();
+        return exchange;
+    }
+
+    private Mono<Void> upstream(ServerWebExchange exchange) {
+        upstreamCalls.incrementAndGet();
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.setETag(ETAG);
+        headers.setCacheControl(cacheControl);
+        if (contentEncoding != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+        if (ETAG.equals(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH))) {
+            exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+            return exchange.getResponse().writeWith(Flux.empty());
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        byte[] body = BODY.getBytes(StandardCharsets.UTF_8);
+        headers.setContentLength(body.length);
+        return exchange.getResponse().writeWith(Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.brihaspathee.artemis.filter;
+
+import com.brihaspathee.artemis.auth.UserContextSigner;
+import com.brihaspathee.artemis.config.UserContextConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class UserContextHeaderFilterTest {
+
+    private final UserContextHeaderFilter filter = new UserContextHeaderFilter(new UserContextSigner(new UserContextConfig()));
+
+    @Test
+    void userHeadersSentByTheClientAreRemoved() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/members")
+                .header("X-USER-NAME", "admin")
+                .header("X-USER-CONTEXT", "forged.context")
+                .header("Accept", "application/json"));
+        AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+
+        filter.filter(exchange, routed -> {
+            forwarded.set(routed.getRequest().getHeaders());
+            return Mono.empty();
+        }).block();
+
+        assertFalse(forwarded.get().containsKey("X-USER-NAME"));
+        assertFalse(forwarded.get().containsKey("X-USER-CONTEXT"));
+        assertEquals("application/json", forwarded.get().getFirst("Accept"));
+    }
+}
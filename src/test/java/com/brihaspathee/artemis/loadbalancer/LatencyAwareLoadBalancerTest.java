@@ -0,0 +1,191 @@
+package com.brihaspathee.artemis.loadbalancer;
+
+import com.brihaspathee.artemis.config.LoadBalancerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+class LatencyAwareLoadBalancerTest {
+
+    private static final String SERVICE_ID = "member-service";
+
+    private final StubBackend fast = new StubBackend(Duration.ofMillis(5));
+
+    private final StubBackend slow = new StubBackend(Duration.ofMillis(80));
+
+    private final AtomicLong clockOffset = new AtomicLong();
+
+    private final LoadBalancerConfig config = new LoadBalancerConfig();
+
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(config,
+            () -> System.nanoTime() + clockOffset.get());
+
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(
+            ServiceInstanceListSuppliers.toProvider(SERVICE_ID, fast.instance, slow.instance), SERVICE_ID, registry);
+
+    private final HttpClient httpClient = HttpClient.create();
+
+    @AfterEach
+    void stopBackends() {
+        fast.server.disposeNow();
+        slow.server.disposeNow();
+    }
+
+    @Test
+    void theSlowInstanceIsAvoided() {
+        for (int i = 0; i < 4; i++) {
+            send();
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(fast.instance, send());
+        }
+        assertEquals(slow.instance, loadBalancer.choose(List.of(fast.instance, slow.instance), fast.instance).getServer());
+        assertEquals(0, registry.stats(fast.instance).getInFlight());
+        assertEquals(0, registry.stats(slow.instance).getInFlight());
+    }
+
+    @Test
+    void aFailingInstanceIsEjectedAndThenProbedByASingleRequest() {
+        ejectSlow();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(fast.instance, send());
+        }
+
+        clockOffset.addAndGet(config.getEjection().getBaseEjectionTime().toNanos());
+        slow.status.set(200);
+        slow.delay.set(Duration.ZERO);
+        Request<Object> probeRequest = request();
+        Response<ServiceInstance> probe = start(probeRequest);
+        assertEquals(slow.instance, probe.getServer());
+        assertInstanceOf(LatencyAwareLoadBalancer.ProbeResponse.class, probe);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(fast.instance, start(request()).getServer());
+        }
+
+        complete(probeRequest, probe).block(Duration.ofSeconds(5));
+        assertFalse(registry.stats(slow.instance).isEjected());
+        assertEquals(0, registry.stats(slow.instance).getInFlight());
+        assertEquals(3, registry.stats(fast.instance).getInFlight());
+    }
+
+    @Test
+    void aCancelledProbeEndsAndTheInstanceIsProbedAgain() {
+        ejectSlow();
+        clockOffset.addAndGet(config.getEjection().getBaseEjectionTime().toNanos());
+        slow.delay.set(Duration.ofSeconds(10));
+
+        Request<Object> request = request();
+        Response<ServiceInstance> probe = start(request);
+        assertEquals(slow.instance, probe.getServer());
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/members"));
+        exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, probe);
+        Disposable inFlight = new CancelledRequestFilter(registry)
+                .filter(exchange, unused -> complete(request, probe).then())
+                .subscribe();
+        assertEquals(1, registry.stats(slow.instance).getInFlight());
+        assertEquals(fast.instance, start(request()).getServer());
+
+        inFlight.dispose();
+
+        assertEquals(0, registry.stats(slow.instance).getInFlight());
+        assertTrue(registry.stats(slow.instance).isEjected());
+        assertInstanceOf(LatencyAwareLoadBalancer.ProbeResponse.class, start(request()));
+    }
+
+    /**
+     * Sends requests until the slow backend, failing every one of them, is ejected.
+     */
+    private void ejectSlow() {
+        slow.status.set(500);
+        for (int i = 0; i < 50 && !registry.stats(slow.instance).isEjected(); i++) {
+            send();
+        }
+        assertTrue(registry.stats(slow.instance).isEjected());
+    }
+
+    /**
+     * Sends a request the way the gateway's load balancer filter does.
+     *
+     * @return the instance it was sent to
+     */
+    private ServiceInstance send() {
+        Request<Object> request = request();
+        Response<ServiceInstance> response = start(request);
+        complete(request, response).block(Duration.ofSeconds(5));
+        return response.getServer();
+    }
+
+    private static Request<Object> request() {
+        return new DefaultRequest<>(new RequestDataContext());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response<ServiceInstance> start(Request<Object> request) {
+        Response<ServiceInstance> response = loadBalancer.choose((Request) request).block();
+        registry.onStartRequest(request, response);
+        return response;
+    }
+
+    private Mono<HttpStatusCode> complete(Request<Object> request, Response<ServiceInstance> response) {
+        return httpClient.get()
+                .uri(response.getServer().getUri() + "/")
+                .responseSingle((clientResponse, body) -> body.thenReturn(
+                        HttpStatusCode.valueOf(clientResponse.status().code())))
+                .doOnNext(status -> registry.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS,
+                        request, response, new ResponseData(status, new HttpHeaders(), new LinkedMultiValueMap<>(), null))));
+    }
+
+    private static final class StubBackend {
+
+        private final AtomicReference<Duration> delay;
+
+        private final AtomicInteger status = new AtomicInteger(200);
+
+        private final DisposableServer server;
+
+        private final ServiceInstance instance;
+
+        private StubBackend(Duration delay) {
+            this.delay = new AtomicReference<>(delay);
+            this.server = HttpServer.create()
+                    .host("localhost")
+                    .port(0)
+                    .handle((request, response) -> Mono.delay(this.delay.get())
+                            .then(Mono.defer(() -> response.status(status.get()).send())))
+                    .bindNow();
+            this.instance = new DefaultServiceInstance("localhost-" + server.port(), SERVICE_ID, "localhost",
+                    server.port(), false);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.brihaspathee.artemis.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    void burstIsAdmittedThenRequestsAreLimitedToTheRate() {
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(10, 5, 1000, now::get);
+
+        IntStream.range(0, 5).forEach(i -> assertEquals(0, rateLimiter.tryAcquire("jdoe")));
+        long wait = rateLimiter.tryAcquire("jdoe");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), wait);
+
+        now.addAndGet(wait);
+        assertEquals(0, rateLimiter.tryAcquire("jdoe"));
+        assertTrue(rateLimiter.tryAcquire("jdoe") > 0);
+    }
+
+    @Test
+    void usersHaveTheirOwnBuckets() {
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(1, 1, 1000, now::get);
+
+        assertEquals(0, rateLimiter.tryAcquire("jdoe"));
+        assertTrue(rateLimiter.tryAcquire("jdoe") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("asmith"));
+    }
+
+    @Test
+    void idleBucketsAreEvictedOnceFull() {
+        LocalRateLimiter rateLimiter = new LocalRateLimiter(10, 5, 1000, now::get);
+        IntStream.range(0, 100).forEach(i -> rateLimiter.tryAcquire("user-" + i));
+        rateLimiter.cleanUp();
+        assertEquals(100, rateLimiter.size());
+
+        // Refilling 5 tokens at 10 per second takes 500 ms
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(501));
+        rateLimiter.cleanUp();
+        assertEquals(0, rateLimiter.size());
+    }
+}
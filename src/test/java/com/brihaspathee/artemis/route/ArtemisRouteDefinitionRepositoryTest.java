@@ -0,0 +1,158 @@
+package com.brihaspathee.artemis.route;
+
+import com.brihaspathee.artemis.config.RouteRefreshConfig;
+import com.brihaspathee.artemis.domain.entity.Route;
+import com.brihaspathee.artemis.domain.repository.RouteRepository;
+import com.brihaspathee.artemis.domain.repository.RouteTableState;
+import com.brihaspathee.artemis.domain.repository.RouteVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ArtemisRouteDefinitionRepositoryTest {
+
+    private RouteRepository routeRepository;
+
+    private RouteSnapshotStore snapshotStore;
+
+    private ArtemisRouteDefinitionRepository repository;
+
+    private final RouteDefinitionParser parser =
+            new RouteDefinitionParser(Set.of("Path", "Method"), Set.of("AuthenticationFilter", "StripPrefix"));
+
+    @BeforeAll
+    static void installBlockHound() {
+        BlockHound.install();
+    }
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        routeRepository = mock(RouteRepository.class);
+        RouteRefreshConfig config = new RouteRefreshConfig();
+        config.getSnapshot().setPath(directory.resolve("routes.snapshot").toString());
+        snapshotStore = new RouteSnapshotStore(config);
+        repository = new ArtemisRouteDefinitionRepository(routeRepository, snapshotStore, parser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    void routesAreLoadedWithoutBlockingTheSubscribingThread() {
+        when(routeRepository.findByEnabledTrue()).thenAnswer(invocation -> {
+            // Simulates the JDBC round trip
+            Thread.sleep(50);
+            return List.of(route("account", "/api/v1/artemis/account/**"));
+        });
+
+        // The gateway calls getRouteDefinitions() from a non-blocking (event loop) thread
+        StepVerifier.create(Flux.defer(repository::getRouteDefinitions)
+                        .subscribeOn(Schedulers.parallel()))
+                .expectNextMatches(definition -> definition.getId().equals("account"))
+                .verifyComplete();
+    }
+
+    @Test
+    void blockHoundDetectsBlockingOnNonBlockingThreads() {
+        StepVerifier.create(Mono.fromCallable(() -> {
+                            Thread.sleep(10);
+                            return "";
+                        })
+                        .subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify();
+    }
+
+    @Test
+    void reconcileReloadsOnlyChangedAndRemovedRoutes() {
+        when(routeRepository.findTableState()).thenReturn(new RouteTableState(2L, 0L, Instant.EPOCH));
+        when(routeRepository.findByEnabledTrue()).thenReturn(List.of(
+                route("account", "/api/v1/artemis/account/**"),
+                route("member", "/api/v1/artemis/member/**")));
+        repository.getRouteDefinitions().blockLast();
+
+        assertEquals(Set.of(), repository.reconcile());
+        verify(routeRepository, never()).findEnabledRouteVersions();
+
+        Route changedAccount = route("account", "/api/v1/artemis/accounts/**");
+        changedAccount.setVersion(1);
+        when(routeRepository.findTableState()).thenReturn(new RouteTableState(1L, 1L, Instant.now()));
+        when(routeRepository.findEnabledRouteVersions()).thenReturn(List.of(new RouteVersion("account", 1L)));
+        when(routeRepository.findByRouteIdInAndEnabledTrue(Set.of("account"))).thenReturn(List.of(changedAccount));
+
+        assertEquals(Set.of("account", "member"), repository.reconcile());
+        List<RouteDefinition> definitions = repository.getRouteDefinitions().collectList().block();
+        assertEquals(1, definitions.size());
+        assertEquals("/api/v1/artemis/accounts/**",
+                definitions.get(0).getPredicates().get(0).getArgs().values().iterator().next());
+        verify(routeRepository, times(1)).findByEnabledTrue();
+    }
+
+    @Test
+    void invalidRouteIsSkippedWithoutAffectingTheOthers() {
+        when(routeRepository.findTableState()).thenReturn(new RouteTableState(2L, 0L, Instant.EPOCH));
+        Route invalid = route("member", "/api/v1/artemis/member/**");
+        invalid.setFilters("AuthenticationFilter\nStripPrefx=1");
+        when(routeRepository.findByEnabledTrue()).thenReturn(List.of(
+                route("account", "/api/v1/artemis/account/**"), invalid));
+
+        List<RouteDefinition> definitions = repository.getRouteDefinitions().collectList().block();
+        assertEquals(1, definitions.size());
+        assertEquals("account", definitions.get(0).getId());
+    }
+
+    @Test
+    void restartServesRoutesFromSnapshotWithoutTheDatabase() {
+        when(routeRepository.findTableState()).thenReturn(new RouteTableState(1L, 0L, Instant.EPOCH));
+        when(routeRepository.findByEnabledTrue()).thenReturn(List.of(route("account", "/api/v1/artemis/account/**")));
+        repository.getRouteDefinitions().blockLast();
+        repository.shutdown();
+
+        RouteRepository unreachable = mock(RouteRepository.class);
+        when(unreachable.findTableState()).thenThrow(new IllegalStateException("database is down"));
+        ArtemisRouteDefinitionRepository restarted = new ArtemisRouteDefinitionRepository(unreachable, snapshotStore, parser);
+        restarted.restoreSnapshot();
+
+        List<RouteDefinition> definitions = restarted.getRouteDefinitions().collectList().block();
+        assertEquals(1, definitions.size());
+        assertEquals("account", definitions.get(0).getId());
+        verify(unreachable, never()).findByEnabledTrue();
+        restarted.shutdown();
+    }
+
+    private static Route route(String routeId, String path) {
+        return Route.builder()
+                .routeId(routeId)
+                .uri("lb://MEMBER-MANAGEMENT")
+                .predicates(path)
+                .filters("AuthenticationFilter")
+                .enabled(true)
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.brihaspathee.artemis.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.server.PathContainer;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PathRouteTrieTest {
+
+    private final List<Route> routes = List.of(
+            route("account-public"),
+            route("account"),
+            route("member-by-id"),
+            route("member-search"),
+            route("no-path"));
+
+    private final PathRouteTrie trie = PathRouteTrie.build(routes, Map.of(
+            "account-public", List.of("/api/v1/artemis/account/public/**"),
+            "account", List.of("/api/v1/artemis/account/**"),
+            "member-by-id", List.of("/api/v1/artemis/member/{id}"),
+            "member-search", List.of("/api/v1/artemis/member/search", "/api/v1/artemis/members/search")));
+
+    @Test
+    void catchAllPatternsMatchAnyRemainderInRouteOrder() {
+        assertEquals(List.of("account-public", "account", "no-path"),
+                candidates("/api/v1/artemis/account/public/plans"));
+        assertEquals(List.of("account", "no-path"), candidates("/api/v1/artemis/account"));
+    }
+
+    @Test
+    void literalAndWildcardSegmentsAreBothCandidates() {
+        assertEquals(List.of("member-by-id", "member-search", "no-path"), candidates("/api/v1/artemis/member/search"));
+        assertEquals(List.of("member-by-id", "no-path"), candidates("/api/v1/artemis/member/42/"));
+        assertEquals(List.of("member-search", "no-path"), candidates("/api/v1/artemis/members/search"));
+    }
+
+    @Test
+    void unmatchedPathsOnlyYieldRoutesWithoutPathPattern() {
+        assertEquals(List.of("no-path"), candidates("/api/v1/artemis/member/42/plans"));
+        assertEquals(List.of("no-path"), candidates("/"));
+    }
+
+    private List<String> candidates(String path) {
+        return trie.candidates(PathContainer.parsePath(path)).stream().map(Route::getId).toList();
+    }
+
+    private static Route route(String id) {
+        return Route.async()
+                .id(id)
+                .uri("http://localhost")
+                .predicate(exchange -> true)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.brihaspathee.artemis.route;
+
+import com.brihaspathee.artemis.domain.entity.RouteSecurityPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteDefinitionParserTest {
+
+    private final RouteDefinitionParser parser =
+            new RouteDefinitionParser(Set.of("Path", "Method", "Header"), Set.of("AuthenticationFilter", "StripPrefix"));
+
+    @Test
+    void predicatesAndFiltersAreParsedOnePerLine() {
+        List<PredicateDefinition> predicates = parser.parsePredicates("""
+                Path=/api/v1/artemis/account/**,/api/v1/artemis/accounts/**
+                # only reads are routed here
+                Method=GET
+                """);
+        assertEquals(List.of(
+                new PredicateDefinition("Path=/api/v1/artemis/account/**,/api/v1/artemis/accounts/**"),
+                new PredicateDefinition("Method=GET")), predicates);
+
+        List<FilterDefinition> filters = parser.parseFilters("AuthenticationFilter=true\r\nStripPrefix=2");
+        assertEquals(List.of(new FilterDefinition("AuthenticationFilter=true"), new FilterDefinition("StripPrefix=2")),
+                filters);
+    }
+
+    @Test
+    void plainPathIsReadAsPathPredicate() {
+        assertEquals(List.of(new PredicateDefinition("Path=/api/v1/artemis/member/**")),
+                parser.parsePredicates(" /api/v1/artemis/member/** "));
+        assertEquals(List.of(new FilterDefinition("AuthenticationFilter")), parser.parseFilters("AuthenticationFilter"));
+        assertEquals(List.of(), parser.parseFilters(null));
+    }
+
+    @Test
+    void securityPolicyDecidesTheAuthenticationFilter() {
+        List<FilterDefinition> filters = parser.parseFilters("StripPrefix=2\nAuthenticationFilter=true");
+
+        assertEquals(List.of(new FilterDefinition("StripPrefix=2")),
+                parser.applySecurityPolicy(filters, RouteSecurityPolicy.PUBLIC));
+        assertEquals(List.of(authentication(true, false), new FilterDefinition("StripPrefix=2")),
+                parser.applySecurityPolicy(parser.parseFilters("StripPrefix=2"), RouteSecurityPolicy.AUTHENTICATED));
+        assertEquals(List.of(authentication(true, false), new FilterDefinition("StripPrefix=2")),
+                parser.applySecurityPolicy(filters, RouteSecurityPolicy.AUTHENTICATED));
+        assertEquals(List.of(authentication(true, true), new FilterDefinition("StripPrefix=2")),
+                parser.applySecurityPolicy(filters, RouteSecurityPolicy.RESOURCE_AUTHORIZED));
+        assertEquals(List.of(authentication(false, true)),
+                parser.applySecurityPolicy(parser.parseFilters("AuthenticationFilter"), null));
+        assertEquals(List.of(new FilterDefinition("StripPrefix=2")),
+                parser.applySecurityPolicy(parser.parseFilters("StripPrefix=2"), null));
+    }
+
+    @Test
+    void invalidDefinitionsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> parser.parsePredicates("Pth=/api/**"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parsePredicates("Method"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parsePredicates("  \n"));
+        assertThrows(IllegalArgumentException.class, () -> parser.parseFilters("StripPrefx=1"));
+    }
+
+    private static FilterDefinition authentication(boolean localVerification, boolean resourceCheck) {
+        FilterDefinition filter = new FilterDefinition();
+        filter.setName("AuthenticationFilter");
+        filter.addArg("localVerification", Boolean.toString(localVerification));
+        filter.addArg("resourceCheck", Boolean.toString(resourceCheck));
+        return filter;
+    }
+}
@@ -0,0 +1,78 @@
+package com.brihaspathee.artemis.route;
+
+import com.brihaspathee.artemis.config.RouteRefreshConfig;
+import com.brihaspathee.artemis.domain.repository.RouteTableState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class RouteSnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    private Path snapshotFile;
+
+    private RouteSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        snapshotFile = directory.resolve("routes.snapshot");
+        RouteRefreshConfig config = new RouteRefreshConfig();
+        config.getSnapshot().setPath(snapshotFile.toString());
+        store = new RouteSnapshotStore(config);
+    }
+
+    @Test
+    void snapshotSurvivesRoundTrip() {
+        RouteDefinition definition = new RouteDefinition("account=lb://MEMBER-MANAGEMENT,Path=/api/v1/artemis/account/**");
+        definition.getMetadata().put(ArtemisRouteDefinitionRepository.ROUTE_ID_METADATA, "account");
+        RouteTableState state = new RouteTableState(1L, 3L, Instant.parse("2026-10-17T10:15:30Z"));
+        store.write(new RouteSnapshot(state, List.of(new RouteSnapshot.Entry("account", 3L, definition))));
+
+        RouteSnapshot snapshot = store.read().orElseThrow();
+        assertEquals(state, snapshot.tableState());
+        assertEquals(1, snapshot.routes().size());
+        assertEquals(3L, snapshot.routes().get(0).version());
+        assertEquals(definition, snapshot.routes().get(0).definition());
+    }
+
+    @Test
+    void corruptedSnapshotIsIgnored() throws Exception {
+        store.write(new RouteSnapshot(new RouteTableState(0L, 0L, null), List.of()));
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[bytes.length - 1] ^= 0x7f;
+        Files.write(snapshotFile, bytes);
+
+        assertEquals(Optional.empty(), store.read());
+    }
+
+    @Test
+    void snapshotWritableByOthersIsIgnored() throws Exception {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        store.write(new RouteSnapshot(new RouteTableState(0L, 0L, null), List.of()));
+        assertTrue(store.read().isPresent());
+
+        Files.setPosixFilePermissions(snapshotFile, PosixFilePermissions.fromString("rw-rw-rw-"));
+
+        assertTrue(store.read().isEmpty());
+    }
+
+    @Test
+    void missingSnapshotIsIgnored() {
+        assertTrue(store.read().isEmpty());
+    }
+}
@@ -0,0 +1,67 @@
+package com.brihaspathee.artemis.route;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.config.GlobalCorsProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TrieRoutePredicateHandlerMappingTest {
+
+    @Test
+    void aRouteWhosePredicateFailsIsSkipped() {
+        Route broken = Route.async()
+                .id("broken")
+                .uri("http://localhost:8081")
+                .order(0)
+                .asyncPredicate(exchange -> {
+                    throw new IllegalStateException("predicate failed");
+                })
+                .build();
+        Route failing = Route.async()
+                .id("failing")
+                .uri("http://localhost:8082")
+                .order(1)
+                .asyncPredicate(exchange -> Mono.error(new IllegalStateException("predicate failed")))
+                .build();
+        Route members = Route.async()
+                .id("members")
+                .uri("http://localhost:8083")
+                .order(2)
+                .predicate(exchange -> true)
+                .build();
+        TrieRoutePredicateHandlerMapping mapping = new TrieRoutePredicateHandlerMapping(
+                new FilteringWebHandler(List.of(), false),
+                () -> Flux.just(broken, failing, members),
+                () -> Flux.just(definition("broken"), definition("failing"), definition("members")),
+                new GlobalCorsProperties(),
+                new StandardEnvironment());
+        mapping.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+        Route matched = mapping.lookupRoute(MockServerWebExchange.from(MockServerHttpRequest.get("/members/42")))
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("members", matched.getId());
+    }
+
+    private static RouteDefinition definition(String id) {
+        RouteDefinition definition = new RouteDefinition();
+        definition.setId(id);
+        definition.setUri(URI.create("http://localhost"));
+        definition.setPredicates(List.of(new PredicateDefinition("Path=/members/**")));
+        return definition;
+    }
+}